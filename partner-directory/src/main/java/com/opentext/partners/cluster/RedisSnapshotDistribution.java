@@ -0,0 +1,147 @@
+package com.opentext.partners.cluster;
+
+import com.opentext.partners.snapshot.PartnerSnapshot;
+import com.opentext.partners.snapshot.SnapshotCodec;
+import com.opentext.partners.snapshot.SnapshotCodec.Decoded;
+import com.opentext.partners.snapshot.SnapshotCodec.Header;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisStringCommands.SetOption;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.LongConsumer;
+
+/**
+ * L2 snapshot tier in Redis.
+ *
+ * Keys, under {@code partners.cluster.key-prefix}:
+ * <ul>
+ *   <li>{@code <prefix>:snapshot}: the shared snapshot as one {@link SnapshotCodec} blob. Its
+ *       header is read with GETRANGE, so comparing versions costs 40 bytes, not the whole blob.</li>
+ *   <li>{@code <prefix>:crawl-lock}: the crawl claim, SET NX PX with a random token. It is released
+ *       by a compare-and-delete script, so a node whose claim expired cannot drop a newer one.</li>
+ *   <li>Channel {@code <prefix>:snapshot:published}: the version of each newly stored snapshot.</li>
+ * </ul>
+ * Redis holds no history: a node that misses a message still picks up the newest snapshot on
+ * its next refresh.
+ */
+@Slf4j
+public class RedisSnapshotDistribution implements SnapshotDistribution {
+
+    private static final RedisScript<Long> RELEASE = RedisScript.of(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    private final StringRedisTemplate redis;
+    private final RedisMessageListenerContainer listeners;
+    private final byte[] snapshotKey;
+    private final String lockKey;
+    private final String channel;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final List<LongConsumer> subscribers = new CopyOnWriteArrayList<>();
+
+    /** Version this node last published, so its own announcements are not echoed back. */
+    private volatile long ownVersion = -1;
+
+    public RedisSnapshotDistribution(RedisConnectionFactory connectionFactory, String keyPrefix) {
+        this.redis = new StringRedisTemplate(connectionFactory);
+        this.snapshotKey = (keyPrefix + ":snapshot").getBytes(StandardCharsets.UTF_8);
+        this.lockKey = keyPrefix + ":crawl-lock";
+        this.channel = keyPrefix + ":snapshot:published";
+
+        this.listeners = new RedisMessageListenerContainer();
+        listeners.setConnectionFactory(connectionFactory);
+        listeners.addMessageListener((message, pattern) -> onMessage(message.getBody()), new ChannelTopic(channel));
+        listeners.afterPropertiesSet();
+        listeners.start();
+    }
+
+    @Override
+    public boolean tryAcquireCrawl(Duration ttl) {
+        Boolean acquired = redis.opsForValue().setIfAbsent(lockKey, nodeId, ttl);
+        return Boolean.TRUE.equals(acquired);
+    }
+
+    @Override
+    public void releaseCrawl() {
+        redis.execute(RELEASE, List.of(lockKey), nodeId);
+    }
+
+    @Override
+    public Optional<Header> latest() throws IOException {
+        byte[] header = redis.execute((RedisCallback<byte[]>) connection ->
+                connection.stringCommands().getRange(snapshotKey, 0, SnapshotCodec.HEADER_BYTES - 1));
+        if (header == null || header.length == 0) return Optional.empty();
+        return Optional.of(SnapshotCodec.header(ByteBuffer.wrap(header), source()));
+    }
+
+    @Override
+    public Optional<Decoded> fetch() throws IOException {
+        byte[] encoded = redis.execute((RedisCallback<byte[]>) connection -> connection.stringCommands().get(snapshotKey));
+        if (encoded == null) return Optional.empty();
+        return Optional.of(SnapshotCodec.decode(ByteBuffer.wrap(encoded), source()));
+    }
+
+    @Override
+    public void publish(PartnerSnapshot snapshot) {
+        byte[] encoded = SnapshotCodec.encode(snapshot);
+        ownVersion = snapshot.version();
+        redis.execute((RedisCallback<Void>) connection -> {
+            connection.stringCommands().set(snapshotKey, encoded, Expiration.persistent(), SetOption.upsert());
+            return null;
+        });
+        redis.convertAndSend(channel, Long.toString(snapshot.version()));
+        log.info("Published snapshot v{} to Redis ({} KB).", snapshot.version(), encoded.length / 1024);
+    }
+
+    @Override
+    public void onPublished(LongConsumer listener) {
+        subscribers.add(listener);
+    }
+
+    @Override
+    public String name() {
+        return "redis";
+    }
+
+    @Override
+    public void close() {
+        listeners.stop();
+        try {
+            listeners.destroy();
+        } catch (Exception e) {
+            log.warn("Could not stop the Redis snapshot listener: {}", e.getMessage());
+        }
+    }
+
+    private void onMessage(byte[] body) {
+        long version;
+        try {
+            version = Long.parseLong(new String(body, StandardCharsets.UTF_8).trim());
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring malformed snapshot announcement on {}", channel);
+            return;
+        }
+        if (version == ownVersion) return;
+        for (LongConsumer subscriber : subscribers) {
+            subscriber.accept(version);
+        }
+    }
+
+    private String source() {
+        return "Redis key " + new String(snapshotKey, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,86 @@
+package com.opentext.partners.cluster;
+
+import com.opentext.partners.snapshot.PartnerSnapshot;
+import com.opentext.partners.snapshot.SnapshotCodec.Decoded;
+import com.opentext.partners.snapshot.SnapshotCodec.Header;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.LongConsumer;
+
+/**
+ * Second tier behind each node's in-memory snapshot (L1): a store shared by all replicas (L2), a
+ * lock so only one of them crawls upstream at a time, and a signal telling the others a new
+ * version is there to pull. Selected with {@code partners.cluster.mode}, see ClusterConfig.
+ *
+ * Implementations report infrastructure failures as runtime exceptions; callers fall back to
+ * behaving like a single node.
+ */
+public interface SnapshotDistribution extends AutoCloseable {
+
+    /** Single node: always allowed to crawl, nothing shared, nobody to notify. */
+    SnapshotDistribution LOCAL = new SnapshotDistribution() {
+        @Override
+        public boolean tryAcquireCrawl(Duration ttl) {
+            return true;
+        }
+
+        @Override
+        public void releaseCrawl() {
+        }
+
+        @Override
+        public Optional<Header> latest() {
+            return Optional.empty();
+        }
+
+        @Override
+        public Optional<Decoded> fetch() {
+            return Optional.empty();
+        }
+
+        @Override
+        public void publish(PartnerSnapshot snapshot) {
+        }
+
+        @Override
+        public void onPublished(LongConsumer listener) {
+        }
+
+        @Override
+        public String name() {
+            return "local";
+        }
+    };
+
+    /**
+     * Claims the right to crawl upstream. The claim expires after {@code ttl} even if its holder
+     * dies without releasing it.
+     *
+     * @return False while another node holds it.
+     */
+    boolean tryAcquireCrawl(Duration ttl);
+
+    /** Gives up a claim taken with {@link #tryAcquireCrawl}; a no-op if it already expired. */
+    void releaseCrawl();
+
+    /** Version and publish time of the shared snapshot, without transferring it. */
+    Optional<Header> latest() throws IOException;
+
+    /** The shared snapshot, verified and decoded. */
+    Optional<Decoded> fetch() throws IOException;
+
+    /** Stores {@code snapshot} as the shared one and tells the other nodes about it. */
+    void publish(PartnerSnapshot snapshot);
+
+    /** Registers a callback receiving the version of every snapshot another node publishes. */
+    void onPublished(LongConsumer listener);
+
+    /** Short name for logs. */
+    String name();
+
+    @Override
+    default void close() {
+    }
+}
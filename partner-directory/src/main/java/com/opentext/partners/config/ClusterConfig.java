@@ -0,0 +1,45 @@
+package com.opentext.partners.config;
+
+import com.opentext.partners.cluster.RedisSnapshotDistribution;
+import com.opentext.partners.cluster.SnapshotDistribution;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.data.redis.RedisHealthIndicator;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+
+import java.util.Locale;
+
+/**
+ * Selects how replicas share snapshots (partners.cluster.mode): 'local' (default) makes every node
+ * crawl for itself, 'redis' keeps one shared snapshot in Redis (spring.data.redis.*) so only one
+ * node crawls and the others pull what it published.
+ *
+ * Spring Boot's own Redis health check is switched off (management.health.redis.enabled=false): it
+ * would report a local-mode node DOWN for lack of a Redis it never uses. Redis mode adds it back.
+ */
+@Configuration
+public class ClusterConfig {
+
+    @Bean
+    public SnapshotDistribution snapshotDistribution(@Value("${partners.cluster.mode:local}") String mode,
+                                                     @Value("${partners.cluster.key-prefix:partners}") String keyPrefix,
+                                                     ObjectProvider<RedisConnectionFactory> redisConnectionFactory) {
+        return switch (mode.trim().toLowerCase(Locale.ROOT)) {
+            case "local" -> SnapshotDistribution.LOCAL;
+            case "redis" -> new RedisSnapshotDistribution(redisConnectionFactory.getObject(), keyPrefix);
+            default -> throw new IllegalArgumentException(
+                    "Unknown partners.cluster.mode '" + mode + "' (expected 'local' or 'redis')");
+        };
+    }
+
+    /** The 'redis' component of /actuator/health, only when snapshots are shared through Redis. */
+    @Bean
+    @ConditionalOnProperty(name = "partners.cluster.mode", havingValue = "redis")
+    public HealthIndicator redisHealthIndicator(RedisConnectionFactory redisConnectionFactory) {
+        return new RedisHealthIndicator(redisConnectionFactory);
+    }
+}
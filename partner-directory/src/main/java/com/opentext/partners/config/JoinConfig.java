@@ -0,0 +1,54 @@
+package com.opentext.partners.config;
+
+import com.opentext.partners.join.CanonicalNameMatcher;
+import com.opentext.partners.join.ExactNameMatcher;
+import com.opentext.partners.join.FuzzyNameMatcher;
+import com.opentext.partners.join.NameMatcher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Selects how Solution.partnerName is matched to partners (partners.join.mode):
+ * 'exact' (case-insensitive equality), 'canonical' (default; also ignores accents, punctuation and
+ * legal suffixes) or 'fuzzy' (canonical plus trigram similarity >= partners.join.fuzzy-threshold).
+ *
+ * Also provides the scheduler the join and snapshot build run on: a dedicated ForkJoin pool of
+ * partners.join.parallelism workers (0 = one per core), so refreshes never occupy the Netty event
+ * loops and parallel streams inside the join split across that pool rather than the common one.
+ * Only the Scheduler is exposed; an Executor bean would displace Spring's applicationTaskExecutor.
+ */
+@Configuration
+public class JoinConfig {
+
+    @Bean
+    public NameMatcher nameMatcher(@Value("${partners.join.mode:canonical}") String mode,
+                                   @Value("${partners.join.fuzzy-threshold:0.85}") double fuzzyThreshold) {
+        return switch (mode.trim().toLowerCase(Locale.ROOT)) {
+            case "exact" -> new ExactNameMatcher();
+            case "canonical" -> new CanonicalNameMatcher();
+            case "fuzzy" -> new FuzzyNameMatcher(fuzzyThreshold);
+            default -> throw new IllegalArgumentException(
+                    "Unknown partners.join.mode '" + mode + "' (expected 'exact', 'canonical' or 'fuzzy')");
+        };
+    }
+
+    @Bean(destroyMethod = "dispose")
+    public Scheduler joinScheduler(@Value("${partners.join.parallelism:0}") int parallelism) {
+        int workers = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        AtomicInteger ids = new AtomicInteger();
+        ForkJoinPool pool = new ForkJoinPool(workers, p -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+            thread.setName("partner-join-" + ids.incrementAndGet());
+            return thread;
+        }, null, false);
+        return Schedulers.fromExecutorService(pool, "partner-join");
+    }
+}
@@ -0,0 +1,28 @@
+package com.opentext.partners.config;
+
+import com.opentext.partners.sanitizer.FastHtmlSanitizer;
+import com.opentext.partners.sanitizer.HtmlSanitizer;
+import com.opentext.partners.sanitizer.JsoupHtmlSanitizer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Locale;
+
+/**
+ * Selects how HTML description fields are cleaned (partners.sanitizer.mode):
+ * 'fast' (default) uses the single-pass FastHtmlSanitizer, 'strict' parses with jsoup.
+ */
+@Configuration
+public class SanitizerConfig {
+
+    @Bean
+    public HtmlSanitizer htmlSanitizer(@Value("${partners.sanitizer.mode:fast}") String mode) {
+        return switch (mode.trim().toLowerCase(Locale.ROOT)) {
+            case "fast" -> new FastHtmlSanitizer();
+            case "strict" -> new JsoupHtmlSanitizer();
+            default -> throw new IllegalArgumentException(
+                    "Unknown partners.sanitizer.mode '" + mode + "' (expected 'fast' or 'strict')");
+        };
+    }
+}
@@ -1,9 +1,59 @@
 package com.opentext.partners.config;
 
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
 import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Thread model of the application. With spring.threads.virtual.enabled on Java 21+, Spring Boot runs
+ * Tomcat request handling, streamed response bodies (applicationTaskExecutor) and @Scheduled
+ * refreshes on virtual threads; otherwise on the Tomcat worker pool (server.tomcat.threads.*) and
+ * platform thread pools.
+ *
+ * The refresh pipeline's blocking stages (saving the snapshot file, reading and writing the shared
+ * tier) run on the 'partner-io' scheduler defined here: a bounded elastic pool whose threads follow
+ * the same switch, virtual or platform. Either way at most partners.refresh.io-concurrency of them
+ * run at once; further stages queue rather than block whoever submitted them, so they never occupy
+ * the CPU-bound join workers (see JoinConfig) or the shared tier's listener thread.
+ */
+@Slf4j
 @Configuration
 @EnableScheduling
 public class SchedulerConfig {
+
+    static final String IO_THREAD_NAME = "partner-io";
+
+    /** Idle I/O threads are retired after this */
+    private static final int IDLE_TTL_SECONDS = 60;
+
+    @Bean(destroyMethod = "dispose")
+    public Scheduler ioScheduler(Environment environment,
+                                 @Value("${partners.refresh.io-concurrency:4}") int ioConcurrency) {
+        int limit = Math.max(1, ioConcurrency);
+        ThreadFactory threads;
+        if (Threading.VIRTUAL.isActive(environment)) {
+            // Same as Thread.ofVirtual().name(IO_THREAD_NAME + "-", 0).factory()
+            threads = new VirtualThreadTaskExecutor(IO_THREAD_NAME + "-").getVirtualThreadFactory();
+            log.info("Refresh I/O stages run on virtual threads (at most {} at once).", limit);
+        } else {
+            if (environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false)) {
+                log.warn("spring.threads.virtual.enabled is set but Java {} has no virtual threads; using platform threads.",
+                        Runtime.version().feature());
+            }
+            CustomizableThreadFactory platform = new CustomizableThreadFactory(IO_THREAD_NAME + "-");
+            platform.setDaemon(true);
+            threads = platform;
+        }
+        return Schedulers.newBoundedElastic(limit, Schedulers.DEFAULT_BOUNDED_ELASTIC_QUEUESIZE, threads, IDLE_TTL_SECONDS);
+    }
 }
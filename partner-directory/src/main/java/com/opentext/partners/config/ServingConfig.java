@@ -0,0 +1,35 @@
+package com.opentext.partners.config;
+
+import com.opentext.partners.controller.ConcurrencyLimitFilter;
+import com.opentext.partners.metrics.PartnerMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Limits on request handling. Which threads handle requests is set by spring.threads.virtual.enabled
+ * (see SchedulerConfig); how many /api requests run at once by partners.serving.max-concurrent-requests
+ * (0, the default, leaves it to server.tomcat.threads.max, which virtual threads do not honour).
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class ServingConfig {
+
+    @Bean
+    @ConditionalOnExpression("${partners.serving.max-concurrent-requests:0} > 0")
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(
+            PartnerMetrics metrics,
+            @Value("${partners.serving.max-concurrent-requests}") int maxConcurrentRequests,
+            @Value("${partners.serving.acquire-timeout:1s}") Duration acquireTimeout) {
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration =
+                new FilterRegistrationBean<>(new ConcurrencyLimitFilter(maxConcurrentRequests, acquireTimeout, metrics));
+        // Actuator stays reachable while the API is saturated
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+}
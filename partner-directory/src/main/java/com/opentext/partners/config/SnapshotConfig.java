@@ -0,0 +1,38 @@
+package com.opentext.partners.config;
+
+import com.opentext.partners.snapshot.SnapshotFile;
+import com.opentext.partners.snapshot.SnapshotStorage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Selects the in-memory layout of published snapshots (partners.snapshot.storage):
+ * 'heap' (default) keeps PartnerSolution records, 'compact' uses columnar storage with an on-heap
+ * text arena, 'compact-off-heap' moves that arena into a direct buffer.
+ *
+ * Also selects where the last published snapshot is saved for warm restarts (partners.snapshot.file);
+ * blank disables saving and restoring.
+ */
+@Configuration
+public class SnapshotConfig {
+
+    @Bean
+    public SnapshotStorage snapshotStorage(@Value("${partners.snapshot.storage:heap}") String storage) {
+        return switch (storage.trim().toLowerCase(Locale.ROOT)) {
+            case "heap" -> SnapshotStorage.HEAP;
+            case "compact" -> SnapshotStorage.COMPACT;
+            case "compact-off-heap" -> SnapshotStorage.COMPACT_OFF_HEAP;
+            default -> throw new IllegalArgumentException("Unknown partners.snapshot.storage '" + storage
+                    + "' (expected 'heap', 'compact' or 'compact-off-heap')");
+        };
+    }
+
+    @Bean
+    public SnapshotFile snapshotFile(@Value("${partners.snapshot.file:}") String file) {
+        return file.isBlank() ? SnapshotFile.NONE : SnapshotFile.at(Path.of(file.trim()));
+    }
+}
@@ -0,0 +1,121 @@
+package com.opentext.partners.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import reactor.netty.http.HttpProtocol;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Tuning for the upstream partner/solution crawls (prefix {@code partners.upstream}).
+ *
+ * @param baseUrl       Scheme and host of both endpoints; point it at a local simulator for offline load tests.
+ * @param partnersPath  Path and query of the partner directory endpoint, with 'start' and 'max' as %d placeholders.
+ * @param solutionsPath Path and query of the solutions catalog endpoint, with the same placeholders.
+ * @param batchSize     Initial records requested per page ('max' query parameter); adapted per source afterwards.
+ * @param minBatchSize  Lower bound for the adaptive page size.
+ * @param maxBatchSize  Upper bound for the adaptive page size.
+ * @param maxBatchBytes Payload budget of a single batch, used to cap the adaptive page size.
+ * @param maxInFlight   Maximum concurrent batch requests per source.
+ * @param timeout       Timeout of a single batch request.
+ * @param retry         Per-batch retry policy.
+ * @param rateLimit     Per-source token bucket applied to every request, including retries.
+ * @param httpCache     Conditional requests (ETag / Last-Modified) for batch URLs.
+ * @param client        Connection pool and protocol of the upstream HTTP client.
+ */
+@ConfigurationProperties(prefix = "partners.upstream")
+public record UpstreamProperties(
+        @DefaultValue("https://www.opentext.com") String baseUrl,
+        @DefaultValue("/en/partners/partners-directory-overview/1716790338234.ajax?q=&start=%d&max=%d&sorter=Default_Sort")
+        String partnersPath,
+        @DefaultValue("/en/partners/ApplicationMarketplace/1754971906819.ajax?q=&start=%d&max=%d&sorter=Name")
+        String solutionsPath,
+        @DefaultValue("200") int batchSize,
+        @DefaultValue("50") int minBatchSize,
+        @DefaultValue("1000") int maxBatchSize,
+        @DefaultValue("8MB") DataSize maxBatchBytes,
+        @DefaultValue("4") int maxInFlight,
+        @DefaultValue("50s") Duration timeout,
+        @DefaultValue Retry retry,
+        @DefaultValue RateLimit rateLimit,
+        @DefaultValue HttpCache httpCache,
+        @DefaultValue Client client
+) {
+
+    /** URL template of the partner directory pages. */
+    public String partnersUrlTemplate() {
+        return stripTrailingSlash(baseUrl) + partnersPath;
+    }
+
+    /** URL template of the solutions catalog pages. */
+    public String solutionsUrlTemplate() {
+        return stripTrailingSlash(baseUrl) + solutionsPath;
+    }
+
+    private static String stripTrailingSlash(String url) {
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+
+    /**
+     * @param maxAttempts Total attempts per batch, including the first one.
+     * @param minBackoff  First retry delay; doubles on every further attempt.
+     * @param maxBackoff  Upper bound of the retry delay.
+     * @param jitter      Random jitter factor (0-1) applied to each delay.
+     */
+    public record Retry(
+            @DefaultValue("3") int maxAttempts,
+            @DefaultValue("500ms") Duration minBackoff,
+            @DefaultValue("10s") Duration maxBackoff,
+            @DefaultValue("0.5") double jitter
+    ) {}
+
+    /**
+     * @param permitsPerSecond Sustained request rate per source; 0 or less disables limiting.
+     * @param burst            Requests allowed back-to-back before the rate applies.
+     */
+    public record RateLimit(
+            @DefaultValue("10") double permitsPerSecond,
+            @DefaultValue("10") int burst
+    ) {}
+
+    /**
+     * @param enabled      Revalidate batch URLs with If-None-Match / If-Modified-Since and reuse unchanged pages.
+     * @param maxEntries   Batch URLs remembered, least recently used evicted first.
+     * @param maxBodyBytes Largest (uncompressed) body kept; bigger pages are always fetched in full.
+     */
+    public record HttpCache(
+            @DefaultValue("true") boolean enabled,
+            @DefaultValue("4096") int maxEntries,
+            @DefaultValue("16MB") DataSize maxBodyBytes
+    ) {}
+
+    /**
+     * @param maxConnections        Pooled connections per upstream host.
+     * @param pendingAcquireMaxCount Requests allowed to wait for a connection; -1 for no limit.
+     * @param pendingAcquireTimeout  How long a request waits for a connection before failing.
+     * @param maxIdleTime            Idle connections are closed after this; keep it below the upstream's keep-alive timeout.
+     * @param maxLifeTime            Connections are retired after this, so DNS and load-balancer changes are picked up.
+     * @param evictInBackground      Interval of the background sweep closing idle/expired connections; 0 only checks on acquire.
+     * @param connectTimeout         TCP (and TLS) connect timeout.
+     * @param responseTimeout        Maximum gap between response reads.
+     * @param protocols              Offered protocols; with H2 and HTTP11 the protocol is negotiated via ALPN on https.
+     * @param compress               Request gzip/deflate bodies and decompress them transparently.
+     * @param metrics                Publish per-host connection pool and request metrics (needs Micrometer on the classpath).
+     */
+    public record Client(
+            @DefaultValue("32") int maxConnections,
+            @DefaultValue("256") int pendingAcquireMaxCount,
+            @DefaultValue("45s") Duration pendingAcquireTimeout,
+            @DefaultValue("20s") Duration maxIdleTime,
+            @DefaultValue("5m") Duration maxLifeTime,
+            @DefaultValue("30s") Duration evictInBackground,
+            @DefaultValue("10s") Duration connectTimeout,
+            @DefaultValue("30s") Duration responseTimeout,
+            @DefaultValue({"H2", "HTTP11"}) List<HttpProtocol> protocols,
+            @DefaultValue("true") boolean compress,
+            @DefaultValue("true") boolean metrics
+    ) {}
+}
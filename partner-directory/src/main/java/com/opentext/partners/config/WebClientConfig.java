@@ -1,33 +1,83 @@
 package com.opentext.partners.config;
 
+import com.opentext.partners.fetch.ConditionalRequestCache;
 import io.netty.channel.ChannelOption;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.web.reactive.function.client.ExchangeStrategies;
+import org.springframework.util.ClassUtils;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
 import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 
-import java.time.Duration;
-
+/**
+ * Upstream HTTP client (partners.upstream.client.*): one named connection pool whose connections
+ * are reused across batches and crawls, HTTP/2 where the upstream negotiates it, and compressed bodies.
+ */
+@Slf4j
 @Configuration
 public class WebClientConfig {
 
-    @Bean
-    public WebClient.Builder webClientBuilder() {
+    static final String POOL_NAME = "partners-upstream";
 
-        HttpClient httpClient = HttpClient.create()
-                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, 10000)   // 10 seconds
-                .responseTimeout(Duration.ofSeconds(30));              // 30 seconds
+    private static final boolean MICROMETER_PRESENT =
+            ClassUtils.isPresent("io.micrometer.core.instrument.MeterRegistry", WebClientConfig.class.getClassLoader());
 
-        ExchangeStrategies strategies = ExchangeStrategies.builder()
-                .codecs(c -> c.defaultCodecs().maxInMemorySize(10 * 1024 * 1024)) // 10 MB
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider upstreamConnectionProvider(UpstreamProperties properties) {
+        UpstreamProperties.Client client = properties.client();
+        return ConnectionProvider.builder(POOL_NAME)
+                .maxConnections(client.maxConnections())
+                .pendingAcquireMaxCount(client.pendingAcquireMaxCount())
+                .pendingAcquireTimeout(client.pendingAcquireTimeout())
+                .maxIdleTime(client.maxIdleTime())
+                .maxLifeTime(client.maxLifeTime())
+                .evictInBackground(client.evictInBackground())
+                // Pool gauges (active/idle/pending) tagged with the remote address
+                .metrics(metricsEnabled(client))
                 .build();
+    }
+
+    @Bean
+    public WebClient.Builder webClientBuilder(UpstreamProperties properties, ConnectionProvider upstreamConnectionProvider) {
+        UpstreamProperties.Client client = properties.client();
+
+        HttpClient httpClient = HttpClient.create(upstreamConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) client.connectTimeout().toMillis())
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .responseTimeout(client.responseTimeout())
+                .protocol(client.protocols().toArray(HttpProtocol[]::new))
+                .compress(client.compress());
+        if (metricsEnabled(client)) {
+            // Request timings per remote host; the path is the only URI part used as a tag
+            httpClient = httpClient.metrics(true, WebClientConfig::withoutQuery);
+        }
 
-        return WebClient.builder()
+        // No maxInMemorySize override: upstream pages are token-streamed (AssetStreamDecoder), never buffered whole
+        WebClient.Builder builder = WebClient.builder()
                 .clientConnector(new ReactorClientHttpConnector(httpClient))
-                .exchangeStrategies(strategies)
                 .defaultHeader("User-Agent", "PartnerDirectory-Service")
                 .defaultHeader("Accept", "application/json");
+
+        UpstreamProperties.HttpCache cache = properties.httpCache();
+        if (cache.enabled()) {
+            builder.filter(new ConditionalRequestCache(cache.maxEntries(), cache.maxBodyBytes().toBytes()));
+        }
+        return builder;
+    }
+
+    private static boolean metricsEnabled(UpstreamProperties.Client client) {
+        if (client.metrics() && !MICROMETER_PRESENT) {
+            log.warn("partners.upstream.client.metrics is set but Micrometer is not on the classpath; upstream metrics are off.");
+        }
+        return client.metrics() && MICROMETER_PRESENT;
+    }
+
+    /** Keeps the 'start'/'max' query out of metric tags, which would otherwise create one series per batch */
+    static String withoutQuery(String uri) {
+        int query = uri.indexOf('?');
+        return query < 0 ? uri : uri.substring(0, query);
     }
 }
@@ -0,0 +1,54 @@
+package com.opentext.partners.controller;
+
+import java.util.Locale;
+
+/**
+ * Reads the Accept-Encoding request header (RFC 9110, section 12.5.3) for the controllers serving
+ * pre-encoded bodies.
+ */
+final class AcceptEncoding {
+
+    private AcceptEncoding() {
+    }
+
+    /**
+     * True when the client accepts a body with Content-Encoding gzip: "gzip" is listed with a
+     * non-zero q-value, or it is not listed and "*" is. "x-gzip" alone does not count, since the
+     * response names its coding "gzip". A missing header, or a q-value that is not a number,
+     * means identity only.
+     */
+    static boolean acceptsGzip(String header) {
+        if (header == null || header.isBlank()) return false;
+        double gzip = -1;
+        double any = -1;
+        for (String element : header.split(",")) {
+            String[] params = element.split(";");
+            String coding = params[0].trim().toLowerCase(Locale.ROOT);
+            if (!coding.equals("gzip") && !coding.equals("*")) continue;
+            double quality = quality(params);
+            if (coding.equals("gzip")) {
+                gzip = Math.max(gzip, quality);
+            } else {
+                any = Math.max(any, quality);
+            }
+        }
+        return (gzip >= 0 ? gzip : any) > 0;
+    }
+
+    /** The q parameter of one header element; 1 when absent, 0 when unparsable or out of range. */
+    private static double quality(String[] params) {
+        for (int i = 1; i < params.length; i++) {
+            String param = params[i].trim();
+            if (param.length() < 2 || Character.toLowerCase(param.charAt(0)) != 'q') continue;
+            String value = param.substring(1).trim();
+            if (!value.startsWith("=")) continue;
+            try {
+                double quality = Double.parseDouble(value.substring(1).trim());
+                return quality >= 0 && quality <= 1 ? quality : 0;
+            } catch (NumberFormatException e) {
+                return 0;
+            }
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,110 @@
+package com.opentext.partners.controller;
+
+import com.opentext.partners.metrics.PartnerMetrics;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Bounds the requests handled at once (partners.serving.max-concurrent-requests). With virtual
+ * threads Tomcat no longer caps concurrency at its worker count, so without this a burst of clients
+ * could have thousands of joined-json bodies encoding at the same time. A request over the limit
+ * waits up to partners.serving.acquire-timeout for a slot, then gets 503 with Retry-After.
+ *
+ * A streamed body (StreamingResponseBody) keeps its slot until the stream completes, not just
+ * until the controller returns. The /api/partners/changes event stream is not counted: it is idle
+ * between snapshots and partners.changes.max-subscribers bounds it instead.
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final String CHANGES_PATH = "/api/partners/changes";
+
+    private final Semaphore permits;
+    private final long acquireTimeoutNanos;
+    private final PartnerMetrics metrics;
+
+    public ConcurrencyLimitFilter(int maxConcurrentRequests, Duration acquireTimeout, PartnerMetrics metrics) {
+        this.permits = new Semaphore(maxConcurrentRequests);
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+        this.metrics = metrics;
+    }
+
+    /** Slots currently free. */
+    public int available() {
+        return permits.availablePermits();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return CHANGES_PATH.equals(request.getRequestURI().substring(request.getContextPath().length()));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!acquire()) {
+            metrics.rejected("concurrency-limit");
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            return;
+        }
+        AtomicBoolean released = new AtomicBoolean();
+        Runnable release = () -> {
+            if (released.compareAndSet(false, true)) permits.release();
+        };
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleasingListener(release));
+            } else {
+                release.run();
+            }
+        }
+    }
+
+    private boolean acquire() {
+        try {
+            return permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private record ReleasingListener(Runnable release) implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release.run();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release.run();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release.run();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Re-register for the next async cycle of the same request
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
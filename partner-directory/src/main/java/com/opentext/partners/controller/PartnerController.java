@@ -1,65 +1,260 @@
 package com.opentext.partners.controller;
 
+import com.opentext.partners.metrics.PartnerMetrics;
+import com.opentext.partners.model.CursorPage;
+import com.opentext.partners.model.FacetedPage;
 import com.opentext.partners.model.JoinedPartnerDto.PartnerSolution;
+import com.opentext.partners.model.SnapshotChange;
+import com.opentext.partners.service.JoinedJsonWriter;
+import com.opentext.partners.service.PageResponseCache;
+import com.opentext.partners.service.PageResponseCache.EncodedResponse;
+import com.opentext.partners.service.PageResponseCache.PageKey;
 import com.opentext.partners.service.PartnerService;
+import com.opentext.partners.service.RefreshStatus;
+import com.opentext.partners.service.SnapshotChangeFeed;
+import com.opentext.partners.snapshot.FacetFilter;
+import com.opentext.partners.snapshot.FacetIndex.FacetCounts;
+import com.opentext.partners.snapshot.PartnerSnapshot;
+import com.opentext.partners.snapshot.SortOrder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Flux;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
 
+/** The /api endpoints on Spring MVC (Tomcat), the default; see ReactivePartnerController for the WebFlux variant. */
 @RestController
 @RequestMapping("/api")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class PartnerController {
 
     // The PartnerService is injected via the constructor (constructor injection)
     // The @Autowired annotation on the field was redundant and has been removed.
     private final PartnerService partnerService;
+    private final JoinedJsonWriter joinedJsonWriter;
+    private final PageResponseCache pageResponseCache;
+    private final SnapshotChangeFeed changeFeed;
+    private final PartnerMetrics metrics;
 
     // @Autowired is implicit on public constructors in recent Spring versions,
     // but explicit constructor injection is clear.
-    public PartnerController(PartnerService partnerService) {
+    public PartnerController(PartnerService partnerService,
+                             JoinedJsonWriter joinedJsonWriter,
+                             PageResponseCache pageResponseCache,
+                             SnapshotChangeFeed changeFeed,
+                             PartnerMetrics metrics) {
         this.partnerService = partnerService;
+        this.joinedJsonWriter = joinedJsonWriter;
+        this.pageResponseCache = pageResponseCache;
+        this.changeFeed = changeFeed;
+        this.metrics = metrics;
     }
 
     /**
-     * Solves Question 3: Provides a paginated view of partners with an optional filter.
+     * Solves Question 3: Provides a paginated view of partners with optional facet filters.
      *
      * @param page         The page number to retrieve (default 0).
      * @param size         The number of items per page (default 10).
      * @param hasSolutions (Bonus) If true, only returns partners with 1 or more solutions.
-     * @return A paginated ResponseEntity of PartnerSolution objects.
+     * @param partnerLevel Optional levels to keep (repeat or comma-separate for several; case-insensitive).
+     * @param partnerType  Optional types to keep (repeat or comma-separate for several; case-insensitive).
+     * @param sort         Order: upstream (default), name, level or solutions (most first).
+     * @return A paginated ResponseEntity of PartnerSolution objects plus "facets" counts, as pre-encoded
+     *         JSON bytes. Pages are serialized once per snapshot and carry a strong ETag, so repeat
+     *         requests with If-None-Match get a 304 (handled by Spring for ETagged entities).
      */
     @GetMapping("/partners")
-    public ResponseEntity<Page<PartnerSolution>> getPaginatedPartners(
+    public ResponseEntity<byte[]> getPaginatedPartners(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
-            @RequestParam(defaultValue = "false") boolean hasSolutions) {
+            @RequestParam(defaultValue = "false") boolean hasSolutions,
+            @RequestParam(required = false) List<String> partnerLevel,
+            @RequestParam(required = false) List<String> partnerType,
+            @RequestParam(required = false) String sort,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
 
         Pageable pageable = PageRequest.of(page, size);
-        Page<PartnerSolution> partnerPage = partnerService.getPartners(pageable, hasSolutions);
-        return ResponseEntity.ok(partnerPage);
+        FacetFilter filter = FacetFilter.of(partnerLevel, partnerType, hasSolutions);
+        SortOrder order = SortOrder.parse(sort);
+        PartnerSnapshot snapshot = partnerService.getSnapshot();
+        EncodedResponse encoded = pageResponseCache.get(snapshot, new PageKey(page, size, filter, order),
+                () -> new FacetedPage<>(snapshot.page(pageable, filter, order), snapshot.facets().counts(filter)));
+        return encodedResponse(encoded, acceptEncoding);
+    }
+
+    /**
+     * Keyset (cursor) pagination: start without a cursor, then pass each response's nextCursor.
+     * A walk keeps reading the snapshot it started on, so a refresh mid-walk neither shifts nor
+     * repeats rows, and every page costs the same however deep it is. Filters and sort are fixed
+     * by the first request and carried in the cursor.
+     *
+     * @param cursor The nextCursor of the previous page; absent for the first page.
+     * @param size   The number of items per page (default 10).
+     * @return The page and the cursor of the next one; 410 Gone once the walk's snapshot expired.
+     */
+    @GetMapping("/partners/scroll")
+    public CursorPage<PartnerSolution> scrollPartners(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "false") boolean hasSolutions,
+            @RequestParam(required = false) List<String> partnerLevel,
+            @RequestParam(required = false) List<String> partnerType,
+            @RequestParam(required = false) String sort) {
+        if (size < 1) throw new IllegalArgumentException("Page size must not be less than one");
+        return partnerService.scrollPartners(cursor, FacetFilter.of(partnerLevel, partnerType, hasSolutions),
+                SortOrder.parse(sort), size);
+    }
+
+    /**
+     * Partner counts per partnerLevel, partnerType and solution presence, for the same filters as
+     * {@link #getPaginatedPartners}. Each facet's counts ignore that facet's own selection.
+     */
+    @GetMapping("/partners/facets")
+    public FacetCounts getFacetCounts(
+            @RequestParam(defaultValue = "false") boolean hasSolutions,
+            @RequestParam(required = false) List<String> partnerLevel,
+            @RequestParam(required = false) List<String> partnerType) {
+        return partnerService.getFacetCounts(FacetFilter.of(partnerLevel, partnerType, hasSolutions));
+    }
+
+    /**
+     * Full-text search over partner name, solution names, shortDescription and companyOverview,
+     * served from the snapshot's inverted index. Every term must match, either whole or, from two
+     * characters on, as a prefix ("open" matches "opentext"), and results are ranked by relevance.
+     *
+     * @param q    The search query.
+     * @param page The page number to retrieve (default 0).
+     * @param size The number of items per page (default 10).
+     * @return A page of matching PartnerSolution objects, best match first.
+     */
+    @GetMapping("/partners/search")
+    public Page<PartnerSolution> searchPartners(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size) {
+        return partnerService.searchPartners(q, PageRequest.of(page, size));
     }
 
     /**
      * Solves Question 2: Outputs the complete joined JSON data.
+     * The array is streamed element by element from the current snapshot, so heap use and
+     * time-to-first-byte do not grow with the directory size. Gzip is applied by the container
+     * when the client sends Accept-Encoding (see server.compression.*).
      *
-     * @return A ResponseEntity containing the list of all joined PartnerSolution objects.
+     * @return A ResponseEntity streaming the JSON array of all joined PartnerSolution objects.
+     */
+    @GetMapping(value = "/partners/joined-json", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> getJoinedJson() {
+        List<PartnerSolution> joinedData = partnerService.getJoinedPartners();
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(out -> metrics.responseSize("joined-json", "identity", joinedJsonWriter.writeArray(joinedData, out)));
+    }
+
+    /**
+     * Same data as {@link #getJoinedJson()} as newline-delimited JSON, selected with
+     * {@code Accept: application/x-ndjson}. Lets clients process partners as they arrive.
      */
-    @GetMapping("/partners/joined-json")
-    public ResponseEntity<List<PartnerSolution>> getJoinedJson() {
+    @GetMapping(value = "/partners/joined-json", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> getJoinedNdjson() {
         List<PartnerSolution> joinedData = partnerService.getJoinedPartners();
-        return ResponseEntity.ok(joinedData);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(out -> metrics.responseSize("joined-ndjson", "identity", joinedJsonWriter.writeNdjson(joinedData, out)));
     }
 
+    /**
+     * Server-Sent Events announcing each newly published snapshot: first a 'snapshot' event with the
+     * version being served, then a 'change' event per refresh carrying a {@link SnapshotChange} (new
+     * version, added/removed/changed counts and ids, first affected row), so a client refetches only
+     * the pages that changed. Heartbeat comments keep idle connections open.
+     *
+     * @return The event stream, or 503 with Retry-After when partners.changes.max-subscribers streams are open.
+     */
+    @GetMapping(value = "/partners/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<Flux<ServerSentEvent<SnapshotChange>>> streamChanges() {
+        if (!changeFeed.acceptsSubscribers()) {
+            metrics.rejected("change-subscribers");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "30")
+                    .build();
+        }
+        // Spring MVC writes each event from its async executor; no request thread waits in between
+        return ResponseEntity.ok().body(changeFeed.subscribe());
+    }
+
+    /** Serves pre-encoded bytes, picking the gzip representation when the client accepts it. */
+    private ResponseEntity<byte[]> encodedResponse(EncodedResponse encoded, String acceptEncoding) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+
+        if (AcceptEncoding.acceptsGzip(acceptEncoding)) {
+            metrics.responseSize("partners", "gzip", encoded.gzip().length);
+            return builder.eTag(encoded.gzipEtag())
+                    .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                    .body(encoded.gzip());
+        }
+        metrics.responseSize("partners", "identity", encoded.json().length);
+        return builder.eTag(encoded.etag()).body(encoded.json());
+    }
+
+    /**
+     * Triggers a refresh. Concurrent triggers share one in-flight refresh, and a new one starts no
+     * sooner than partners.refresh.min-interval after the previous one.
+     *
+     * @return 202 when a refresh started or one was already running; 429 with Retry-After when throttled.
+     */
     @GetMapping("/refresh")
-    public String forceRefresh() {
-        partnerService.loadAndJoinData();
-        return "Refresh triggered";
+    public ResponseEntity<String> forceRefresh() {
+        return switch (partnerService.requestRefresh("api")) {
+            case STARTED -> ResponseEntity.accepted().body("Refresh triggered");
+            case IN_FLIGHT -> ResponseEntity.accepted().body("Refresh already in progress");
+            case THROTTLED -> {
+                RefreshStatus status = partnerService.getRefreshStatus();
+                long retryAfter = Math.max(1, Duration.between(Instant.now(), status.nextAllowedAt()).toSeconds());
+                yield ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                        .header(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter))
+                        .body("Refresh throttled, next allowed at " + status.nextAllowedAt());
+            }
+        };
+    }
+
+    /**
+     * Cancels the refresh in flight. The snapshot being served is kept.
+     *
+     * @return 202 when a refresh was cancelled, 409 Conflict when none was running.
+     */
+    @PostMapping("/refresh/cancel")
+    public ResponseEntity<String> cancelRefresh() {
+        return partnerService.cancelRefresh()
+                ? ResponseEntity.accepted().body("Refresh cancelled")
+                : ResponseEntity.status(HttpStatus.CONFLICT).body("No refresh in progress");
+    }
+
+    /**
+     * Reports the refresh pipeline: whether a refresh is running, when the next may start, when the
+     * last one succeeded and the snapshot version it produced, and the last refresh's full report
+     * (duration, records and requests per source, adaptive batch sizes).
+     */
+    @GetMapping("/refresh/status")
+    public RefreshStatus getRefreshStatus() {
+        return partnerService.getRefreshStatus();
     }
 }
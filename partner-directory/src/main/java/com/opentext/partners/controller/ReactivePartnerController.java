@@ -0,0 +1,235 @@
+package com.opentext.partners.controller;
+
+import com.opentext.partners.metrics.PartnerMetrics;
+import com.opentext.partners.model.CursorPage;
+import com.opentext.partners.model.FacetedPage;
+import com.opentext.partners.model.JoinedPartnerDto.PartnerSolution;
+import com.opentext.partners.model.SnapshotChange;
+import com.opentext.partners.service.JoinedJsonWriter;
+import com.opentext.partners.service.PageResponseCache;
+import com.opentext.partners.service.PageResponseCache.EncodedResponse;
+import com.opentext.partners.service.PageResponseCache.PageKey;
+import com.opentext.partners.service.PartnerService;
+import com.opentext.partners.service.RefreshStatus;
+import com.opentext.partners.service.SnapshotChangeFeed;
+import com.opentext.partners.snapshot.FacetFilter;
+import com.opentext.partners.snapshot.FacetIndex.FacetCounts;
+import com.opentext.partners.snapshot.PartnerSnapshot;
+import com.opentext.partners.snapshot.SortOrder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The /api endpoints of {@link PartnerController} on WebFlux (Netty), active when the application
+ * runs as a reactive web application: with the 'reactive' profile (application-reactive.properties)
+ * or spring.main.web-application-type=reactive.
+ *
+ * Same paths, parameters and bodies as the servlet controller. Everything is served from the
+ * in-memory snapshot on the event loop without blocking: pages and facets as Monos,
+ * /partners/joined-json as a Flux that encodes the next chunk of partners only once the client has
+ * read the previous ones. With {@code Accept: text/event-stream}, joined-json is sent as Server-Sent
+ * Events instead, one 'partner' event per partner and a final 'complete' event carrying the count.
+ *
+ * The /refresh handlers are the exception: they take the refresh coordinator's lock, which a
+ * refresh holds while it starts or is cancelled, so they run on boundedElastic, not on the event loop.
+ */
+@RestController
+@RequestMapping("/api")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactivePartnerController {
+
+    private final PartnerService partnerService;
+    private final JoinedJsonWriter joinedJsonWriter;
+    private final PageResponseCache pageResponseCache;
+    private final SnapshotChangeFeed changeFeed;
+    private final PartnerMetrics metrics;
+
+    public ReactivePartnerController(PartnerService partnerService,
+                                     JoinedJsonWriter joinedJsonWriter,
+                                     PageResponseCache pageResponseCache,
+                                     SnapshotChangeFeed changeFeed,
+                                     PartnerMetrics metrics) {
+        this.partnerService = partnerService;
+        this.joinedJsonWriter = joinedJsonWriter;
+        this.pageResponseCache = pageResponseCache;
+        this.changeFeed = changeFeed;
+        this.metrics = metrics;
+    }
+
+    /** See {@link PartnerController#getPaginatedPartners}; pre-encoded pages with ETags. */
+    @GetMapping("/partners")
+    public Mono<ResponseEntity<byte[]>> getPaginatedPartners(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "false") boolean hasSolutions,
+            @RequestParam(required = false) List<String> partnerLevel,
+            @RequestParam(required = false) List<String> partnerType,
+            @RequestParam(required = false) String sort,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return Mono.fromSupplier(() -> {
+            PageRequest pageable = PageRequest.of(page, size);
+            FacetFilter filter = FacetFilter.of(partnerLevel, partnerType, hasSolutions);
+            SortOrder order = SortOrder.parse(sort);
+            PartnerSnapshot snapshot = partnerService.getSnapshot();
+            EncodedResponse encoded = pageResponseCache.get(snapshot, new PageKey(page, size, filter, order),
+                    () -> new FacetedPage<>(snapshot.page(pageable, filter, order), snapshot.facets().counts(filter)));
+            return encodedResponse(encoded, acceptEncoding);
+        });
+    }
+
+    /** See {@link PartnerController#scrollPartners}. */
+    @GetMapping("/partners/scroll")
+    public Mono<CursorPage<PartnerSolution>> scrollPartners(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "false") boolean hasSolutions,
+            @RequestParam(required = false) List<String> partnerLevel,
+            @RequestParam(required = false) List<String> partnerType,
+            @RequestParam(required = false) String sort) {
+        return Mono.fromSupplier(() -> {
+            if (size < 1) throw new IllegalArgumentException("Page size must not be less than one");
+            return partnerService.scrollPartners(cursor, FacetFilter.of(partnerLevel, partnerType, hasSolutions),
+                    SortOrder.parse(sort), size);
+        });
+    }
+
+    /** See {@link PartnerController#getFacetCounts}. */
+    @GetMapping("/partners/facets")
+    public Mono<FacetCounts> getFacetCounts(
+            @RequestParam(defaultValue = "false") boolean hasSolutions,
+            @RequestParam(required = false) List<String> partnerLevel,
+            @RequestParam(required = false) List<String> partnerType) {
+        return Mono.fromSupplier(() ->
+                partnerService.getFacetCounts(FacetFilter.of(partnerLevel, partnerType, hasSolutions)));
+    }
+
+    /** See {@link PartnerController#searchPartners}. */
+    @GetMapping("/partners/search")
+    public Mono<Page<PartnerSolution>> searchPartners(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size) {
+        return Mono.fromSupplier(() -> partnerService.searchPartners(q, PageRequest.of(page, size)));
+    }
+
+    /**
+     * The complete joined JSON array, in chunks of partners encoded on demand: a slow client holds
+     * back encoding instead of letting buffered bytes pile up.
+     */
+    @GetMapping(value = "/partners/joined-json", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Flux<DataBuffer> getJoinedJson(ServerWebExchange exchange) {
+        return counted("joined-json", joinedJsonWriter.encodeArray(partnerService.streamJoinedPartners(),
+                exchange.getResponse().bufferFactory()));
+    }
+
+    /** Same data as newline-delimited JSON ({@code Accept: application/x-ndjson}). */
+    @GetMapping(value = "/partners/joined-json", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<DataBuffer> getJoinedNdjson(ServerWebExchange exchange) {
+        return counted("joined-ndjson", joinedJsonWriter.encodeNdjson(partnerService.streamJoinedPartners(),
+                exchange.getResponse().bufferFactory()));
+    }
+
+    /** Same data as Server-Sent Events ({@code Accept: text/event-stream}). */
+    @GetMapping(value = "/partners/joined-json", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<Object>> getJoinedEvents() {
+        AtomicLong sent = new AtomicLong();
+        Flux<ServerSentEvent<Object>> partners = partnerService.streamJoinedPartners()
+                .map(partner -> ServerSentEvent.<Object>builder(partner)
+                        .id(Long.toString(sent.getAndIncrement()))
+                        .event("partner")
+                        .build());
+        return partners.concatWith(Mono.fromSupplier(() -> ServerSentEvent.<Object>builder(sent.get())
+                .event("complete")
+                .build()));
+    }
+
+    /** See {@link PartnerController#streamChanges}. */
+    @GetMapping(value = "/partners/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Mono<ResponseEntity<Flux<ServerSentEvent<SnapshotChange>>>> streamChanges() {
+        return Mono.fromSupplier(() -> {
+            if (!changeFeed.acceptsSubscribers()) {
+                metrics.rejected("change-subscribers");
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .header(HttpHeaders.RETRY_AFTER, "30")
+                        .<Flux<ServerSentEvent<SnapshotChange>>>build();
+            }
+            return ResponseEntity.ok().body(changeFeed.subscribe());
+        });
+    }
+
+    /** See {@link PartnerController#forceRefresh}. */
+    @GetMapping("/refresh")
+    public Mono<ResponseEntity<String>> forceRefresh() {
+        return Mono.fromSupplier(() -> switch (partnerService.requestRefresh("api")) {
+            case STARTED -> ResponseEntity.accepted().body("Refresh triggered");
+            case IN_FLIGHT -> ResponseEntity.accepted().body("Refresh already in progress");
+            case THROTTLED -> {
+                RefreshStatus status = partnerService.getRefreshStatus();
+                long retryAfter = Math.max(1, Duration.between(Instant.now(), status.nextAllowedAt()).toSeconds());
+                yield ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                        .header(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter))
+                        .body("Refresh throttled, next allowed at " + status.nextAllowedAt());
+            }
+        }).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /** See {@link PartnerController#cancelRefresh}. */
+    @PostMapping("/refresh/cancel")
+    public Mono<ResponseEntity<String>> cancelRefresh() {
+        return Mono.fromSupplier(() -> partnerService.cancelRefresh()
+                ? ResponseEntity.accepted().body("Refresh cancelled")
+                : ResponseEntity.status(HttpStatus.CONFLICT).body("No refresh in progress"))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /** See {@link PartnerController#getRefreshStatus}. */
+    @GetMapping("/refresh/status")
+    public Mono<RefreshStatus> getRefreshStatus() {
+        return Mono.fromSupplier(partnerService::getRefreshStatus).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /** Serves pre-encoded bytes, picking the gzip representation when the client accepts it. */
+    private ResponseEntity<byte[]> encodedResponse(EncodedResponse encoded, String acceptEncoding) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+
+        if (AcceptEncoding.acceptsGzip(acceptEncoding)) {
+            metrics.responseSize("partners", "gzip", encoded.gzip().length);
+            return builder.eTag(encoded.gzipEtag())
+                    .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                    .body(encoded.gzip());
+        }
+        metrics.responseSize("partners", "identity", encoded.json().length);
+        return builder.eTag(encoded.etag()).body(encoded.json());
+    }
+
+    /** Records the body size once the stream completed */
+    private Flux<DataBuffer> counted(String endpoint, Flux<DataBuffer> body) {
+        AtomicLong bytes = new AtomicLong();
+        return body.doOnNext(buffer -> bytes.addAndGet(buffer.readableByteCount()))
+                .doOnComplete(() -> metrics.responseSize(endpoint, "identity", bytes.get()));
+    }
+}
@@ -64,8 +64,24 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
     }
 
+    // ------------------------------------------
+    // 4. Handle Cursors of Expired Snapshots
+    // ------------------------------------------
+    @ExceptionHandler(StaleCursorException.class)
+    public ResponseEntity<Map<String, Object>> handleStaleCursor(StaleCursorException ex) {
+        log.info("Stale cursor: {}", ex.getMessage());
+
+        Map<String, Object> error = createError(
+                "Cursor expired",
+                HttpStatus.GONE.value(),
+                ex.getMessage()
+        );
+
+        return new ResponseEntity<>(error, HttpStatus.GONE);
+    }
+
     // -----------------------------------
-    // 4. Fallback for Any Internal Error
+    // 5. Fallback for Any Internal Error
     // -----------------------------------
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Map<String, Object>> handleGeneralException(Exception ex) {
@@ -0,0 +1,32 @@
+package com.opentext.partners.exception;
+
+/**
+ * Raised when an upstream batch still fails after all retries, or when a page is unusable (such as
+ * a first page without a valid 'total'). The refresh that hit it is treated as incomplete and the
+ * previously published snapshot stays in place.
+ */
+public class IncompleteFetchException extends RuntimeException {
+
+    private final String source;
+    private final int start;
+
+    public IncompleteFetchException(String source, int start, Throwable cause) {
+        super("Batch of '" + source + "' starting at " + start + " failed after retries: " + cause.getMessage(), cause);
+        this.source = source;
+        this.start = start;
+    }
+
+    public IncompleteFetchException(String source, int start, String reason) {
+        super("Batch of '" + source + "' starting at " + start + " is unusable: " + reason);
+        this.source = source;
+        this.start = start;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public int getStart() {
+        return start;
+    }
+}
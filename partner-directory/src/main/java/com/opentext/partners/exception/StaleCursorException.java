@@ -0,0 +1,19 @@
+package com.opentext.partners.exception;
+
+/**
+ * Raised when a page cursor names a snapshot that is no longer retained. The client has to
+ * restart its walk from the first page.
+ */
+public class StaleCursorException extends RuntimeException {
+
+    private final long version;
+
+    public StaleCursorException(long version) {
+        super("Cursor refers to snapshot v" + version + ", which is no longer available; restart from the first page");
+        this.version = version;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+}
@@ -0,0 +1,132 @@
+package com.opentext.partners.fetch;
+
+import java.time.Duration;
+
+/**
+ * Learns how one upstream source responds to different page sizes and picks the 'max' page size
+ * that minimises the wall time of a crawl within configured bounds.
+ *
+ * Each batch is modelled as {@code latency = overhead + perRecord * records}, fitted by exponentially
+ * decayed least squares over recent observations. A crawl of R records with c batches in flight then
+ * takes about {@code ceil(ceil(R / size) / c) * (overhead + perRecord * size)}; the planner evaluates that
+ * for every allowed size, additionally capping it so one batch stays well inside the request timeout
+ * and below the configured payload budget. Timeouts halve the size for the next attempt.
+ */
+final class AdaptiveBatchSizer {
+
+    /** Weight kept by older observations each time a new one arrives. */
+    private static final double DECAY = 0.9;
+    /** Share of latency attributed to fixed overhead until two distinct sizes have been observed. */
+    private static final double DEFAULT_OVERHEAD_SHARE = 0.3;
+
+    private final int minSize;
+    private final int maxSize;
+    private final long maxBatchBytes;
+
+    private int current;
+    private int upstreamCap = Integer.MAX_VALUE;
+
+    // Decayed least-squares accumulators over (records, seconds)
+    private double weight;
+    private double sumN;
+    private double sumT;
+    private double sumNN;
+    private double sumNT;
+    private double bytesPerRecord = -1;
+
+    AdaptiveBatchSizer(int minSize, int maxSize, int initialSize, long maxBatchBytes) {
+        this.minSize = Math.max(1, minSize);
+        this.maxSize = Math.max(this.minSize, maxSize);
+        this.maxBatchBytes = maxBatchBytes;
+        this.current = clamp(initialSize);
+    }
+
+    /** Page size to use for the first batch of the next crawl. */
+    synchronized int current() {
+        return current;
+    }
+
+    /** Records one successful batch: its record count, payload size in bytes (-1 if unknown) and latency. */
+    synchronized void observe(int records, long bytes, long nanos) {
+        if (records <= 0) return;
+        double seconds = nanos / 1e9;
+        weight = weight * DECAY + 1;
+        sumN = sumN * DECAY + records;
+        sumT = sumT * DECAY + seconds;
+        sumNN = sumNN * DECAY + (double) records * records;
+        sumNT = sumNT * DECAY + records * seconds;
+        if (bytes > 0) {
+            double perRecord = (double) bytes / records;
+            bytesPerRecord = bytesPerRecord < 0 ? perRecord : bytesPerRecord * DECAY + perRecord * (1 - DECAY);
+        }
+    }
+
+    /** The upstream returned fewer records than asked for: never ask for more than that again. */
+    synchronized void limitTo(int upstreamMax) {
+        upstreamCap = Math.max(1, upstreamMax);
+        current = clamp(current);
+    }
+
+    /** A batch timed out: back off so the next attempt (and crawl) asks for less. */
+    synchronized void onTimeout() {
+        current = clamp(current / 2);
+    }
+
+    /**
+     * Chooses the page size for the {@code remaining} records of a crawl and remembers it
+     * as the starting size of the next one.
+     */
+    synchronized int plan(int remaining, int inFlight, Duration timeout) {
+        int cap = clamp(maxSize);
+        double overhead = overheadSeconds();
+        double perRecord = perRecordSeconds(overhead);
+
+        if (perRecord > 0) {
+            // Keep a single batch comfortably inside the request timeout
+            double timeoutBudget = timeout.toNanos() / 1e9 / 2 - overhead;
+            if (timeoutBudget > 0) cap = Math.min(cap, clamp((int) (timeoutBudget / perRecord)));
+        }
+        if (bytesPerRecord > 0 && maxBatchBytes > 0) {
+            cap = Math.min(cap, clamp((int) (maxBatchBytes / bytesPerRecord)));
+        }
+
+        if (weight == 0 || remaining <= 0) {
+            return current = Math.min(current, cap);
+        }
+
+        int best = cap;
+        double bestCost = Double.MAX_VALUE;
+        for (int size = Math.min(minSize, cap); size <= cap; size++) {
+            long batches = (remaining + size - 1) / size;
+            long waves = (batches + inFlight - 1) / Math.max(1, inFlight);
+            double cost = waves * (overhead + perRecord * size);
+            if (cost < bestCost) {
+                bestCost = cost;
+                best = size;
+            }
+        }
+        return current = best;
+    }
+
+    private double overheadSeconds() {
+        if (weight == 0) return 0;
+        double denominator = weight * sumNN - sumN * sumN;
+        if (Math.abs(denominator) < 1e-9 * Math.max(1, sumNN)) {
+            // Every observation used the same size: split the mean latency heuristically
+            return DEFAULT_OVERHEAD_SHARE * sumT / weight;
+        }
+        double slope = (weight * sumNT - sumN * sumT) / denominator;
+        return Math.max(0, (sumT - slope * sumN) / weight);
+    }
+
+    private double perRecordSeconds(double overhead) {
+        if (weight == 0 || sumN == 0) return 0;
+        // Mean latency minus overhead, spread over the mean record count
+        return Math.max(0, (sumT - overhead * weight) / sumN);
+    }
+
+    /** Bounds a size to [minSize, maxSize], never exceeding what the upstream actually serves. */
+    private int clamp(int size) {
+        return Math.min(upstreamCap, Math.max(minSize, Math.min(maxSize, size)));
+    }
+}
@@ -0,0 +1,188 @@
+package com.opentext.partners.fetch;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.exc.InputCoercionException;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Token-streaming decoder for one upstream '.ajax' page, built on Jackson's non-blocking parser.
+ *
+ * Both endpoints answer with the same envelope:
+ * <pre>
+ * { "total": "123",
+ *   "results": { "assets": [ { "contentJson": { "&lt;wrapper&gt;": { "&lt;record&gt;": { ...fields... } } } }, ... ] } }
+ * </pre>
+ * Bytes are fed to the parser as they arrive; only the record objects are buffered (one at a time)
+ * and bound to {@code type}, everything else is skipped token by token. Peak memory per batch is
+ * therefore one record, not the whole response plus its bound object tree.
+ *
+ * An instance holds the parse state of a single response and is not thread-safe.
+ */
+public final class AssetStreamDecoder<T> {
+
+    private static final String ARRAY_ELEMENT = "[]";
+
+    private final ObjectMapper objectMapper;
+    private final Class<T> type;
+    private final String[] recordPath;
+    private final JsonParser parser;
+    private final ByteArrayFeeder feeder;
+
+    /** Container names from the root down to the current token ("[]" for array elements). */
+    private final List<String> path = new ArrayList<>();
+    private final List<Boolean> pathIsArray = new ArrayList<>();
+    private String fieldName;
+
+    private TokenBuffer capture;
+    private int captureDepth;
+
+    private int total = -1;
+    private long bytesRead;
+
+    /**
+     * @param wrapperField Field under contentJson holding the record ("Partners" / "Solutions").
+     * @param recordField  Field holding the record itself ("Partner" / "Solution").
+     */
+    public AssetStreamDecoder(ObjectMapper objectMapper, String wrapperField, String recordField, Class<T> type) {
+        this.objectMapper = objectMapper;
+        this.type = type;
+        this.recordPath = new String[]{"", "results", "assets", ARRAY_ELEMENT, "contentJson", wrapperField, recordField};
+        try {
+            this.parser = objectMapper.getFactory().createNonBlockingByteArrayParser();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+    }
+
+    /** Decodes a response body into records, releasing every buffer once its bytes are consumed. */
+    public Flux<T> decode(Flux<DataBuffer> body) {
+        return body
+                .concatMapIterable(buffer -> {
+                    try {
+                        byte[] bytes = new byte[buffer.readableByteCount()];
+                        buffer.read(bytes);
+                        return feed(bytes);
+                    } finally {
+                        DataBufferUtils.release(buffer);
+                    }
+                })
+                .concatWith(Flux.defer(() -> Flux.fromIterable(endOfInput())));
+    }
+
+    /** The 'total' field of the page, or -1 if it has not been seen (yet) or is not a count. */
+    public int total() {
+        return total;
+    }
+
+    /** Bytes consumed so far. */
+    public long bytesRead() {
+        return bytesRead;
+    }
+
+    /** Feeds one chunk and returns the records it completed. */
+    List<T> feed(byte[] chunk) {
+        bytesRead += chunk.length;
+        try {
+            feeder.feedInput(chunk, 0, chunk.length);
+            return drain();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** Signals the end of the body and returns any records completed by it. */
+    List<T> endOfInput() {
+        feeder.endOfInput();
+        try {
+            List<T> records = drain();
+            parser.close();
+            return records;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private List<T> drain() throws IOException {
+        List<T> records = List.of();
+        JsonToken token;
+        while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+            T record = onToken(token);
+            if (record != null) {
+                if (records.isEmpty()) records = new ArrayList<>(4);
+                records.add(record);
+            }
+        }
+        return records;
+    }
+
+    private T onToken(JsonToken token) throws IOException {
+        if (capture != null) {
+            capture.copyCurrentEvent(parser);
+        }
+
+        switch (token) {
+            case FIELD_NAME -> fieldName = parser.currentName();
+            case START_OBJECT, START_ARRAY -> {
+                boolean parentIsArray = !pathIsArray.isEmpty() && pathIsArray.get(pathIsArray.size() - 1);
+                path.add(path.isEmpty() ? "" : parentIsArray ? ARRAY_ELEMENT : fieldName);
+                pathIsArray.add(token == JsonToken.START_ARRAY);
+                if (capture == null && token == JsonToken.START_OBJECT && atRecordPath()) {
+                    capture = new TokenBuffer(parser, null);
+                    capture.copyCurrentEvent(parser);
+                    captureDepth = path.size();
+                }
+            }
+            case END_OBJECT, END_ARRAY -> {
+                T record = null;
+                if (capture != null && path.size() == captureDepth) {
+                    record = objectMapper.readValue(capture.asParser(objectMapper), type);
+                    capture = null;
+                }
+                path.remove(path.size() - 1);
+                pathIsArray.remove(pathIsArray.size() - 1);
+                return record;
+            }
+            case VALUE_STRING, VALUE_NUMBER_INT -> {
+                if (capture == null && path.size() == 1 && "total".equals(fieldName)) {
+                    total = parseTotal(token);
+                }
+            }
+            default -> {
+                // Other scalars outside a record are skipped
+            }
+        }
+        return null;
+    }
+
+    private boolean atRecordPath() {
+        if (path.size() != recordPath.length) return false;
+        for (int i = 1; i < recordPath.length; i++) {
+            if (!recordPath[i].equals(path.get(i))) return false;
+        }
+        return true;
+    }
+
+    /** A 'total' that is not a non-negative int is reported as unknown (-1); the fetcher refuses such pages */
+    private int parseTotal(JsonToken token) throws IOException {
+        try {
+            int value = token == JsonToken.VALUE_NUMBER_INT
+                    ? parser.getIntValue()
+                    : Integer.parseInt(parser.getText().trim());
+            return value < 0 ? -1 : value;
+        } catch (NumberFormatException | InputCoercionException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.opentext.partners.fetch;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * HTTP revalidation cache for upstream GETs, installed on the WebClient (partners.upstream.http-cache.*).
+ *
+ * For every URL whose response carried an ETag or Last-Modified, the validators and a gzip copy
+ * of the (already transfer-decoded) body are kept; the copy is taken while the body streams
+ * through, so the response is never buffered on its way to the caller. The next request for that
+ * URL is sent with If-None-Match / If-Modified-Since, and a 304 answer is turned back into a 200
+ * replaying the stored body, marked with {@link #REVALIDATED}, so callers that keep decoded results
+ * can skip parsing too.
+ *
+ * Entries are kept in LRU order up to {@code maxEntries}; bodies larger than {@code maxBodyBytes}
+ * (uncompressed) are not stored.
+ */
+public class ConditionalRequestCache implements ExchangeFilterFunction {
+
+    /** Response header set on replayed responses. */
+    public static final String REVALIDATED = "X-Partners-Revalidated";
+
+    private record Entry(String etag, String lastModified, HttpHeaders headers, byte[] gzipBody) {}
+
+    private final long maxBodyBytes;
+    private final Map<String, Entry> entries;
+
+    public ConditionalRequestCache(int maxEntries, long maxBodyBytes) {
+        this.maxBodyBytes = maxBodyBytes;
+        this.entries = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        if (request.method() != HttpMethod.GET) {
+            return next.exchange(request);
+        }
+        String key = request.url().toString();
+        Entry cached = get(key);
+        ClientRequest conditional = cached == null ? request : ClientRequest.from(request)
+                .headers(headers -> {
+                    if (cached.etag() != null) headers.set(HttpHeaders.IF_NONE_MATCH, cached.etag());
+                    if (cached.lastModified() != null) headers.set(HttpHeaders.IF_MODIFIED_SINCE, cached.lastModified());
+                })
+                .build();
+
+        return next.exchange(conditional).flatMap(response -> {
+            if (cached != null && response.statusCode().value() == HttpStatus.NOT_MODIFIED.value()) {
+                return response.releaseBody().thenReturn(replay(response, cached));
+            }
+            String etag = response.headers().asHttpHeaders().getETag();
+            String lastModified = response.headers().asHttpHeaders().getFirst(HttpHeaders.LAST_MODIFIED);
+            if (response.statusCode().is2xxSuccessful() && (etag != null || lastModified != null)) {
+                return Mono.just(recording(key, response, etag, lastModified));
+            }
+            if (cached != null) remove(key);
+            return Mono.just(response);
+        });
+    }
+
+    /** Number of URLs with a stored response. */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private ClientResponse replay(ClientResponse notModified, Entry cached) {
+        Flux<DataBuffer> body = DataBufferUtils.readInputStream(
+                () -> new GZIPInputStream(new ByteArrayInputStream(cached.gzipBody())),
+                DefaultDataBufferFactory.sharedInstance, 8192);
+        return notModified.mutate()
+                .statusCode(HttpStatus.OK)
+                .headers(headers -> {
+                    headers.clear();
+                    headers.addAll(cached.headers());
+                    headers.set(REVALIDATED, "true");
+                })
+                .body(body)
+                .build();
+    }
+
+    /** Passes the body through unchanged while compressing a copy, stored once the body completed. */
+    private ClientResponse recording(String key, ClientResponse response, String etag, String lastModified) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.addAll(response.headers().asHttpHeaders());
+        // The stored copy is plain bytes; transfer encodings of the original do not apply to it
+        headers.remove(HttpHeaders.CONTENT_ENCODING);
+        headers.remove(HttpHeaders.CONTENT_LENGTH);
+        headers.remove(HttpHeaders.TRANSFER_ENCODING);
+
+        return response.mutate()
+                .body(body -> {
+                    Recorder recorder = new Recorder(maxBodyBytes);
+                    return body
+                            .doOnNext(recorder::copy)
+                            .doOnComplete(() -> {
+                                byte[] gzip = recorder.finish();
+                                if (gzip != null) put(key, new Entry(etag, lastModified, headers, gzip));
+                            });
+                })
+                .build();
+    }
+
+    private synchronized Entry get(String key) {
+        return entries.get(key);
+    }
+
+    private synchronized void put(String key, Entry entry) {
+        entries.put(key, entry);
+    }
+
+    private synchronized void remove(String key) {
+        entries.remove(key);
+    }
+
+    /** Gzip copy of one body; gives up once the body exceeds the size limit. */
+    private static final class Recorder {
+
+        private final long maxBytes;
+        private final ByteArrayOutputStream compressed = new ByteArrayOutputStream(8192);
+        private GZIPOutputStream gzip;
+        private long bytes;
+
+        Recorder(long maxBytes) {
+            this.maxBytes = maxBytes;
+            try {
+                this.gzip = new GZIPOutputStream(compressed, 8192);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        void copy(DataBuffer buffer) {
+            if (gzip == null) return;
+            int length = buffer.readableByteCount();
+            bytes += length;
+            if (bytes > maxBytes) {
+                gzip = null;
+                return;
+            }
+            byte[] chunk = new byte[length];
+            int position = buffer.readPosition();
+            buffer.read(chunk);
+            buffer.readPosition(position);
+            try {
+                gzip.write(chunk);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        /** The compressed body, or null if it was too large. */
+        byte[] finish() {
+            if (gzip == null) return null;
+            try {
+                gzip.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return compressed.toByteArray();
+        }
+    }
+}
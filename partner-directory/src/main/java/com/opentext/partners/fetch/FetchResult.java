@@ -0,0 +1,36 @@
+package com.opentext.partners.fetch;
+
+import com.opentext.partners.snapshot.FetchedBatch;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Outcome of one complete crawl of an upstream source.
+ *
+ * @param batches Every batch, in upstream order.
+ * @param stats   How the crawl went, for logs and the refresh status endpoint.
+ */
+public record FetchResult<T>(List<FetchedBatch<T>> batches, FetchStats stats) {
+
+    /**
+     * @param source         Source name.
+     * @param records        Records fetched.
+     * @param requests       Batch requests made (excluding retries).
+     * @param notModified    Requests the upstream answered with 304, served from the HTTP cache without decoding.
+     * @param firstBatchSize Page size of the first batch, which also discovered 'total'.
+     * @param batchSize      Page size chosen for the remaining batches.
+     * @param bytes          Response body bytes streamed from the upstream.
+     * @param elapsed        Wall time of the crawl.
+     */
+    public record FetchStats(
+            String source,
+            int records,
+            int requests,
+            int notModified,
+            int firstBatchSize,
+            int batchSize,
+            long bytes,
+            Duration elapsed
+    ) {}
+}
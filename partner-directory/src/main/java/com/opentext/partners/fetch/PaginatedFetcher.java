@@ -0,0 +1,278 @@
+package com.opentext.partners.fetch;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.opentext.partners.config.UpstreamProperties;
+import com.opentext.partners.exception.IncompleteFetchException;
+import com.opentext.partners.fetch.FetchResult.FetchStats;
+import com.opentext.partners.metrics.PartnerMetrics;
+import com.opentext.partners.snapshot.FetchedBatch;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Reusable engine for crawling a paginated upstream endpoint.
+ *
+ * Batches are requested with bounded concurrency ({@code maxInFlight}), every request first takes
+ * a permit from the source's token bucket, and transient failures (5xx, 429, I/O, timeouts) are
+ * retried with exponential backoff and jitter. A batch that still fails fails the whole fetch with
+ * an {@link IncompleteFetchException}, so a flaky upstream can never silently shrink the directory.
+ * So does a crawl whose pages answered but came back short: an empty page before the last one, or
+ * fewer records in all than 'total' announced, beyond a 1% allowance for upstream churn.
+ *
+ * There is no separate probe request: the first real batch reports 'total', and the page size of
+ * the remaining batches is chosen by the source's {@link AdaptiveBatchSizer} from observed latency
+ * and payload size. A first page without a usable 'total', or an empty first page when 'total'
+ * announces records, fails the fetch the same way.
+ *
+ * Response bodies are never buffered whole: each page is token-streamed through an
+ * {@link AssetStreamDecoder} that binds only the record objects as their bytes arrive.
+ *
+ * Pages that came with an ETag or Last-Modified are kept decoded until the next crawl. When the
+ * {@link ConditionalRequestCache} reports such a page unchanged (304), the kept records are reused
+ * and the replayed body is released without being parsed.
+ */
+@Slf4j
+@Component
+public class PaginatedFetcher {
+
+    /** Share of 'total' a crawl may come up short by, for records removed upstream while it runs. */
+    static final double MAX_SHORTFALL_RATIO = 0.01;
+
+    private final WebClient webClient;
+    private final ObjectMapper objectMapper;
+    private final UpstreamProperties properties;
+    private final PartnerMetrics metrics;
+    private final Map<String, SourceState> sources = new ConcurrentHashMap<>();
+
+    public PaginatedFetcher(WebClient.Builder webClientBuilder, ObjectMapper objectMapper, UpstreamProperties properties,
+                            PartnerMetrics metrics) {
+        this.webClient = webClientBuilder.build();
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.metrics = metrics;
+    }
+
+    /** Per-source state that outlives a single crawl; {@code pages} holds the last crawl's revalidatable pages by URL */
+    private record SourceState(TokenBucket rateLimit, AdaptiveBatchSizer sizer,
+                               AtomicReference<Map<String, PageResponse<?>>> pages) {}
+
+    /** One decoded page plus what it cost to fetch; {@code revalidated} pages were reused after a 304 */
+    private record PageResponse<T>(List<T> records, int total, long bytes, long nanos, boolean revalidated) {}
+
+    /** Per-crawl counters, and the revalidatable pages seen by this crawl */
+    private record Counters(AtomicInteger requests, AtomicInteger notModified, AtomicLong bytes,
+                            Map<String, PageResponse<?>> pages) {
+        Counters() {
+            this(new AtomicInteger(), new AtomicInteger(), new AtomicLong(), new ConcurrentHashMap<>());
+        }
+    }
+
+    /**
+     * Fetches every batch of {@code source}, in upstream order.
+     * Mono: a single asynchronous result (all batches), or an error if any batch failed after retries.
+     */
+    public <T> Mono<FetchResult<T>> fetchAll(UpstreamSource<T> source) {
+        SourceState state = sources.computeIfAbsent(source.name(), name -> new SourceState(
+                new TokenBucket(properties.rateLimit().permitsPerSecond(), properties.rateLimit().burst()),
+                new AdaptiveBatchSizer(properties.minBatchSize(), properties.maxBatchSize(),
+                        properties.batchSize(), properties.maxBatchBytes().toBytes()),
+                new AtomicReference<>(Map.of())));
+
+        return Mono.defer(() -> {
+            long startedAt = System.nanoTime();
+            int firstSize = state.sizer().current();
+            Counters counters = new Counters();
+
+            return fetchPage(source, state, 0, firstSize, counters)
+                    .onErrorMap(e -> new IncompleteFetchException(source.name(), 0, e))
+                    .flatMap(first -> {
+                        FetchedBatch<T> firstBatch = toBatch(source, state, 0, first);
+                        int total = first.total();
+                        int received = firstBatch.records().size();
+                        // Without a usable total the crawl cannot know how much it is missing
+                        if (total < 0 || (received >= firstSize && total < received) || (received == 0 && total > 0)) {
+                            String reason = total < 0
+                                    ? "'total' is missing or not a count"
+                                    : "'total' is " + total + " but the first page returned " + received + " records";
+                            log.warn("{} first page unusable ({}); keeping the previous snapshot", source.name(), reason);
+                            return Mono.error(new IncompleteFetchException(source.name(), 0, reason));
+                        }
+
+                        if (received == 0 || received >= total) {
+                            return Mono.just(new Planned<T>(List.of(firstBatch), firstSize));
+                        }
+                        if (received < firstSize) {
+                            // The upstream caps page sizes below what we asked for
+                            state.sizer().limitTo(received);
+                        }
+
+                        int size = state.sizer().plan(total - received, properties.maxInFlight(), properties.timeout());
+                        int batches = (total - received + size - 1) / size;
+                        return Flux.range(0, batches)
+                                .map(i -> received + i * size)
+                                .flatMap(start -> fetchBatch(source, state, start, size, counters), properties.maxInFlight())
+                                .startWith(firstBatch)
+                                // Restore upstream order so batch fingerprints are stable between refreshes
+                                .collectSortedList(Comparator.comparingInt(FetchedBatch::start))
+                                .flatMap(all -> checkComplete(source, all, total))
+                                .map(all -> new Planned<>(all, size));
+                    })
+                    // Pages the upstream no longer serves under the same URL are dropped here
+                    .doOnNext(planned -> state.pages().set(counters.pages()))
+                    .map(planned -> new FetchResult<>(planned.batches(), new FetchStats(
+                            source.name(),
+                            planned.batches().stream().mapToInt(b -> b.records().size()).sum(),
+                            counters.requests().get(),
+                            counters.notModified().get(),
+                            firstSize,
+                            planned.batchSize(),
+                            counters.bytes().get(),
+                            Duration.ofNanos(System.nanoTime() - startedAt))))
+                    .doOnNext(result -> metrics.fetched(result.stats()))
+                    .doOnError(e -> metrics.fetchFailed(source.name()));
+        });
+    }
+
+    private record Planned<T>(List<FetchedBatch<T>> batches, int batchSize) {}
+
+    /**
+     * Fails the crawl when a page before the last came back empty, or when the batches together hold
+     * fewer records than 'total' announced, beyond {@link #MAX_SHORTFALL_RATIO} of it. Records removed
+     * upstream while the crawl runs shift later pages and can leave a few records short; a whole page
+     * missing cannot.
+     */
+    private static <T> Mono<List<FetchedBatch<T>>> checkComplete(UpstreamSource<T> source, List<FetchedBatch<T>> batches,
+                                                                 int total) {
+        for (int i = 0; i < batches.size() - 1; i++) {
+            if (batches.get(i).records().isEmpty()) {
+                return incomplete(source, batches.get(i).start(), "page is empty but 'total' is " + total);
+            }
+        }
+        int received = batches.stream().mapToInt(batch -> batch.records().size()).sum();
+        if (total - received > total * MAX_SHORTFALL_RATIO) {
+            // Report the first page holding fewer records than were asked for
+            int shortAt = batches.get(batches.size() - 1).start();
+            for (int i = 0; i < batches.size() - 1; i++) {
+                FetchedBatch<T> batch = batches.get(i);
+                if (batch.records().size() < batches.get(i + 1).start() - batch.start()) {
+                    shortAt = batch.start();
+                    break;
+                }
+            }
+            return incomplete(source, shortAt, "crawl returned " + received + " records but 'total' is " + total);
+        }
+        return Mono.just(batches);
+    }
+
+    private static <T> Mono<T> incomplete(UpstreamSource<?> source, int start, String reason) {
+        log.warn("{} crawl incomplete at {} ({}); keeping the previous snapshot", source.name(), start, reason);
+        return Mono.error(new IncompleteFetchException(source.name(), start, reason));
+    }
+
+    private <T> Mono<FetchedBatch<T>> fetchBatch(UpstreamSource<T> source, SourceState state,
+                                                   int start, int max, Counters counters) {
+        return fetchPage(source, state, start, max, counters)
+                .map(page -> toBatch(source, state, start, page))
+                .onErrorMap(e -> new IncompleteFetchException(source.name(), start, e));
+    }
+
+    /**
+     * Turns a page into a fingerprinted batch and feeds its cost to the batch sizer. Revalidated
+     * pages cost next to nothing, which says nothing about full pages, so the sizer does not see them.
+     */
+    private static <T> FetchedBatch<T> toBatch(UpstreamSource<T> source, SourceState state,
+                                              int start, PageResponse<T> page) {
+        FetchedBatch<T> batch = FetchedBatch.of(start, page.records(), source.contentHash());
+        if (!page.revalidated()) {
+            state.sizer().observe(batch.records().size(), page.bytes(), page.nanos());
+        }
+        return batch;
+    }
+
+    /** One rate-limited, retried, measured request for a single page */
+    private <T> Mono<PageResponse<T>> fetchPage(UpstreamSource<T> source, SourceState state,
+                                                int start, int max, Counters counters) {
+        String url = String.format(source.urlTemplate(), start, max);
+        UpstreamProperties.Retry retry = properties.retry();
+
+        return Mono.defer(() -> Mono.delay(state.rateLimit().reserve())
+                        .then(Mono.defer(() -> {
+                            long sentAt = System.nanoTime();
+                            return webClient.get()
+                                    .uri(url)
+                                    .exchangeToMono(response -> {
+                                        if (response.statusCode().isError()) {
+                                            return response.<PageResponse<T>>createError();
+                                        }
+                                        HttpHeaders headers = response.headers().asHttpHeaders();
+                                        @SuppressWarnings("unchecked")
+                                        PageResponse<T> previous = (PageResponse<T>) state.pages().get().get(url);
+                                        if (previous != null && headers.containsKey(ConditionalRequestCache.REVALIDATED)) {
+                                            PageResponse<T> reused = new PageResponse<>(previous.records(), previous.total(),
+                                                    0, System.nanoTime() - sentAt, true);
+                                            counters.pages().put(url, reused);
+                                            return response.releaseBody().thenReturn(reused);
+                                        }
+                                        boolean revalidatable = properties.httpCache().enabled()
+                                                && (headers.getETag() != null || headers.getLastModified() >= 0);
+                                        AssetStreamDecoder<T> decoder = new AssetStreamDecoder<>(objectMapper,
+                                                source.wrapperField(), source.recordField(), source.recordType());
+                                        return decoder.decode(response.bodyToFlux(DataBuffer.class))
+                                                .collectList()
+                                                .map(records -> new PageResponse<>(records, decoder.total(),
+                                                        decoder.bytesRead(), System.nanoTime() - sentAt, false))
+                                                .doOnNext(page -> {
+                                                    if (revalidatable) counters.pages().put(url, page);
+                                                });
+                                    })
+                                    .timeout(properties.timeout())
+                                    .doOnNext(page -> metrics.batch(source.name(),
+                                            page.revalidated() ? "not_modified" : "ok", System.nanoTime() - sentAt))
+                                    .doOnError(e -> metrics.batch(source.name(), "error", System.nanoTime() - sentAt));
+                        })))
+                .retryWhen(Retry.backoff(Math.max(0, retry.maxAttempts() - 1), retry.minBackoff())
+                        .maxBackoff(retry.maxBackoff())
+                        .jitter(retry.jitter())
+                        .filter(PaginatedFetcher::isTransient)
+                        .doBeforeRetry(signal -> {
+                            if (signal.failure() instanceof TimeoutException) {
+                                state.sizer().onTimeout();
+                            }
+                            metrics.retry(source.name(), signal.failure());
+                            log.warn("Retrying {} batch start={} (attempt {}): {}",
+                                    source.name(), start, signal.totalRetries() + 2, signal.failure().toString());
+                        }))
+                .doOnNext(page -> {
+                    counters.requests().incrementAndGet();
+                    if (page.revalidated()) counters.notModified().incrementAndGet();
+                    counters.bytes().addAndGet(Math.max(0, page.bytes()));
+                });
+    }
+
+    /** Only errors that another attempt could plausibly fix are retried */
+    private static boolean isTransient(Throwable error) {
+        if (error instanceof WebClientResponseException response) {
+            int status = response.getStatusCode().value();
+            return status >= 500 || status == 429;
+        }
+        return error instanceof WebClientRequestException || error instanceof TimeoutException;
+    }
+}
@@ -0,0 +1,40 @@
+package com.opentext.partners.fetch;
+
+import java.time.Duration;
+
+/**
+ * Minimal reservation-based token bucket. Callers take a permit immediately and are told how long
+ * to wait before using it, so concurrent requests queue up at the configured rate without blocking.
+ */
+final class TokenBucket {
+
+    private final double permitsPerNano;
+    private final double capacity;
+
+    private double tokens;
+    private long lastRefill;
+
+    TokenBucket(double permitsPerSecond, int burst) {
+        this.permitsPerNano = permitsPerSecond / 1_000_000_000d;
+        this.capacity = Math.max(1, burst);
+        this.tokens = capacity;
+        this.lastRefill = System.nanoTime();
+    }
+
+    /** Reserves one permit and returns the delay before it may be used. */
+    synchronized Duration reserve() {
+        if (permitsPerNano <= 0) {
+            return Duration.ZERO;
+        }
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - lastRefill) * permitsPerNano);
+        lastRefill = now;
+
+        // Tokens may go negative: that is the debt later reservations have to wait out
+        tokens -= 1;
+        if (tokens >= 0) {
+            return Duration.ZERO;
+        }
+        return Duration.ofNanos((long) Math.ceil(-tokens / permitsPerNano));
+    }
+}
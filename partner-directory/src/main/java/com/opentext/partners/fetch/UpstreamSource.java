@@ -0,0 +1,23 @@
+package com.opentext.partners.fetch;
+
+import java.util.function.ToLongFunction;
+
+/**
+ * Describes one paginated upstream endpoint for the {@link PaginatedFetcher}.
+ * Records live at {@code results.assets[*].contentJson.<wrapperField>.<recordField>}.
+ *
+ * @param name         Short name used for logs and the per-source rate limit.
+ * @param urlTemplate  URL with two %d placeholders: 'start' offset and 'max' page size.
+ * @param wrapperField Field under contentJson that wraps the record.
+ * @param recordField  Field holding the record object.
+ * @param recordType   Type the record objects are bound to.
+ * @param contentHash  Content fingerprint of one record.
+ */
+public record UpstreamSource<T>(
+        String name,
+        String urlTemplate,
+        String wrapperField,
+        String recordField,
+        Class<T> recordType,
+        ToLongFunction<T> contentHash
+) {}
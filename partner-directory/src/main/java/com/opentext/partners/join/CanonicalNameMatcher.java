@@ -0,0 +1,65 @@
+package com.opentext.partners.join;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Exact match first, then equality of {@link NameCanonicalizer canonical} names. When several
+ * partners share a canonical name, the first in upstream order receives the solutions.
+ */
+public class CanonicalNameMatcher implements NameMatcher {
+
+    @Override
+    public NameResolution resolve(List<String> partnerKeys, Set<String> solutionKeys) {
+        long start = System.nanoTime();
+        Set<String> partners = new HashSet<>(partnerKeys);
+        Map<String, String> partnerByCanonical = new HashMap<>();
+        for (String key : partnerKeys) {
+            String canonical = NameCanonicalizer.canonical(key);
+            if (!canonical.isEmpty()) partnerByCanonical.putIfAbsent(canonical, key);
+        }
+
+        Map<String, String> remapped = new HashMap<>();
+        List<String> remaining = new ArrayList<>();
+        int exact = 0;
+        for (String key : solutionKeys) {
+            if (partners.contains(key)) {
+                exact++;
+                continue;
+            }
+            String partner = partnerByCanonical.get(NameCanonicalizer.canonical(key));
+            if (partner != null) {
+                remapped.put(key, partner);
+            } else {
+                remaining.add(key);
+            }
+        }
+        int canonical = remapped.size();
+
+        remapped.putAll(matchRemaining(partnerByCanonical, remaining));
+        int fuzzy = remapped.size() - canonical;
+
+        return new NameResolution(remapped, new MatchStats(name(), solutionKeys.size(), exact, canonical, fuzzy,
+                solutionKeys.size() - exact - canonical - fuzzy, Duration.ofNanos(System.nanoTime() - start)));
+    }
+
+    /**
+     * Hook for a further matching stage over the keys neither stage matched.
+     *
+     * @param partnerByCanonical Canonical partner names mapped to the partner key they stand for.
+     * @return Matched solution keys mapped to partner keys.
+     */
+    protected Map<String, String> matchRemaining(Map<String, String> partnerByCanonical, List<String> remaining) {
+        return Map.of();
+    }
+
+    @Override
+    public String name() {
+        return "canonical";
+    }
+}
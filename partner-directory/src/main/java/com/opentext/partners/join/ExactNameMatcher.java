@@ -0,0 +1,25 @@
+package com.opentext.partners.join;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/** The original rule: a solution joins the partner whose name is equal ignoring case. */
+public class ExactNameMatcher implements NameMatcher {
+
+    @Override
+    public NameResolution resolve(List<String> partnerKeys, Set<String> solutionKeys) {
+        long start = System.nanoTime();
+        Set<String> partners = new HashSet<>(partnerKeys);
+        int exact = (int) solutionKeys.stream().filter(partners::contains).count();
+        return new NameResolution(Map.of(), new MatchStats(name(), solutionKeys.size(), exact, 0, 0,
+                solutionKeys.size() - exact, Duration.ofNanos(System.nanoTime() - start)));
+    }
+
+    @Override
+    public String name() {
+        return "exact";
+    }
+}
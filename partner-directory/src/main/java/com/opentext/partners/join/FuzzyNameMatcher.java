@@ -0,0 +1,248 @@
+package com.opentext.partners.join;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * {@link CanonicalNameMatcher} plus a fuzzy stage for what is still unmatched, e.g. "Acme Solutons"
+ * vs "Acme Solutions".
+ *
+ * Candidates are blocked with a trigram index over the canonical partner names and prefix
+ * filtering: a name with {@code a} trigrams can only reach a Dice similarity of {@code threshold}
+ * with names sharing at least {@code m = ceil(threshold * a / (2 - threshold))} of them, so every
+ * such name contains one of its {@code a - m + 1} rarest trigrams and only those posting lists are
+ * read. Lists longer than a small share of the index (trigrams of words like "solutions") are never
+ * read; names that differ only in such words are left to the exact stages. Candidates are scored by
+ * the Dice coefficient of their trigram sets, and the best one is accepted if it reaches the
+ * threshold and is clearly ahead of the runner-up. Lookups run in parallel across cores; the index
+ * is built once per resolution.
+ */
+public class FuzzyNameMatcher extends CanonicalNameMatcher {
+
+    /** The best candidate must beat the runner-up by this much, or the name stays unmatched. */
+    private static final double MIN_MARGIN = 0.05;
+    /** Posting lists longer than this share of all names are not read. */
+    private static final double MAX_POSTINGS_SHARE = 0.01;
+    private static final int MIN_POSTINGS_CAP = 64;
+
+    private final double threshold;
+
+    public FuzzyNameMatcher(double threshold) {
+        if (threshold <= 0 || threshold > 1) {
+            throw new IllegalArgumentException("Fuzzy threshold must be in (0, 1], got " + threshold);
+        }
+        this.threshold = threshold;
+    }
+
+    @Override
+    protected Map<String, String> matchRemaining(Map<String, String> partnerByCanonical, List<String> remaining) {
+        if (remaining.isEmpty() || partnerByCanonical.isEmpty()) return Map.of();
+
+        TrigramIndex index = new TrigramIndex(new ArrayList<>(partnerByCanonical.keySet()));
+        Map<String, String> matched = new HashMap<>();
+        remaining.parallelStream()
+                .map(key -> {
+                    String best = index.bestMatch(NameCanonicalizer.canonical(key), threshold);
+                    return best != null ? Map.entry(key, partnerByCanonical.get(best)) : null;
+                })
+                .filter(Objects::nonNull)
+                .toList()
+                .forEach(entry -> matched.put(entry.getKey(), entry.getValue()));
+        return matched;
+    }
+
+    @Override
+    public String name() {
+        return "fuzzy";
+    }
+
+    /** Distinct trigrams of " name ", each packed into a long (three UTF-16 units), sorted. */
+    static long[] trigrams(String name) {
+        String padded = " " + name + " ";
+        if (padded.length() < 3) return new long[0];
+        long[] grams = new long[padded.length() - 2];
+        for (int i = 0; i < grams.length; i++) {
+            grams[i] = ((long) padded.charAt(i) << 32) | ((long) padded.charAt(i + 1) << 16) | padded.charAt(i + 2);
+        }
+        Arrays.sort(grams);
+        int distinct = 0;
+        for (int i = 0; i < grams.length; i++) {
+            if (i == 0 || grams[i] != grams[i - 1]) grams[distinct++] = grams[i];
+        }
+        return distinct == grams.length ? grams : Arrays.copyOf(grams, distinct);
+    }
+
+    /**
+     * Inverted trigram index over canonical names. Lookups may run in parallel: the index is
+     * read-only once built, and each lookup borrows its candidate marks from a pool the index owns.
+     *
+     * Grams are interned to dense codes in an open-addressing table, and every name's sorted codes
+     * live in one flat array, so building allocates no boxes and verification reads memory in order.
+     */
+    static final class TrigramIndex {
+
+        private static final int[] NO_POSTINGS = new int[0];
+        private static final long EMPTY = -1L;
+
+        private final List<String> names;
+        /** Gram codes of name {@code id} are {@code codes[starts[id] .. starts[id + 1])}, ascending. */
+        private final int[] codes;
+        private final int[] starts;
+        private final long[] tableGrams;
+        private final int[] tableCodes;
+        private final int[][] postings;
+        private final int postingsCap;
+        /**
+         * Candidate marks, all false between lookups; one per concurrent lookup. Unlike a ThreadLocal
+         * on the long-lived join pool, they become garbage together with the index.
+         */
+        private final Queue<boolean[]> marks = new ConcurrentLinkedQueue<>();
+
+        TrigramIndex(List<String> names) {
+            this.names = names;
+            long[][] grams = new long[names.size()][];
+            int total = 0;
+            for (int id = 0; id < grams.length; id++) {
+                grams[id] = trigrams(names.get(id));
+                total += grams[id].length;
+            }
+
+            int capacity = Integer.highestOneBit(Math.max(16, total) * 2);
+            this.tableGrams = new long[capacity];
+            this.tableCodes = new int[capacity];
+            Arrays.fill(tableGrams, EMPTY);
+
+            // Two passes over dense gram codes: count, then fill exact-size posting arrays
+            this.codes = new int[total];
+            this.starts = new int[grams.length + 1];
+            int[] counts = new int[1024];
+            int distinct = 0;
+            int pos = 0;
+            for (int id = 0; id < grams.length; id++) {
+                starts[id] = pos;
+                for (long gram : grams[id]) {
+                    int slot = slot(gram);
+                    if (tableGrams[slot] == EMPTY) {
+                        tableGrams[slot] = gram;
+                        tableCodes[slot] = distinct++;
+                        if (distinct > counts.length) counts = Arrays.copyOf(counts, counts.length * 2);
+                    }
+                    int code = tableCodes[slot];
+                    counts[code]++;
+                    codes[pos++] = code;
+                }
+                Arrays.sort(codes, starts[id], pos);
+            }
+            starts[grams.length] = pos;
+
+            this.postings = new int[distinct][];
+            for (int code = 0; code < distinct; code++) {
+                postings[code] = new int[counts[code]];
+                counts[code] = 0;
+            }
+            for (int id = 0; id < grams.length; id++) {
+                for (int i = starts[id]; i < starts[id + 1]; i++) {
+                    postings[codes[i]][counts[codes[i]]++] = id;
+                }
+            }
+            this.postingsCap = Math.max(MIN_POSTINGS_CAP, (int) (names.size() * MAX_POSTINGS_SHARE));
+        }
+
+        /** The indexed name most similar to {@code name}, or null if none is similar enough. */
+        String bestMatch(String name, double threshold) {
+            long[] grams = trigrams(name);
+            if (grams.length == 0) return null;
+
+            // Grams the index has never seen still count towards the query's size, but match nothing
+            int size = grams.length;
+            int[] query = new int[size];
+            int known = 0;
+            for (long gram : grams) {
+                int slot = slot(gram);
+                if (tableGrams[slot] != EMPTY) query[known++] = tableCodes[slot];
+            }
+            if (known == 0) return null;
+            query = Arrays.copyOf(query, known);
+            Arrays.sort(query);
+
+            // Prefix filter: every possible match shares one of the rarest size - m + 1 trigrams
+            int[][] lists = new int[known][];
+            for (int i = 0; i < known; i++) {
+                lists[i] = postings[query[i]];
+            }
+            Arrays.sort(lists, (x, y) -> Integer.compare(x.length, y.length));
+            int minShared = (int) Math.ceil(threshold * size / (2 - threshold));
+            int prefix = Math.min(known, size - minShared + 1 - (size - known));
+            if (prefix <= 0) return null;
+
+            boolean[] marked = marks.poll();
+            if (marked == null) marked = new boolean[names.size()];
+            int[] candidates = new int[64];
+            int candidateCount = 0;
+            for (int i = 0; i < prefix && lists[i].length <= postingsCap; i++) {
+                for (int id : lists[i]) {
+                    if (marked[id]) continue;
+                    marked[id] = true;
+                    if (candidateCount == candidates.length) candidates = Arrays.copyOf(candidates, candidateCount * 2);
+                    candidates[candidateCount++] = id;
+                }
+            }
+
+            // Anything below threshold - margin can neither win nor block the winner
+            double floor = Math.max(0, threshold - MIN_MARGIN);
+            int bestId = -1;
+            double best = 0;
+            double runnerUp = 0;
+            for (int i = 0; i < candidateCount; i++) {
+                int id = candidates[i];
+                marked[id] = false;
+                int length = starts[id + 1] - starts[id];
+                int needed = (int) Math.ceil(floor * (size + length) / 2);
+                int shared = intersection(query, codes, starts[id], starts[id + 1], needed);
+                if (shared < 0) continue;
+                double dice = 2.0 * shared / (size + length);
+                if (dice > best) {
+                    runnerUp = best;
+                    best = dice;
+                    bestId = id;
+                } else if (dice > runnerUp) {
+                    runnerUp = dice;
+                }
+            }
+            // Every mark was cleared above
+            marks.offer(marked);
+            return best >= threshold && best - runnerUp >= MIN_MARGIN ? names.get(bestId) : null;
+        }
+
+        private int slot(long gram) {
+            int mask = tableGrams.length - 1;
+            int slot = (int) (gram * 0x9E3779B97F4A7C15L >>> 40) & mask;
+            while (tableGrams[slot] != EMPTY && tableGrams[slot] != gram) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        /** Size of the intersection, or -1 as soon as it cannot reach {@code needed}. */
+        private static int intersection(int[] query, int[] codes, int from, int to, int needed) {
+            int i = 0, j = from, count = 0;
+            while (i < query.length && j < to) {
+                if (count + Math.min(query.length - i, to - j) < needed) return -1;
+                if (query[i] < codes[j]) i++;
+                else if (query[i] > codes[j]) j++;
+                else {
+                    count++;
+                    i++;
+                    j++;
+                }
+            }
+            return count >= needed ? count : -1;
+        }
+    }
+}
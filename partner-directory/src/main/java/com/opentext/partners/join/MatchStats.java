@@ -0,0 +1,17 @@
+package com.opentext.partners.join;
+
+import java.time.Duration;
+
+/**
+ * Match statistics of one resolution, reported with every refresh.
+ *
+ * @param matcher       Matcher that produced them.
+ * @param solutionNames Distinct Solution.partnerName keys.
+ * @param exact         Keys equal to a partner key (case-insensitive).
+ * @param canonical     Keys matching a partner only after canonicalization.
+ * @param fuzzy         Keys matched by trigram similarity.
+ * @param unmatched     Keys left without a partner.
+ * @param elapsed       Time spent resolving.
+ */
+public record MatchStats(String matcher, int solutionNames, int exact, int canonical, int fuzzy,
+                         int unmatched, Duration elapsed) {}
@@ -0,0 +1,67 @@
+package com.opentext.partners.join;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Reduces a company name to a canonical form, so "Acme Inc.", "ACME, Inc" and "Acmé Incorporated"
+ * all become "acme": Unicode compatibility decomposition (NFKD) without accents, lower case,
+ * punctuation to spaces, "&amp;" to "and", and trailing legal-form suffixes removed.
+ */
+public final class NameCanonicalizer {
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    /** Legal forms dropped from the end of a name. */
+    private static final Set<String> LEGAL_SUFFIXES = Set.of(
+            "inc", "incorporated", "corp", "corporation", "co", "company", "llc", "llp", "lp", "ltd", "limited",
+            "plc", "gmbh", "ag", "kg", "sa", "sas", "sarl", "srl", "spa", "bv", "nv", "oy", "ab", "as", "aps",
+            "pty", "pvt", "kk", "sdn", "bhd", "pte");
+
+    private NameCanonicalizer() {
+    }
+
+    /** Canonical form of {@code name}; "" for null or names without letters and digits. */
+    public static String canonical(String name) {
+        if (name == null || name.isBlank()) return "";
+
+        String decomposed = COMBINING_MARKS.matcher(Normalizer.normalize(name, Normalizer.Form.NFKD)).replaceAll("");
+        String lower = decomposed.toLowerCase(Locale.ROOT);
+
+        List<String> tokens = new ArrayList<>(4);
+        StringBuilder token = new StringBuilder();
+        for (int i = 0; i <= lower.length(); i++) {
+            char c = i < lower.length() ? lower.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                token.append(c);
+            } else if (c == '.' && token.length() == 1 && i + 1 < lower.length() && Character.isLetter(lower.charAt(i + 1))) {
+                // Dotted abbreviations: "S.A." -> "sa", "B.V." -> "bv"
+            } else {
+                if (c == '&') {
+                    flush(token, tokens);
+                    tokens.add("and");
+                }
+                flush(token, tokens);
+            }
+        }
+
+        int end = tokens.size();
+        // Keep at least one token: a company called "AG" stays "ag"
+        while (end > 1 && LEGAL_SUFFIXES.contains(tokens.get(end - 1))) {
+            end--;
+        }
+        int start = end > 1 && tokens.get(0).equals("the") ? 1 : 0;
+        return String.join(" ", tokens.subList(start, end));
+    }
+
+    private static void flush(StringBuilder token, List<String> tokens) {
+        if (!token.isEmpty()) {
+            tokens.add(token.toString());
+            token.setLength(0);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.opentext.partners.join;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Decides which partner each Solution.partnerName belongs to. Implementations are stateless,
+ * so the joiner may call one concurrently with itself across refreshes.
+ *
+ * Names arrive as join keys (lower-cased, see IncrementalJoiner.joinKey); an exact key match
+ * always wins and is never remapped.
+ */
+public interface NameMatcher {
+
+    /**
+     * @param partnerKeys  Join keys of all partners, in upstream order.
+     * @param solutionKeys Distinct join keys of all Solution.partnerName values.
+     */
+    NameResolution resolve(List<String> partnerKeys, Set<String> solutionKeys);
+
+    /** Short name for logs and reports. */
+    String name();
+}
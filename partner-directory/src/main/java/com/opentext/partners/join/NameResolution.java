@@ -0,0 +1,18 @@
+package com.opentext.partners.join;
+
+import java.util.Map;
+
+/**
+ * Outcome of a {@link NameMatcher} run.
+ *
+ * @param remapped Solution keys that matched a partner under a different key, mapped to that
+ *                 partner's key. Exact matches and unmatched keys are not listed.
+ * @param stats    How the solution keys were matched.
+ */
+public record NameResolution(Map<String, String> remapped, MatchStats stats) {
+
+    /** The partner key a solution key joins to. */
+    public String partnerKey(String solutionKey) {
+        return remapped.getOrDefault(solutionKey, solutionKey);
+    }
+}
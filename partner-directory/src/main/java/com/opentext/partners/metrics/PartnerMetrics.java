@@ -0,0 +1,188 @@
+package com.opentext.partners.metrics;
+
+import com.opentext.partners.fetch.FetchResult.FetchStats;
+import com.opentext.partners.join.MatchStats;
+import com.opentext.partners.snapshot.PartnerSnapshot;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Meters of the refresh pipeline and the partner endpoints, exported through Actuator
+ * (/actuator/prometheus). Request latency of every endpoint comes from Spring's own
+ * http.server.requests; this adds what only the application knows:
+ * <ul>
+ *   <li>{@code partners.upstream.batch}: latency of every batch request, by source and outcome
+ *       (ok, not_modified, error), with a percentile histogram.</li>
+ *   <li>{@code partners.upstream.retries} / {@code partners.upstream.failures}: retried batch
+ *       requests by reason, and crawls given up as incomplete.</li>
+ *   <li>{@code partners.upstream.records}, {@code .requests}, {@code .bytes}: per completed crawl.</li>
+ *   <li>{@code partners.join}: join duration; {@code partners.join.match.ratio}: share of solution
+ *       owners matched to a partner in the last join.</li>
+ *   <li>{@code partners.refresh}: refreshes by outcome (published, unchanged, failed, cancelled).</li>
+ *   <li>{@code partners.snapshot.entries}, {@code .with.solutions}, {@code .version}, {@code .bytes}
+ *       (encoded size) and {@code .age}: the snapshot being served. A shrinking directory shows up
+ *       as a drop in entries; a stuck refresh as a growing age.</li>
+ *   <li>{@code partners.http.response.size}: body bytes per endpoint (uncompressed for streamed bodies).</li>
+ *   <li>{@code partners.http.rejected}: requests turned away with 503 by reason (concurrency-limit).</li>
+ * </ul>
+ */
+@Component
+public class PartnerMetrics {
+
+    private final MeterRegistry registry;
+
+    private volatile PartnerSnapshot snapshot = PartnerSnapshot.EMPTY;
+    private volatile double snapshotBytes = Double.NaN;
+    private volatile double matchRatio = Double.NaN;
+
+    public PartnerMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        Gauge.builder("partners.snapshot.entries", this, m -> m.snapshot.size())
+                .description("Partners in the snapshot being served")
+                .register(registry);
+        Gauge.builder("partners.snapshot.with.solutions", this, m -> m.snapshot.withSolutions().size())
+                .description("Partners with at least one solution in the snapshot being served")
+                .register(registry);
+        Gauge.builder("partners.snapshot.version", this, m -> m.snapshot.version())
+                .register(registry);
+        Gauge.builder("partners.snapshot.bytes", this, m -> m.snapshotBytes)
+                .description("Encoded size of the snapshot being served, as saved and shared")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("partners.snapshot.age", this, PartnerMetrics::snapshotAgeSeconds)
+                .description("Time since the snapshot being served was published")
+                .baseUnit("seconds")
+                .register(registry);
+        Gauge.builder("partners.join.match.ratio", this, m -> m.matchRatio)
+                .description("Share of distinct solution owners matched to a partner in the last join")
+                .register(registry);
+    }
+
+    /** One batch request (a single attempt) finished with {@code outcome}: ok, not_modified or error. */
+    public void batch(String source, String outcome, long nanos) {
+        Timer.builder("partners.upstream.batch")
+                .description("Latency of upstream batch requests")
+                .tag("source", source)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /** A batch request is about to be retried after {@code error}. */
+    public void retry(String source, Throwable error) {
+        Counter.builder("partners.upstream.retries")
+                .tag("source", source)
+                .tag("reason", reason(error))
+                .register(registry)
+                .increment();
+    }
+
+    /** A crawl of {@code source} failed after retries; the snapshot was kept. */
+    public void fetchFailed(String source) {
+        Counter.builder("partners.upstream.failures")
+                .tag("source", source)
+                .register(registry)
+                .increment();
+    }
+
+    /** A crawl completed. */
+    public void fetched(FetchStats stats) {
+        Counter.builder("partners.upstream.records").tag("source", stats.source()).register(registry)
+                .increment(stats.records());
+        Counter.builder("partners.upstream.requests").tag("source", stats.source()).register(registry)
+                .increment(stats.requests());
+        Counter.builder("partners.upstream.bytes").tag("source", stats.source()).baseUnit("bytes").register(registry)
+                .increment(stats.bytes());
+    }
+
+    /** A join finished. */
+    public void joined(Duration elapsed, MatchStats matches) {
+        Timer.builder("partners.join")
+                .description("Duration of the partner/solution join")
+                .tag("matcher", matches.matcher())
+                .register(registry)
+                .record(elapsed);
+        matchRatio = matches.solutionNames() == 0
+                ? Double.NaN
+                : (matches.solutionNames() - matches.unmatched()) / (double) matches.solutionNames();
+    }
+
+    /** A refresh ended: published, unchanged, failed or cancelled. */
+    public void refresh(String outcome) {
+        Counter.builder("partners.refresh")
+                .tag("outcome", outcome)
+                .register(registry)
+                .increment();
+    }
+
+    /** {@code serving} is the snapshot being served from now on. */
+    public void serving(PartnerSnapshot serving) {
+        this.snapshot = serving;
+        this.snapshotBytes = Double.NaN;
+    }
+
+    /** The snapshot being served was encoded (saved or shared) to {@code bytes}. */
+    public void encoded(PartnerSnapshot encoded, long bytes) {
+        if (encoded == snapshot) this.snapshotBytes = bytes;
+    }
+
+    /** A response body of {@code bytes} was written for {@code endpoint}. */
+    public void responseSize(String endpoint, String encoding, long bytes) {
+        DistributionSummary.builder("partners.http.response.size")
+                .baseUnit("bytes")
+                .tag("endpoint", endpoint)
+                .tag("encoding", encoding)
+                .register(registry)
+                .record(bytes);
+    }
+
+    /** A request was turned away before reaching a controller. */
+    public void rejected(String reason) {
+        Counter.builder("partners.http.rejected")
+                .tag("reason", reason)
+                .register(registry)
+                .increment();
+    }
+
+    /** Open /api/partners/changes streams, read from {@code subscribers}. */
+    public void changeSubscribers(AtomicInteger subscribers) {
+        Gauge.builder("partners.changes.subscribers", subscribers, AtomicInteger::get)
+                .description("Open snapshot change streams")
+                .register(registry);
+    }
+
+    /** A change event was dropped from a slow subscriber's buffer. */
+    public void changeDropped() {
+        Counter.builder("partners.changes.dropped")
+                .register(registry)
+                .increment();
+    }
+
+    private static double snapshotAgeSeconds(PartnerMetrics metrics) {
+        PartnerSnapshot current = metrics.snapshot;
+        if (current == PartnerSnapshot.EMPTY) return Double.NaN;
+        return Duration.between(current.createdAt(), Instant.now()).toMillis() / 1000.0;
+    }
+
+    private static String reason(Throwable error) {
+        if (error instanceof TimeoutException) return "timeout";
+        if (error instanceof WebClientResponseException response) {
+            return response.getStatusCode().value() == 429 ? "throttled" : "server_error";
+        }
+        if (error instanceof WebClientRequestException) return "io";
+        return error.getClass().getSimpleName();
+    }
+}
@@ -0,0 +1,14 @@
+package com.opentext.partners.model;
+
+import java.util.List;
+
+/**
+ * One page of a cursor walk.
+ *
+ * @param content         The partners of this page.
+ * @param size            Requested page size.
+ * @param totalElements   Partners matching the walk's filter in its snapshot.
+ * @param snapshotVersion Snapshot the walk reads; stays the same for the whole walk.
+ * @param nextCursor      Token for the next page, or null on the last page.
+ */
+public record CursorPage<T>(List<T> content, int size, long totalElements, long snapshotVersion, String nextCursor) {}
@@ -0,0 +1,23 @@
+package com.opentext.partners.model;
+
+import com.opentext.partners.snapshot.FacetIndex.FacetCounts;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+
+/**
+ * A page of results plus the facet counts of the query that produced it.
+ * Serializes like a regular Page with an extra "facets" property, so existing clients keep working.
+ */
+public class FacetedPage<T> extends PageImpl<T> {
+
+    private final FacetCounts facets;
+
+    public FacetedPage(Page<T> page, FacetCounts facets) {
+        super(page.getContent(), page.getPageable(), page.getTotalElements());
+        this.facets = facets;
+    }
+
+    public FacetCounts getFacets() {
+        return facets;
+    }
+}
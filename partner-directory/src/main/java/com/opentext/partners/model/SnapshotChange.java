@@ -0,0 +1,48 @@
+package com.opentext.partners.model;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * What a newly published snapshot changed, pushed by /api/partners/changes. Partners are identified
+ * by partnerId (partnerName when the upstream sent none).
+ *
+ * A client that has seen {@code previousVersion} can refetch only what is affected: pages showing
+ * a changed or removed partner and, in the default (upstream) order, pages at or after
+ * {@code firstChangedIndex}, since additions and removals shift every later row. Any other version
+ * gap, or {@code truncated}, means refetching everything.
+ *
+ * @param version           The new snapshot.
+ * @param previousVersion   The snapshot it replaced.
+ * @param publishedAt       When the new snapshot was built.
+ * @param partners          Partners in the new snapshot.
+ * @param added             Partners only in the new snapshot.
+ * @param removed           Partners only in the previous snapshot.
+ * @param changed           Partners in both whose data differs.
+ * @param firstChangedIndex Lowest row, in the default order, that is added, changed, removed or moved; -1 if none.
+ * @param addedIds          Ids of added partners, at most partners.changes.max-ids.
+ * @param removedIds        Ids of removed partners, at most partners.changes.max-ids.
+ * @param changedIds        Ids of changed partners, at most partners.changes.max-ids.
+ * @param truncated         True when an id list was cut short.
+ */
+public record SnapshotChange(
+        long version,
+        long previousVersion,
+        Instant publishedAt,
+        int partners,
+        int added,
+        int removed,
+        int changed,
+        int firstChangedIndex,
+        List<String> addedIds,
+        List<String> removedIds,
+        List<String> changedIds,
+        boolean truncated
+) {
+
+    /** The snapshot a subscriber starts from: nothing changed relative to itself. */
+    public static SnapshotChange current(long version, Instant publishedAt, int partners) {
+        return new SnapshotChange(version, version, publishedAt, partners, 0, 0, 0, -1,
+                List.of(), List.of(), List.of(), false);
+    }
+}
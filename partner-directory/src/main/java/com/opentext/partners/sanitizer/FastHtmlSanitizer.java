@@ -0,0 +1,169 @@
+package com.opentext.partners.sanitizer;
+
+/**
+ * Single-pass, allocation-light sanitizer for the simple HTML found in partner and solution descriptions.
+ *
+ * Removes anything between '&lt;' and the next '&gt;' (the same tags the old {@code <[^>]*>} regex stripped),
+ * turns block-level tags such as {@code <p>} and {@code <br>} into a word break, decodes named and numeric
+ * character references, collapses whitespace runs to one space and trims. Text that needs none of this
+ * is returned as the same instance, without allocating.
+ */
+public class FastHtmlSanitizer implements HtmlSanitizer {
+
+    /** Tags that separate words when removed. */
+    private static final String[] BLOCK_TAGS = {
+            "br", "p", "div", "li", "ul", "ol", "tr", "td", "th", "table", "hr", "dl", "dt", "dd",
+            "h1", "h2", "h3", "h4", "h5", "h6", "blockquote", "section", "article", "header", "footer"
+    };
+
+    /** Named references worth decoding; anything else is kept verbatim. */
+    private static final String[] ENTITY_NAMES = {
+            "amp", "lt", "gt", "quot", "apos", "nbsp", "copy", "reg", "trade", "hellip",
+            "mdash", "ndash", "lsquo", "rsquo", "ldquo", "rdquo", "bull", "euro", "middot", "deg"
+    };
+    private static final char[] ENTITY_CHARS = {
+            '&', '<', '>', '"', '\'', '\u00A0', '©', '®', '™', '…',
+            '—', '–', '‘', '’', '“', '”', '•', '€', '·', '°'
+    };
+
+    private static final char NBSP = '\u00A0';
+    private static final char REPLACEMENT = '\uFFFD';
+
+    /** Longest reference we try to decode, e.g. "&#x10FFFF;". */
+    private static final int MAX_ENTITY_LENGTH = 10;
+
+    @Override
+    public String clean(String html) {
+        if (html == null || isClean(html)) {
+            return html;
+        }
+
+        int length = html.length();
+        StringBuilder out = new StringBuilder(length);
+        boolean pendingSpace = false;
+        // Once a '<' finds no '>', no later one will; remembering it keeps stray '<'s linear
+        boolean unclosed = false;
+        int i = 0;
+
+        while (i < length) {
+            char c = html.charAt(i);
+
+            if (c == '<') {
+                int close = unclosed ? -1 : html.indexOf('>', i + 1);
+                if (close >= 0) {
+                    pendingSpace |= isBlockTag(html, i + 1, close);
+                    i = close + 1;
+                    continue;
+                }
+                unclosed = true;
+            } else if (c == '&') {
+                // References are short: look for the ';' within MAX_ENTITY_LENGTH, not to the end of the text
+                int end = indexOf(html, ';', i + 1, Math.min(length, i + MAX_ENTITY_LENGTH + 1));
+                if (end > i + 1) {
+                    int codePoint = decodeEntity(html, i + 1, end);
+                    if (codePoint >= 0) {
+                        i = end + 1;
+                        if (codePoint == NBSP || Character.isWhitespace(codePoint)) {
+                            pendingSpace = true;
+                        } else {
+                            pendingSpace = appendSpace(out, pendingSpace);
+                            out.appendCodePoint(codePoint);
+                        }
+                        continue;
+                    }
+                }
+            } else if (c == NBSP || Character.isWhitespace(c)) {
+                pendingSpace = true;
+                i++;
+                continue;
+            }
+
+            pendingSpace = appendSpace(out, pendingSpace);
+            out.append(c);
+            i++;
+        }
+        return out.toString();
+    }
+
+    /** Index of {@code c} in {@code text[from, to)}, or -1; unlike String.indexOf it stops at {@code to}. */
+    private static int indexOf(String text, char c, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (text.charAt(i) == c) return i;
+        }
+        return -1;
+    }
+
+    /** True when the text has no markup, no references and already-normalised whitespace. */
+    private static boolean isClean(String text) {
+        int length = text.length();
+        if (length == 0) return true;
+        if (Character.isWhitespace(text.charAt(0)) || Character.isWhitespace(text.charAt(length - 1))) return false;
+
+        boolean previousSpace = false;
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (c == '<' || c == '&' || c == NBSP) return false;
+            if (c == ' ') {
+                if (previousSpace) return false;
+                previousSpace = true;
+            } else {
+                if (Character.isWhitespace(c)) return false;
+                previousSpace = false;
+            }
+        }
+        return true;
+    }
+
+    /** Emits the single space owed for a collapsed whitespace run, never at the very start. */
+    private static boolean appendSpace(StringBuilder out, boolean pendingSpace) {
+        if (pendingSpace && !out.isEmpty()) {
+            out.append(' ');
+        }
+        return false;
+    }
+
+    /** Checks the tag name inside {@code html[start, end)} (after '<', before '>') against the block tags. */
+    private static boolean isBlockTag(String html, int start, int end) {
+        int nameStart = start < end && html.charAt(start) == '/' ? start + 1 : start;
+        int nameEnd = nameStart;
+        while (nameEnd < end && Character.isLetterOrDigit(html.charAt(nameEnd))) {
+            nameEnd++;
+        }
+        int nameLength = nameEnd - nameStart;
+        for (String tag : BLOCK_TAGS) {
+            if (tag.length() == nameLength && html.regionMatches(true, nameStart, tag, 0, nameLength)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Decodes the reference between '&amp;' and ';' ({@code html[start, end)}), or returns -1 if unknown. */
+    private static int decodeEntity(String html, int start, int end) {
+        if (html.charAt(start) == '#') {
+            boolean hex = end - start > 1 && (html.charAt(start + 1) == 'x' || html.charAt(start + 1) == 'X');
+            int digitsStart = hex ? start + 2 : start + 1;
+            if (digitsStart >= end) return -1;
+            int value = 0;
+            for (int i = digitsStart; i < end; i++) {
+                int digit = Character.digit(html.charAt(i), hex ? 16 : 10);
+                if (digit < 0) return -1;
+                value = Math.min(value * (hex ? 16 : 10) + digit, Character.MAX_CODE_POINT + 1);
+            }
+            // NUL, surrogates and values past U+10FFFF are not characters; the HTML spec decodes them to U+FFFD
+            if (value == 0 || value > Character.MAX_CODE_POINT
+                    || (value >= Character.MIN_SURROGATE && value <= Character.MAX_SURROGATE)) {
+                return REPLACEMENT;
+            }
+            return value;
+        }
+        int nameLength = end - start;
+        for (int e = 0; e < ENTITY_NAMES.length; e++) {
+            String name = ENTITY_NAMES[e];
+            if (name.length() == nameLength && html.regionMatches(start, name, 0, nameLength)) {
+                return ENTITY_CHARS[e];
+            }
+        }
+        return -1;
+    }
+}
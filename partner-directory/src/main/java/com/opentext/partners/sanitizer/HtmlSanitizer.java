@@ -0,0 +1,11 @@
+package com.opentext.partners.sanitizer;
+
+/**
+ * Turns upstream HTML description fields into clean plain text:
+ * tags removed, entities decoded, whitespace collapsed and trimmed.
+ * Implementations must be thread-safe and return {@code null} for {@code null} input.
+ */
+public interface HtmlSanitizer {
+
+    String clean(String html);
+}
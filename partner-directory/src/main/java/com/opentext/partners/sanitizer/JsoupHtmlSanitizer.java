@@ -0,0 +1,19 @@
+package com.opentext.partners.sanitizer;
+
+import org.jsoup.Jsoup;
+
+/**
+ * Strict sanitizer backed by jsoup's HTML5 parser. Handles malformed markup, comments and
+ * script/style content exactly like a browser would, at several times the cost of {@link FastHtmlSanitizer}.
+ */
+public class JsoupHtmlSanitizer implements HtmlSanitizer {
+
+    @Override
+    public String clean(String html) {
+        if (html == null) {
+            return null;
+        }
+        // text() decodes entities and normalises whitespace
+        return Jsoup.parseBodyFragment(html).text();
+    }
+}
@@ -0,0 +1,254 @@
+package com.opentext.partners.service;
+
+import com.opentext.partners.join.MatchStats;
+import com.opentext.partners.join.NameMatcher;
+import com.opentext.partners.join.NameResolution;
+import com.opentext.partners.model.JoinedPartnerDto.PartnerSolution;
+import com.opentext.partners.model.JoinedPartnerDto.Solution;
+import com.opentext.partners.model.PartnerModels.RawPartner;
+import com.opentext.partners.model.SolutionModels.RawSolution;
+import com.opentext.partners.sanitizer.HtmlSanitizer;
+import com.opentext.partners.snapshot.ContentHash;
+import com.opentext.partners.snapshot.FetchedBatch;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+/**
+ * Joins partners with their solutions, re-joining only what changed since the previous refresh.
+ *
+ * Which partner a Solution.partnerName belongs to is decided by a pluggable {@link NameMatcher}
+ * (exact, canonical or fuzzy, see JoinConfig); its resolution is reused while the set of names
+ * is unchanged, so name matching only reruns when partners or solution owners come and go.
+ *
+ * Every record carries a content hash and every batch a fingerprint. When all batches are
+ * unchanged the previous result is returned as-is; otherwise each partner whose own record
+ * and solution group hash the same as last time is taken from the previous result, so refresh
+ * work and garbage scale with the amount of change, not catalog size. Solution lists are only
+ * collected for the partners being rebuilt; the others just need the group hash.
+ * HTML descriptions are sanitized here, so only changed records pay for it; large rebuilds are
+ * split across the ForkJoin pool the refresh runs on (partners.join.parallelism).
+ *
+ * Previous partners are remembered by row number in the list passed to {@link #retain}, never by
+ * instance, so a compact snapshot is not pinned on the heap as objects between refreshes.
+ *
+ * Not thread-safe: only the refresh pipeline calls it, one refresh at a time.
+ */
+class IncrementalJoiner {
+
+    /**
+     * @param partners  Joined partners in upstream order.
+     * @param unchanged True when the result is identical to the previous refresh.
+     * @param reused    Partners taken unchanged from the previous result.
+     * @param rebuilt   Partners that were (re-)joined in this refresh.
+     * @param matches   How solution owners were matched to partners.
+     */
+    record JoinResult(List<PartnerSolution> partners, boolean unchanged, int reused, int rebuilt, MatchStats matches) {}
+
+    /** What a partner looked like when it was last joined. */
+    private record JoinedEntry(long partnerHash, long solutionsHash, int row) {}
+
+    /** A partner whose joined form has to be rebuilt, and where it goes. */
+    private record Pending(int row, RawPartner partner, String groupKey) {}
+
+    /** Running content hash of the solutions grouped under one partner key. */
+    private static final class GroupHash {
+        private long hash = ContentHash.seed();
+    }
+
+    /** Below this many partners to rebuild, splitting the work costs more than it saves. */
+    private static final int PARALLEL_THRESHOLD = 512;
+
+    private final HtmlSanitizer sanitizer;
+    private final NameMatcher matcher;
+
+    private long previousFingerprint;
+    private List<PartnerSolution> previousPartners;
+    private Map<String, JoinedEntry> previousEntries = Map.of();
+
+    private long previousNamesFingerprint;
+    private NameResolution previousResolution;
+
+    IncrementalJoiner(HtmlSanitizer sanitizer, NameMatcher matcher) {
+        this.sanitizer = sanitizer;
+        this.matcher = matcher;
+    }
+
+    JoinResult join(List<FetchedBatch<RawPartner>> partnerBatches, List<FetchedBatch<RawSolution>> solutionBatches) {
+        long fingerprint = catalogFingerprint(partnerBatches, solutionBatches);
+        if (previousPartners != null && fingerprint == previousFingerprint) {
+            return new JoinResult(previousPartners, true, previousPartners.size(), 0, previousResolution.stats());
+        }
+
+        NameResolution resolution = resolveNames(partnerBatches, solutionBatches);
+        Map<String, GroupHash> groupHashes = new HashMap<>();
+        for (FetchedBatch<RawSolution> batch : solutionBatches) {
+            for (RawSolution solution : batch.records()) {
+                String groupKey = groupKey(resolution, solution);
+                if (groupKey == null) continue;
+                GroupHash group = groupHashes.computeIfAbsent(groupKey, k -> new GroupHash());
+                group.hash = ContentHash.combine(group.hash, solution.contentHash());
+            }
+        }
+
+        Map<String, JoinedEntry> entries = new HashMap<>(Math.max(16, previousEntries.size() * 4 / 3));
+        List<PartnerSolution> joined = new ArrayList<>(previousPartners != null ? previousPartners.size() : 256);
+        List<Pending> pending = new ArrayList<>();
+        int reused = 0;
+        boolean inPlace = true;
+
+        for (FetchedBatch<RawPartner> batch : partnerBatches) {
+            for (RawPartner partner : batch.records()) {
+                String partnerKey = joinKey(partner.name());
+                GroupHash group = groupHashes.get(partnerKey);
+                long partnerHash = partner.contentHash();
+                long solutionsHash = group != null ? group.hash : 0L;
+                String identity = partner.id() != null ? partner.id() : partnerKey;
+
+                int row = joined.size();
+                JoinedEntry entry = previousEntries.get(identity);
+                if (entry != null && entry.partnerHash() == partnerHash && entry.solutionsHash() == solutionsHash) {
+                    reused++;
+                    if (entry.row() != row) inPlace = false;
+                    joined.add(previousPartners.get(entry.row()));
+                } else {
+                    inPlace = false;
+                    joined.add(null);
+                    pending.add(new Pending(row, partner, group != null ? partnerKey : null));
+                }
+                entries.put(identity, new JoinedEntry(partnerHash, solutionsHash, row));
+            }
+        }
+
+        if (!pending.isEmpty()) {
+            Map<String, List<RawSolution>> solutions = collectSolutions(resolution, solutionBatches, pending);
+            PartnerSolution[] rebuilt = new PartnerSolution[pending.size()];
+            IntStream indexes = IntStream.range(0, rebuilt.length);
+            // Sanitizing dominates a large rebuild; split it across the pool this refresh runs on
+            if (rebuilt.length >= PARALLEL_THRESHOLD) indexes = indexes.parallel();
+            indexes.forEach(i -> {
+                Pending p = pending.get(i);
+                rebuilt[i] = toPartnerSolution(p.partner(), p.groupKey() != null ? solutions.get(p.groupKey()) : null);
+            });
+            for (int i = 0; i < rebuilt.length; i++) {
+                joined.set(pending.get(i).row(), rebuilt[i]);
+            }
+        }
+
+        boolean unchanged = inPlace && previousPartners != null && previousPartners.size() == joined.size();
+        List<PartnerSolution> partners = unchanged ? previousPartners : List.copyOf(joined);
+
+        this.previousFingerprint = fingerprint;
+        this.previousPartners = partners;
+        this.previousEntries = entries;
+        return new JoinResult(partners, unchanged, reused, joined.size() - reused, resolution.stats());
+    }
+
+    /**
+     * Points the remembered rows at the list actually published for the last result: the same
+     * partners in the same order, possibly in another storage layout.
+     */
+    void retain(List<PartnerSolution> published) {
+        if (previousPartners != null && published.size() != previousPartners.size()) {
+            throw new IllegalArgumentException("Published list does not match the last join result");
+        }
+        this.previousPartners = published;
+    }
+
+    /** Normalised join key: Partner.name ↔ Solution.partnerName, case-insensitive. */
+    static String joinKey(String name) {
+        return name != null ? name.toLowerCase(Locale.ROOT) : "";
+    }
+
+    /** Runs the name matcher, unless partner names and solution owners are the same as last time. */
+    private NameResolution resolveNames(List<FetchedBatch<RawPartner>> partnerBatches,
+                                        List<FetchedBatch<RawSolution>> solutionBatches) {
+        List<String> partnerKeys = new ArrayList<>();
+        long hash = ContentHash.seed();
+        for (FetchedBatch<RawPartner> batch : partnerBatches) {
+            for (RawPartner partner : batch.records()) {
+                String key = joinKey(partner.name());
+                partnerKeys.add(key);
+                hash = ContentHash.combine(hash, key);
+            }
+        }
+        Set<String> solutionKeys = new LinkedHashSet<>();
+        for (FetchedBatch<RawSolution> batch : solutionBatches) {
+            for (RawSolution solution : batch.records()) {
+                if (solution.partnerName() == null || solution.partnerName().isBlank()) continue;
+                solutionKeys.add(joinKey(solution.partnerName()));
+            }
+        }
+        hash = ContentHash.combine(hash, "solutions");
+        for (String key : solutionKeys) {
+            hash = ContentHash.combine(hash, key);
+        }
+
+        if (previousResolution == null || hash != previousNamesFingerprint) {
+            previousResolution = matcher.resolve(partnerKeys, solutionKeys);
+            previousNamesFingerprint = hash;
+        }
+        return previousResolution;
+    }
+
+    /** Partner key a solution is grouped under, or null if it names no partner. */
+    private static String groupKey(NameResolution resolution, RawSolution solution) {
+        if (solution.partnerName() == null || solution.partnerName().isBlank()) return null;
+        return resolution.partnerKey(joinKey(solution.partnerName()));
+    }
+
+    /** Solution lists of the pending partners only. */
+    private static Map<String, List<RawSolution>> collectSolutions(NameResolution resolution,
+                                                                   List<FetchedBatch<RawSolution>> solutionBatches,
+                                                                   List<Pending> pending) {
+        Map<String, List<RawSolution>> lists = new HashMap<>();
+        for (Pending p : pending) {
+            if (p.groupKey() != null) lists.putIfAbsent(p.groupKey(), new ArrayList<>(2));
+        }
+        for (FetchedBatch<RawSolution> batch : solutionBatches) {
+            for (RawSolution solution : batch.records()) {
+                String groupKey = groupKey(resolution, solution);
+                List<RawSolution> list = groupKey != null ? lists.get(groupKey) : null;
+                if (list != null) list.add(solution);
+            }
+        }
+        return lists;
+    }
+
+    private PartnerSolution toPartnerSolution(RawPartner partner, List<RawSolution> group) {
+        List<Solution> solutions = group == null
+                ? List.of()
+                : group.stream()
+                        .map(raw -> new Solution(raw.displayName(), sanitizer.clean(raw.shortDescription())))
+                        .toList();
+
+        return new PartnerSolution(
+                partner.name(),
+                partner.id(),
+                partner.partnerLevel(),
+                partner.partnerType(),
+                sanitizer.clean(partner.shortDescription()),
+                sanitizer.clean(partner.companyOverview()),
+                solutions
+        );
+    }
+
+    private static long catalogFingerprint(List<FetchedBatch<RawPartner>> partnerBatches,
+                                           List<FetchedBatch<RawSolution>> solutionBatches) {
+        long hash = ContentHash.seed();
+        for (FetchedBatch<RawPartner> batch : partnerBatches) {
+            hash = ContentHash.combine(hash, batch.fingerprint());
+        }
+        hash = ContentHash.combine(hash, "solutions");
+        for (FetchedBatch<RawSolution> batch : solutionBatches) {
+            hash = ContentHash.combine(hash, batch.fingerprint());
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,136 @@
+package com.opentext.partners.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.opentext.partners.model.JoinedPartnerDto.PartnerSolution;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * Streams joined partners straight to an output stream with a Jackson {@link JsonGenerator},
+ * one element at a time, so the full response body is never materialised in memory.
+ *
+ * For the reactive API the same bytes come as a Flux of buffers instead, each holding the next
+ * chunk of partners and encoded only when the client has demand for it.
+ */
+@Component
+public class JoinedJsonWriter {
+
+    /** Flush after this many partners so bytes reach the client while the rest is still being written. */
+    private static final int FLUSH_EVERY = 256;
+
+    private final ObjectMapper objectMapper;
+
+    public JoinedJsonWriter(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /** Writes the partners as a single JSON array; returns the bytes written. */
+    public long writeArray(List<PartnerSolution> partners, OutputStream out) throws IOException {
+        CountingOutputStream counting = new CountingOutputStream(out);
+        try (JsonGenerator generator = createGenerator(counting)) {
+            generator.writeStartArray();
+            writeElements(partners, generator, false);
+            generator.writeEndArray();
+        }
+        return counting.count;
+    }
+
+    /** Writes the partners as newline-delimited JSON (one object per line); returns the bytes written. */
+    public long writeNdjson(List<PartnerSolution> partners, OutputStream out) throws IOException {
+        CountingOutputStream counting = new CountingOutputStream(out);
+        try (JsonGenerator generator = createGenerator(counting)) {
+            writeElements(partners, generator, true);
+        }
+        return counting.count;
+    }
+
+    /** Same bytes as {@link #writeArray}, as buffers of up to FLUSH_EVERY partners each. */
+    public Flux<DataBuffer> encodeArray(Flux<PartnerSolution> partners, DataBufferFactory buffers) {
+        Flux<DataBuffer> elements = partners.buffer(FLUSH_EVERY)
+                .index()
+                .map(chunk -> encodeChunk(chunk.getT2(), chunk.getT1() > 0, false, buffers));
+        return Flux.concat(Mono.fromSupplier(() -> buffers.wrap(new byte[] {'['})),
+                elements,
+                Mono.fromSupplier(() -> buffers.wrap(new byte[] {']'})));
+    }
+
+    /** Same bytes as {@link #writeNdjson}, as buffers of up to FLUSH_EVERY partners each. */
+    public Flux<DataBuffer> encodeNdjson(Flux<PartnerSolution> partners, DataBufferFactory buffers) {
+        return partners.buffer(FLUSH_EVERY)
+                .map(chunk -> encodeChunk(chunk, false, true, buffers));
+    }
+
+    private DataBuffer encodeChunk(List<PartnerSolution> chunk, boolean leadingComma, boolean newlineDelimited,
+                                   DataBufferFactory buffers) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(chunk.size() * 512);
+        try (JsonGenerator generator = createGenerator(bytes)) {
+            boolean first = true;
+            for (PartnerSolution partner : chunk) {
+                // The generator is at the root level, so array separators are written by hand
+                if (!newlineDelimited && (leadingComma || !first)) generator.writeRaw(',');
+                generator.writeObject(partner);
+                if (newlineDelimited) generator.writeRaw('\n');
+                first = false;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffers.wrap(bytes.toByteArray());
+    }
+
+    private void writeElements(List<PartnerSolution> partners, JsonGenerator generator, boolean newlineDelimited)
+            throws IOException {
+        int written = 0;
+        for (PartnerSolution partner : partners) {
+            generator.writeObject(partner);
+            if (newlineDelimited) {
+                generator.writeRaw('\n');
+            }
+            // Flush the first element right away for a fast first byte, then periodically
+            if (++written == 1 || written % FLUSH_EVERY == 0) {
+                generator.flush();
+            }
+        }
+    }
+
+    private JsonGenerator createGenerator(OutputStream out) throws IOException {
+        // The servlet container owns the response stream; we only flush it. No root separator: it would
+        // start every NDJSON line after the first with a space
+        return objectMapper.createGenerator(out)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .setRootValueSeparator(null);
+    }
+
+    /** Pass-through stream counting bytes; the generator writes whole buffers, so only the array write matters */
+    private static final class CountingOutputStream extends FilterOutputStream {
+
+        private long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+}
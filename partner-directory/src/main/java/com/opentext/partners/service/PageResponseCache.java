@@ -0,0 +1,143 @@
+package com.opentext.partners.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.opentext.partners.snapshot.FacetFilter;
+import com.opentext.partners.snapshot.PartnerSnapshot;
+import com.opentext.partners.snapshot.SortOrder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Per-snapshot cache of ready-encoded API responses (plain and gzip JSON bytes plus strong ETags).
+ * Popular pages are serialized once per snapshot instead of once per request.
+ *
+ * Entries belong to a "generation" tied to one snapshot version. The first lookup against a newer
+ * snapshot swaps in a fresh generation, so a response from an older snapshot can never be served.
+ */
+@Component
+public class PageResponseCache {
+
+    /** Larger pages are encoded on every request rather than pinned in the cache. */
+    static final int MAX_CACHEABLE_PAGE_SIZE = 100;
+
+    private final ObjectMapper objectMapper;
+    private final int maxEntries;
+    private final AtomicReference<Generation> current;
+
+    public PageResponseCache(ObjectMapper objectMapper,
+                             @Value("${partners.page-cache.max-entries:256}") int maxEntries) {
+        this.objectMapper = objectMapper;
+        this.maxEntries = maxEntries;
+        this.current = new AtomicReference<>(new Generation(PartnerSnapshot.EMPTY.version(), maxEntries));
+    }
+
+    /** Cache key of one page request. */
+    public record PageKey(int page, int size, FacetFilter filter, SortOrder sort) {}
+
+    /** A response body encoded once, in both representations, with a strong ETag for each. */
+    public record EncodedResponse(byte[] json, byte[] gzip, String etag, String gzipEtag) {}
+
+    /**
+     * Returns the encoded response for {@code key} in {@code snapshot}, serializing the value
+     * produced by {@code loader} only on a cache miss.
+     */
+    public EncodedResponse get(PartnerSnapshot snapshot, PageKey key, Supplier<?> loader) {
+        if (key.size() > MAX_CACHEABLE_PAGE_SIZE) {
+            return encode(loader.get());
+        }
+
+        Generation generation = generationFor(snapshot.version());
+        EncodedResponse cached = generation.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        // Encode outside the lock; two racing misses simply produce identical bytes
+        EncodedResponse encoded = encode(loader.get());
+        generation.put(key, encoded);
+        return encoded;
+    }
+
+    /** Number of cached entries in the current generation. */
+    public int size() {
+        return current.get().size();
+    }
+
+    private Generation generationFor(long version) {
+        while (true) {
+            Generation generation = current.get();
+            if (generation.version == version) {
+                return generation;
+            }
+            if (version < generation.version) {
+                // A request still holding an older snapshot: serve it from a throwaway generation
+                return new Generation(version, maxEntries);
+            }
+            Generation next = new Generation(version, maxEntries);
+            if (current.compareAndSet(generation, next)) {
+                return next;
+            }
+        }
+    }
+
+    private EncodedResponse encode(Object value) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(value);
+            byte[] gzip = gzip(json);
+            String hash = DigestUtils.md5DigestAsHex(json);
+            return new EncodedResponse(json, gzip, "\"" + hash + "\"", "\"" + hash + "-gzip\"");
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize response", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /** Bounded LRU map of encoded responses for a single snapshot version. */
+    private static final class Generation {
+
+        private final long version;
+        private final Map<PageKey, EncodedResponse> entries;
+
+        Generation(long version, int maxEntries) {
+            this.version = version;
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<PageKey, EncodedResponse> eldest) {
+                    return size() > maxEntries;
+                }
+            };
+        }
+
+        synchronized EncodedResponse get(PageKey key) {
+            return entries.get(key);
+        }
+
+        synchronized void put(PageKey key, EncodedResponse value) {
+            entries.put(key, value);
+        }
+
+        synchronized int size() {
+            return entries.size();
+        }
+    }
+}
@@ -1,242 +1,517 @@
 package com.opentext.partners.service;
 
+import com.opentext.partners.cluster.SnapshotDistribution;
+import com.opentext.partners.config.UpstreamProperties;
+import com.opentext.partners.exception.IncompleteFetchException;
+import com.opentext.partners.exception.StaleCursorException;
+import com.opentext.partners.fetch.FetchResult;
+import com.opentext.partners.fetch.PaginatedFetcher;
+import com.opentext.partners.fetch.UpstreamSource;
+import com.opentext.partners.join.MatchStats;
+import com.opentext.partners.join.NameMatcher;
+import com.opentext.partners.metrics.PartnerMetrics;
+import com.opentext.partners.model.CursorPage;
 import com.opentext.partners.model.JoinedPartnerDto.PartnerSolution;
-import com.opentext.partners.model.JoinedPartnerDto.Solution;
-import com.opentext.partners.model.PartnerModels.PartnerDirectoryRoot;
 import com.opentext.partners.model.PartnerModels.RawPartner;
 import com.opentext.partners.model.SolutionModels.RawSolution;
-import com.opentext.partners.model.SolutionModels.SolutionCatalogRoot;
+import com.opentext.partners.sanitizer.HtmlSanitizer;
+import com.opentext.partners.service.IncrementalJoiner.JoinResult;
+import com.opentext.partners.snapshot.FacetFilter;
+import com.opentext.partners.snapshot.FacetIndex.FacetCounts;
+import com.opentext.partners.snapshot.FetchedBatch;
+import com.opentext.partners.snapshot.PageCursor;
+import com.opentext.partners.snapshot.PartnerSnapshot;
+import com.opentext.partners.snapshot.SnapshotCodec;
+import com.opentext.partners.snapshot.SnapshotFile;
+import com.opentext.partners.snapshot.SnapshotStorage;
+import com.opentext.partners.snapshot.SortOrder;
 import jakarta.annotation.PostConstruct;
-import org.springframework.cache.annotation.CachePut;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 import lombok.extern.slf4j.Slf4j;
 
+import java.io.IOException;
+import java.nio.file.Files;
 import java.util.*;
-import java.util.stream.Collectors;
 import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Slf4j
 @Service
 public class PartnerService {
 
     /**
-     * Partner and Solution data source URLs.
-     * Support pagination via the 'max' parameter.
+     * Partner and Solution data sources (partners.upstream.base-url, partners-path, solutions-path).
+     * Support pagination via the 'start' and 'max' parameters.
      */
-    private static final String PARTNERS_URL_TEMPLATE =
-            "https://www.opentext.com/en/partners/partners-directory-overview/1716790338234.ajax?q=&start=%d&max=%d&sorter=Default_Sort";
-    private static final String SOLUTIONS_URL_TEMPLATE =
-            "https://www.opentext.com/en/partners/ApplicationMarketplace/1754971906819.ajax?q=&start=%d&max=%d&sorter=Name";
+    private final UpstreamSource<RawPartner> partnersSource;
+    private final UpstreamSource<RawSolution> solutionsSource;
 
-    private static final int BATCH_SIZE = 200; // Fetch in manageable batches
-
-    private static final Duration API_TIMEOUT = Duration.ofSeconds(50);
-
-    private final WebClient webClient;
+    /** Batched, rate-limited and retrying crawler shared by both sources (batch size, concurrency: partners.upstream.*) */
+    private final PaginatedFetcher fetcher;
 
     /**
-     * Cached in-memory Data: joined partner-solution data. Ensures thread-safe.
-     * volatile ensures that changes made by one thread (the refresh thread) are immediately visible to others
+     * Cached in-memory Data: immutable snapshot of the joined partner-solution data with precomputed filter views.
+     * volatile ensures that a snapshot published by the refresh thread is immediately visible to others
      * */
-    private volatile List<PartnerSolution> joinedPartnersCache = Collections.emptyList();
-
-    public PartnerService(WebClient.Builder webClientBuilder) {
-        this.webClient = webClientBuilder.build();
+    private volatile PartnerSnapshot snapshot = PartnerSnapshot.EMPTY;
+
+    private final AtomicLong snapshotVersion = new AtomicLong();
+
+    /** Recently published snapshots, newest first, so cursor walks survive a refresh (partners.snapshot.history) */
+    private volatile List<PartnerSnapshot> recentSnapshots = List.of();
+    private final int snapshotHistory;
+
+    /** Outcome of the last completed refresh; null until one completes */
+    private volatile RefreshReport lastRefresh;
+    private volatile Instant lastFailureAt;
+    private volatile String lastFailure;
+
+    /** Where published snapshots are saved for warm restarts (partners.snapshot.file) */
+    private final SnapshotFile snapshotFile;
+
+    /** Shared L2 tier and crawl lock across replicas (partners.cluster.mode) */
+    private final SnapshotDistribution distribution;
+    private final Duration crawlLockTtl;
+    private final Duration refreshMinInterval;
+
+    /** Version of the last snapshot this node built from its own join; the joiner's "unchanged" refers to it */
+    private long joinedVersion = -1;
+
+    /** Collapses concurrent refresh triggers into one in-flight refresh (partners.refresh.min-interval) */
+    private final RefreshCoordinator coordinator;
+
+    /** Keeps the previous join so each refresh only re-joins partners that changed */
+    private final IncrementalJoiner joiner;
+
+    /** In-memory layout of published snapshots (partners.snapshot.storage) */
+    private final SnapshotStorage storage;
+
+    /** Decides which partner each Solution.partnerName belongs to (partners.join.mode) */
+    private final NameMatcher nameMatcher;
+
+    /** Dedicated ForkJoin pool the join and snapshot build run on (partners.join.parallelism) */
+    private final Scheduler joinScheduler;
+
+    /** Blocking stages: snapshot file and shared tier (partners.refresh.io-concurrency, virtual threads if enabled) */
+    private final Scheduler ioScheduler;
+
+    /** Refresh, join and snapshot meters (/actuator/prometheus) */
+    private final PartnerMetrics metrics;
+
+    /** Tells /api/partners/changes subscribers what each published snapshot changed */
+    private final SnapshotChangeFeed changeFeed;
+
+    public PartnerService(PaginatedFetcher fetcher, UpstreamProperties upstream, HtmlSanitizer sanitizer, NameMatcher nameMatcher,
+                          SnapshotStorage storage, SnapshotFile snapshotFile, SnapshotDistribution distribution,
+                          Scheduler joinScheduler, Scheduler ioScheduler, PartnerMetrics metrics, SnapshotChangeFeed changeFeed,
+                          @Value("${partners.snapshot.history:4}") int snapshotHistory,
+                          @Value("${partners.refresh.min-interval:30s}") Duration refreshMinInterval,
+                          @Value("${partners.cluster.crawl-lock-ttl:10m}") Duration crawlLockTtl) {
+        this.fetcher = fetcher;
+        this.partnersSource = new UpstreamSource<>("partners", upstream.partnersUrlTemplate(),
+                "Partners", "Partner", RawPartner.class, RawPartner::contentHash);
+        this.solutionsSource = new UpstreamSource<>("solutions", upstream.solutionsUrlTemplate(),
+                "Solutions", "Solution", RawSolution.class, RawSolution::contentHash);
+        this.joinScheduler = joinScheduler;
+        this.ioScheduler = ioScheduler;
+        this.metrics = metrics;
+        this.changeFeed = changeFeed;
+        this.nameMatcher = nameMatcher;
+        this.joiner = new IncrementalJoiner(sanitizer, nameMatcher);
+        this.storage = storage;
+        this.snapshotFile = snapshotFile;
+        this.distribution = distribution;
+        this.crawlLockTtl = crawlLockTtl;
+        this.refreshMinInterval = refreshMinInterval;
+        this.snapshotHistory = Math.max(1, snapshotHistory);
+        this.coordinator = new RefreshCoordinator(refreshMinInterval, this::refreshPartnerSolutionData);
+        distribution.onPublished(this::onRemotePublished);
     }
 
-    /** Runs once after startup to initialize cache */
+    /** Runs once after startup: serves the saved or shared snapshot, if any, while the first refresh runs */
     @PostConstruct
     public void loadAndJoinData() {
-        refreshPartnerSolutionData();
+        logJoinAssumptions();
+        restoreSnapshot();
+        pullSharedSnapshot();
+        requestRefresh("startup");
     }
 
     /** Scheduled refresh : The task will run every 3rd minute*/
     @Scheduled(cron = "0 */3 * * * *")
     public void scheduledDataRefresh() {
         log.info("Scheduled partner-solution data refresh triggered...");
-        refreshPartnerSolutionData();
+        requestRefresh("schedule");
     }
 
-    /** Refreshes the partner-solution cache */
-    private void refreshPartnerSolutionData() {
-        log.info("Starting data load & join process...");
+    /**
+     * Starts a refresh unless one is already running (the trigger is folded into it) or the last
+     * one started less than partners.refresh.min-interval ago.
+     */
+    public RefreshCoordinator.Outcome requestRefresh(String trigger) {
+        RefreshCoordinator.Outcome outcome = coordinator.trigger();
+        log.info("Refresh requested by {}: {}", trigger, outcome);
+        return outcome;
+    }
 
-        Mono<List<RawPartner>> partnersMono = fetchAllPartners();
-        Mono<List<RawSolution>> solutionsMono = fetchAllSolutions();
+    /** Cancels the refresh in flight; returns false when none was running */
+    public boolean cancelRefresh() {
+        boolean cancelled = coordinator.cancel();
+        if (cancelled) {
+            log.warn("Refresh cancelled, keeping snapshot v{} ({} partners).", snapshot.version(), snapshot.size());
+            this.lastFailureAt = Instant.now();
+            this.lastFailure = "Cancelled";
+            metrics.refresh("cancelled");
+        }
+        return cancelled;
+    }
 
-        Mono.zip(partnersMono, solutionsMono)
-                .map(tuple -> joinPartnerAndSolution(tuple.getT1(), tuple.getT2()))
+    /**
+     * Refreshes the partner-solution cache; only ever called by the coordinator. With a shared tier,
+     * only the node holding the crawl lock crawls, and not at all if the shared snapshot is fresh.
+     * The claim talks to the shared tier, so it runs on the I/O scheduler as the first stage of the
+     * pipeline: the coordinator, and whoever triggered the refresh, never wait for it.
+     */
+    private Disposable refreshPartnerSolutionData(long generation) {
+        return Mono.fromCallable(this::claimCrawl)
+                .subscribeOn(ioScheduler)
+                .flatMap(claimed -> claimed ? crawl(generation) : pullShared())
+                .doFinally(signal -> coordinator.finished(generation))
                 .subscribe(
-                        joinedList -> {
-                            this.joinedPartnersCache = joinedList;
-                            log.info("Cached {} joined partners successfully.", joinedList.size());
+                        report -> {
+                            this.lastRefresh = report;
+                            log.info("Refresh finished in {} ms (partners: {} records/{} requests/{} not modified at max={}, solutions: {} records/{} requests/{} not modified at max={}).",
+                                    report.duration().toMillis(),
+                                    report.partners().records(), report.partners().requests(), report.partners().notModified(), report.partners().batchSize(),
+                                    report.solutions().records(), report.solutions().requests(), report.solutions().notModified(), report.solutions().batchSize());
                         },
-                        error -> log.error("Failed to refresh partner/solution data!", error)
+                        this::onRefreshFailed
                 );
     }
 
-    /** Joins partners with solutions (case-insensitive) */
-    private List<PartnerSolution> joinPartnerAndSolution(List<RawPartner> partners, List<RawSolution> solutions) {
-        log.info("Joining {} partners with {} solutions...", partners.size(), solutions.size());
+    /** Another node crawls, or recently did: serve its snapshot instead */
+    private Mono<RefreshReport> pullShared() {
+        return Mono.fromCallable(distribution::fetch)
+                .subscribeOn(ioScheduler)
+                .publishOn(joinScheduler)
+                .doOnNext(shared -> shared.ifPresent(this::adopt))
+                .then(Mono.empty());
+    }
 
-        // --- ASSUMPTIONS ---
-        log.info("JOIN ASSUMPTIONS:");
-        log.info("1. Join key: Partner.name ↔ Solution.partnerName (case-insensitive).");
-        log.info("2. A partner can have zero, one, or multiple solutions.");
-        log.info("3. Null or blank names are ignored in joining.");
-        log.info("4. Solutions without valid partnerName remain unlinked.");
-        log.info("5. The joined data is cached in-memory for API pagination.");
+    /** Crawls both sources, joins and publishes; the crawl lock is released when it is over */
+    private Mono<RefreshReport> crawl(long generation) {
+        log.info("Starting data load & join process...");
 
-        Map<String, List<RawSolution>> solutionsByPartner = solutions.stream()
-                .filter(s -> s.partnerName() != null && !s.partnerName().isBlank())
-                .collect(Collectors.groupingBy(s -> s.partnerName().toLowerCase(Locale.ROOT)));
-
-        return partners.stream()
-                .map(partner -> {
-                    String partnerKey = partner.name() != null ? partner.name().toLowerCase(Locale.ROOT) : "";
-                    List<Solution> partnerSolutions = solutionsByPartner
-                            .getOrDefault(partnerKey, Collections.emptyList())
-                            .stream()
-                            .map(raw -> new Solution(raw.displayName(), raw.shortDescription()))
-                            .toList();
-
-                    return new PartnerSolution(
-                            partner.name(),
-                            partner.id(),
-                            partner.partnerLevel(),
-                            partner.partnerType(),
-                            partner.shortDescription(),
-                            partner.companyOverview(),
-                            partnerSolutions
-                    );
+        Instant startedAt = Instant.now();
+        long startNanos = System.nanoTime();
+
+        Mono<FetchResult<RawPartner>> partnersMono = fetcher.fetchAll(partnersSource);
+        Mono<FetchResult<RawSolution>> solutionsMono = fetcher.fetchAll(solutionsSource);
+
+        return Mono.zip(partnersMono, solutionsMono)
+                // Leave the event loop that delivered the last page; the join is CPU-bound
+                .publishOn(joinScheduler)
+                // A refresh cancelled while its last page was in flight must not start joining
+                .filter(tuple -> coordinator.isCurrent(generation))
+                .flatMap(tuple -> {
+                    JoinResult joined;
+                    boolean published;
+                    PartnerSnapshot current;
+                    // The joiner keeps state between refreshes, so a cancelled join and its successor must not interleave
+                    synchronized (joiner) {
+                        long joinNanos = System.nanoTime();
+                        joined = joinPartnerAndSolution(tuple.getT1().batches(), tuple.getT2().batches());
+                        metrics.joined(Duration.ofNanos(System.nanoTime() - joinNanos), joined.matches());
+                        published = publish(joined);
+                        current = snapshot;
+                    }
+                    metrics.refresh(published ? "published" : "unchanged");
+                    // The crawl lock is held until the snapshot is shared, so no other node crawls meanwhile
+                    Mono<Void> persisted = published ? persist(current, true) : Mono.empty();
+                    return persisted.then(Mono.fromSupplier(() -> new RefreshReport(startedAt,
+                            Duration.ofNanos(System.nanoTime() - startNanos), tuple.getT1().stats(), tuple.getT2().stats(),
+                            joined.rebuilt(), joined.reused(), joined.matches(), current.version(), published)));
                 })
-                .toList();
+                // Off the caller's thread: a cancel disposes this pipeline while holding the coordinator's lock
+                .doFinally(signal -> Mono.fromRunnable(this::releaseCrawl)
+                        .subscribeOn(ioScheduler)
+                        .onErrorComplete()
+                        .subscribe());
     }
 
-    /** Fetches all partners with batched pagination
-     * Mono: represents a single asynchronous result (list of partners/solutions).
-     * Flux: represents multiple asynchronous streams (used to combine batches).
-     * */
-    private Mono<List<RawPartner>> fetchAllPartners() {
-        String initialUrl = String.format(PARTNERS_URL_TEMPLATE, 0, 1);
-        return webClient.get().uri(initialUrl)
-                .retrieve()
-                .bodyToMono(PartnerDirectoryRoot.class).timeout(API_TIMEOUT)
-                .flatMap(initial -> {
-                    int total = safeParseInt(initial.total());
-                    if (total == 0) return Mono.just(Collections.<RawPartner>emptyList());
-
-                    List<Mono<List<RawPartner>>> batchMonos = new ArrayList<>();
-                    for (int start = 0; start < total; start += BATCH_SIZE) {
-                        String url = String.format(PARTNERS_URL_TEMPLATE, start, BATCH_SIZE);
-//                        log.info("Partner: Fetch data start: {} and the url: {}", start, url);
-                        Mono<List<RawPartner>> batchMono = webClient.get()
-                                .uri(url)
-                                .retrieve()
-                                .bodyToMono(PartnerDirectoryRoot.class)
-                                .map(PartnerDirectoryRoot::getAllPartners)
-                                .onErrorReturn(Collections.<RawPartner>emptyList());
-                        batchMonos.add(batchMono);
-                    }
+    /** Publishes a new snapshot, unless the join produced exactly the data already being served */
+    private boolean publish(JoinResult result) {
+        // "Unchanged" compares with this node's last join, which is only what we serve if no peer published since
+        if (result.unchanged() && snapshot != PartnerSnapshot.EMPTY && snapshot.version() == joinedVersion) {
+            log.info("Upstream data unchanged; keeping snapshot v{} ({} partners).", snapshot.version(), snapshot.size());
+            return false;
+        }
+        PartnerSnapshot next = storage.build(snapshotVersion.incrementAndGet(), result.partners());
+        // Let the next join reuse rows from the published layout rather than pinning the joined objects
+        joiner.retain(next.all());
+        this.joinedVersion = next.version();
+        install(next);
+        log.info("Cached {} joined partners successfully ({} with solutions, snapshot v{}; {} re-joined, {} reused).",
+                next.size(), next.withSolutions().size(), next.version(), result.rebuilt(), result.reused());
+        MatchStats matches = result.matches();
+        log.info("Solution owners ({} matching): {} exact, {} canonical, {} fuzzy, {} unmatched of {} names.",
+                matches.matcher(), matches.exact(), matches.canonical(), matches.fuzzy(),
+                matches.unmatched(), matches.solutionNames());
+        return true;
+    }
 
-                    // Merge batches type-safely
-                    return Flux.fromIterable(batchMonos)
-                            .flatMap(batch -> batch.flatMapMany(Flux::fromIterable))
-                            .collectList();
-                })
-                .onErrorReturn(Collections.<RawPartner>emptyList());
+    /** Makes {@code next} the snapshot being served, keeping the previous ones for cursor walks */
+    private void install(PartnerSnapshot next) {
+        List<PartnerSnapshot> recent = new ArrayList<>(snapshotHistory);
+        recent.add(next);
+        recentSnapshots.stream().limit(snapshotHistory - 1L).forEach(recent::add);
+        this.recentSnapshots = List.copyOf(recent);
+        PartnerSnapshot previous = this.snapshot;
+        this.snapshot = next;
+        metrics.serving(next);
+        changeFeed.published(previous, next);
     }
 
-    /** Fetches all solutions with batched pagination
-     * Mono: represents a single asynchronous result (list of partners/solutions).
-     * Flux: represents multiple asynchronous streams (used to combine batches).
-     * */
-    private Mono<List<RawSolution>> fetchAllSolutions() {
-        String initialUrl = String.format(SOLUTIONS_URL_TEMPLATE, 0, 1);
-        return webClient.get().uri(initialUrl)
-                .retrieve()
-                .bodyToMono(SolutionCatalogRoot.class).timeout(API_TIMEOUT)
-                .flatMap(initial -> {
-                    int total = safeParseInt(initial.total());
-                    if (total == 0) return Mono.just(Collections.<RawSolution>emptyList());
-
-                    List<Mono<List<RawSolution>>> batchMonos = new ArrayList<>();
-                    for (int start = 0; start < total; start += BATCH_SIZE) {
-                        String url = String.format(SOLUTIONS_URL_TEMPLATE, start, BATCH_SIZE);
-//                        log.info("Solution: Fetch data start: {} and the url: {}", start, url);
-                        Mono<List<RawSolution>> batchMono = webClient.get()
-                                .uri(url)
-                                .retrieve()
-                                .bodyToMono(SolutionCatalogRoot.class)
-                                .map(SolutionCatalogRoot::getAllSolutions)
-                                .onErrorReturn(Collections.<RawSolution>emptyList());
-                        batchMonos.add(batchMono);
-                    }
+    /**
+     * Claims the crawl for this node. False when another node holds the claim, or published a snapshot
+     * less than partners.refresh.min-interval ago. If the shared tier is unreachable, crawls locally.
+     */
+    private boolean claimCrawl() {
+        try {
+            if (!distribution.tryAcquireCrawl(crawlLockTtl)) {
+                log.info("Another node is crawling; waiting for its snapshot ({}).", distribution.name());
+                return false;
+            }
+            Optional<SnapshotCodec.Header> shared = distribution.latest();
+            if (shared.isPresent()) {
+                // Our next version must be newer than anything any node has published
+                snapshotVersion.accumulateAndGet(shared.get().version(), Math::max);
+                if (shared.get().createdAt().isAfter(Instant.now().minus(refreshMinInterval))) {
+                    log.info("Shared snapshot v{} was published at {}; skipping the crawl.",
+                            shared.get().version(), shared.get().createdAt());
+                    distribution.releaseCrawl();
+                    return false;
+                }
+            }
+            return true;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Shared snapshot tier ({}) unavailable, crawling locally: {}", distribution.name(), e.getMessage());
+            return true;
+        }
+    }
 
-                    return Flux.fromIterable(batchMonos)
-                            .flatMap(batch -> batch.flatMapMany(Flux::fromIterable))
-                            .collectList();
-                })
-                .onErrorReturn(Collections.<RawSolution>emptyList());
+    private void releaseCrawl() {
+        try {
+            distribution.releaseCrawl();
+        } catch (RuntimeException e) {
+            log.warn("Could not release the crawl lock ({}); it expires after {}: {}",
+                    distribution.name(), crawlLockTtl, e.getMessage());
+        }
+    }
+
+    /** Stores a snapshot this node built in the shared tier and notifies the other nodes */
+    private void shareSnapshot(PartnerSnapshot published) {
+        try {
+            distribution.publish(published);
+        } catch (RuntimeException e) {
+            log.warn("Could not share snapshot v{} ({}): {}", published.version(), distribution.name(), e.getMessage());
+        }
+    }
+
+    /** Another node published a snapshot: pull it unless we already serve that version or a newer one */
+    private void onRemotePublished(long version) {
+        if (version <= snapshot.version()) return;
+        log.info("Snapshot v{} announced by another node; pulling it ({}).", version, distribution.name());
+        Mono.fromCallable(distribution::fetch)
+                .subscribeOn(ioScheduler)
+                .publishOn(joinScheduler)
+                .subscribe(shared -> shared.ifPresent(this::adopt),
+                        error -> log.warn("Could not pull snapshot v{}: {}", version, error.getMessage()));
+    }
+
+    /** Serves a snapshot another node built, if it is newer than ours */
+    private void adopt(SnapshotCodec.Decoded shared) {
+        if (shared.version() <= snapshot.version()) return;
+        long startNanos = System.nanoTime();
+        PartnerSnapshot adopted = storage.build(shared.version(), shared.store().all());
+        synchronized (joiner) {
+            if (adopted.version() <= snapshot.version()) return;
+            snapshotVersion.accumulateAndGet(adopted.version(), Math::max);
+            install(adopted);
+        }
+        log.info("Adopted shared snapshot v{} ({} partners) in {} ms.", adopted.version(), adopted.size(),
+                Duration.ofNanos(System.nanoTime() - startNanos).toMillis());
+        persist(adopted, false).subscribe();
     }
 
-    /** Safe parsing of integer 'total' fields */
-    private int safeParseInt(String value) {
+    /** Serves the snapshot saved by the previous run until the first refresh publishes a new one */
+    private void restoreSnapshot() {
+        if (!snapshotFile.isEnabled()) return;
+        long startNanos = System.nanoTime();
         try {
-            return Integer.parseInt(value);
-        } catch (Exception e) {
-            log.warn("Invalid total value '{}', defaulting to 0", value);
-            return 0;
+            Optional<SnapshotCodec.Decoded> loaded = snapshotFile.load();
+            if (loaded.isEmpty()) {
+                log.info("No saved snapshot at {}; serving an empty directory until the first refresh.", snapshotFile.path());
+                return;
+            }
+            SnapshotCodec.Decoded saved = loaded.get();
+            PartnerSnapshot restored = storage.build(saved.version(), saved.store().all());
+            snapshotVersion.set(saved.version());
+            install(restored);
+            metrics.encoded(restored, Files.size(snapshotFile.path()));
+            log.info("Restored snapshot v{} ({} partners, published {}) from {} in {} ms.",
+                    restored.version(), restored.size(), saved.createdAt(), snapshotFile.path(),
+                    Duration.ofNanos(System.nanoTime() - startNanos).toMillis());
+        } catch (IOException | RuntimeException e) {
+            log.warn("Ignoring saved snapshot {}: {}", snapshotFile.path(), e.getMessage());
+        }
+    }
+
+    /** Adopts the shared snapshot if it is newer than the restored one */
+    private void pullSharedSnapshot() {
+        try {
+            distribution.fetch().ifPresent(this::adopt);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not pull the shared snapshot ({}): {}", distribution.name(), e.getMessage());
         }
     }
 
     /**
-     * Example: Redis Caching (Commented out)
-     * Redis is useful for fast, distributed, in-memory caching to reduce API/db load
-     * and provide low-latency access to frequently used data.
-     *
-     * If we wanted to cache the joined partners in Redis:
-     *
-     * @Cacheable(value = "joinedPartners")
-     * public List<PartnerSolution> getJoinedPartners() {
-     *     return List.copyOf(this.joinedPartnersCache);
-     * }
-     *
-     * To refresh the cache whenever data updates (every 3 minutes in our scheduler):
-     *
-     * @CachePut(value = "joinedPartners", unless = "#result == null")
-     * private List<PartnerSolution> refreshCache(List<PartnerSolution> updatedList) {
-     *     return updatedList;
-     * }
-     *
-     * Note: We are not using Redis now, as our in-memory volatile list is sufficient for this use case.
+     * The blocking stages after publishing, on the I/O scheduler: saving the snapshot file and, for
+     * snapshots this node built, sharing it. Failures are logged, never propagated.
      */
+    private Mono<Void> persist(PartnerSnapshot published, boolean share) {
+        return Mono.<Void>fromRunnable(() -> {
+                    saveSnapshot(published);
+                    if (share) shareSnapshot(published);
+                })
+                .subscribeOn(ioScheduler);
+    }
+
+    /** Saves a published snapshot for the next startup; failing to save never fails the refresh */
+    private void saveSnapshot(PartnerSnapshot published) {
+        if (!snapshotFile.isEnabled()) return;
+        long startNanos = System.nanoTime();
+        try {
+            metrics.encoded(published, snapshotFile.save(published));
+            log.info("Saved snapshot v{} to {} in {} ms.", published.version(), snapshotFile.path(),
+                    Duration.ofNanos(System.nanoTime() - startNanos).toMillis());
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not save snapshot v{} to {}: {}", published.version(), snapshotFile.path(), e.getMessage());
+        }
+    }
+
+    /** A failed or incomplete refresh never replaces the snapshot being served */
+    private void onRefreshFailed(Throwable error) {
+        metrics.refresh("failed");
+        this.lastFailureAt = Instant.now();
+        this.lastFailure = error.getMessage() != null ? error.getMessage() : error.getClass().getSimpleName();
+        if (error instanceof IncompleteFetchException) {
+            log.warn("Refresh incomplete, keeping snapshot v{} ({} partners): {}",
+                    snapshot.version(), snapshot.size(), error.getMessage());
+        } else {
+            log.error("Failed to refresh partner/solution data!", error);
+        }
+    }
+
+    /** Joins partners with solutions (see partners.join.mode), re-joining only partners that changed */
+    private JoinResult joinPartnerAndSolution(List<FetchedBatch<RawPartner>> partnerBatches,
+                                              List<FetchedBatch<RawSolution>> solutionBatches) {
+        log.info("Joining {} partner batches with {} solution batches...", partnerBatches.size(), solutionBatches.size());
+        return joiner.join(partnerBatches, solutionBatches);
+    }
+
+    /** The join's ground rules; they never change at runtime, so they are logged once at startup */
+    private void logJoinAssumptions() {
+        log.info("JOIN ASSUMPTIONS:");
+        log.info("1. Join key: Partner.name ↔ Solution.partnerName (case-insensitive, '{}' matching).", nameMatcher.name());
+        log.info("2. A partner can have zero, one, or multiple solutions.");
+        log.info("3. Null or blank names are ignored in joining.");
+        log.info("4. Solutions without valid partnerName remain unlinked.");
+        log.info("5. The joined data is cached in-memory for API pagination.");
+    }
+
+    /** Returns the currently published snapshot */
+    public PartnerSnapshot getSnapshot() {
+        return this.snapshot;
+    }
 
-    /** Returns cached joined partners */
+    /** Returns the report of the last completed refresh, or null before the first one */
+    public RefreshReport getLastRefresh() {
+        return this.lastRefresh;
+    }
+
+    /** Returns whether a refresh is running, when the next may start and how the last ones went */
+    public RefreshStatus getRefreshStatus() {
+        RefreshCoordinator.State state = coordinator.state();
+        RefreshReport report = this.lastRefresh;
+        PartnerSnapshot current = this.snapshot;
+        return new RefreshStatus(state.running(), state.runningSince(), state.collapsedTriggers(), state.nextAllowedAt(),
+                report != null ? report.startedAt().plus(report.duration()) : null,
+                current.version(), current.size(), lastFailureAt, lastFailure, report);
+    }
+
+    /** Returns cached joined partners (the snapshot list is already immutable, so no copy is needed) */
     public List<PartnerSolution> getJoinedPartners() {
-        return List.copyOf(this.joinedPartnersCache);
+        return this.snapshot.all();
+    }
+
+    /**
+     * Streams the joined partners of the snapshot current at subscription, emitting only as many as
+     * the subscriber requests; a refresh during the stream does not change what it emits.
+     */
+    public Flux<PartnerSolution> streamJoinedPartners() {
+        return Flux.defer(() -> Flux.fromIterable(snapshot.all()));
     }
 
     /** Returns paginated partners with optional filtering for those with solutions */
     public Page<PartnerSolution> getPartners(Pageable pageable, boolean hasSolutions) {
-        List<PartnerSolution> filtered = joinedPartnersCache.stream()
-                .filter(p -> !hasSolutions || (p.solutions() != null && !p.solutions().isEmpty()))
-                .toList();
+        return this.snapshot.page(pageable, hasSolutions);
+    }
+
+    /** Returns paginated partners filtered by level, type and solution presence */
+    public Page<PartnerSolution> getPartners(Pageable pageable, FacetFilter filter) {
+        return this.snapshot.page(pageable, filter);
+    }
+
+    /** Returns partner counts per level, type and solution presence under a filter */
+    public FacetCounts getFacetCounts(FacetFilter filter) {
+        return this.snapshot.facets().counts(filter);
+    }
 
-        int total = filtered.size();
-        int start = (int) pageable.getOffset();
-        int end = Math.min(start + pageable.getPageSize(), total);
+    /** Returns paginated partners filtered by level, type and solution presence, in the requested order */
+    public Page<PartnerSolution> getPartners(Pageable pageable, FacetFilter filter, SortOrder sort) {
+        return this.snapshot.page(pageable, filter, sort);
+    }
 
-        if (start >= total) return Page.empty(pageable);
+    /**
+     * Returns one page of a cursor walk. Without a cursor a new walk starts on the current snapshot;
+     * with one, the walk continues on the snapshot it started on as long as that is still retained.
+     */
+    public CursorPage<PartnerSolution> scrollPartners(String cursor, FacetFilter filter, SortOrder sort, int size) {
+        if (cursor == null || cursor.isBlank()) {
+            PartnerSnapshot current = this.snapshot;
+            return current.scroll(PageCursor.first(current.version(), sort, filter), size);
+        }
+        PageCursor position = PageCursor.decode(cursor);
+        PartnerSnapshot origin = recentSnapshots.stream()
+                .filter(s -> s.version() == position.version())
+                .findFirst()
+                .orElseThrow(() -> new StaleCursorException(position.version()));
+        return origin.scroll(position, size);
+    }
 
-        return new PageImpl<>(filtered.subList(start, end), pageable, total);
+    /** Returns one page of partners matching a full-text query, ranked by relevance */
+    public Page<PartnerSolution> searchPartners(String query, Pageable pageable) {
+        return this.snapshot.search(query, pageable);
     }
 }
@@ -0,0 +1,100 @@
+package com.opentext.partners.service;
+
+import reactor.core.Disposable;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.function.LongFunction;
+
+/**
+ * Single-flight gate in front of the refresh pipeline: at most one refresh runs at a time,
+ * triggers arriving while one runs are collapsed into it, and a new refresh starts no sooner than
+ * partners.refresh.min-interval after the previous one started.
+ *
+ * Every started refresh gets a generation number, which it hands back to {@link #finished} when
+ * it completes, fails or is cancelled; a late callback of a cancelled generation is ignored.
+ */
+public final class RefreshCoordinator {
+
+    /** What became of a trigger. */
+    public enum Outcome { STARTED, IN_FLIGHT, THROTTLED }
+
+    /** Coordinator state for the status API. */
+    record State(boolean running, Instant runningSince, int collapsedTriggers, Instant nextAllowedAt) {}
+
+    private final Duration minInterval;
+    private final LongFunction<Disposable> refresh;
+
+    private long generation;
+    private boolean running;
+    private Disposable inFlight;
+    private Instant startedAt;
+    private long startedNanos;
+    private int collapsed;
+
+    /**
+     * @param minInterval Minimum time between the starts of two refreshes.
+     * @param refresh     Starts a refresh of the given generation and returns its subscription. Runs
+     *                    under this coordinator's lock, so it must only assemble and subscribe the
+     *                    pipeline; anything that waits on I/O belongs inside it.
+     */
+    RefreshCoordinator(Duration minInterval, LongFunction<Disposable> refresh) {
+        this.minInterval = minInterval;
+        this.refresh = refresh;
+    }
+
+    synchronized Outcome trigger() {
+        if (running) {
+            collapsed++;
+            return Outcome.IN_FLIGHT;
+        }
+        long now = System.nanoTime();
+        if (startedAt != null && now - startedNanos < minInterval.toNanos()) {
+            return Outcome.THROTTLED;
+        }
+        long current = ++generation;
+        running = true;
+        collapsed = 0;
+        startedAt = Instant.now();
+        startedNanos = now;
+        // A refresh that completes synchronously has already called finished(current) here
+        Disposable subscription = refresh.apply(current);
+        if (running && generation == current) {
+            inFlight = subscription;
+        }
+        return Outcome.STARTED;
+    }
+
+    /** Called by the refresh of {@code generation} once it is over, successfully or not. */
+    synchronized void finished(long generation) {
+        if (generation == this.generation) {
+            running = false;
+            inFlight = null;
+        }
+    }
+
+    /**
+     * Cancels the refresh in flight, if any. The upstream crawl stops at once; a join that already
+     * started runs to completion and publishes, since the joiner's state has moved on with it.
+     */
+    synchronized boolean cancel() {
+        if (!running) return false;
+        Disposable subscription = inFlight;
+        // Bumping the generation turns the cancelled refresh's own finished() into a no-op
+        generation++;
+        running = false;
+        inFlight = null;
+        if (subscription != null) subscription.dispose();
+        return true;
+    }
+
+    /** False once the refresh of {@code generation} was cancelled or superseded. */
+    synchronized boolean isCurrent(long generation) {
+        return running && generation == this.generation;
+    }
+
+    synchronized State state() {
+        Instant nextAllowedAt = startedAt != null ? startedAt.plus(minInterval) : null;
+        return new State(running, running ? startedAt : null, collapsed, nextAllowedAt);
+    }
+}
@@ -0,0 +1,32 @@
+package com.opentext.partners.service;
+
+import com.opentext.partners.fetch.FetchResult.FetchStats;
+import com.opentext.partners.join.MatchStats;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Summary of the last completed refresh, exposed via {@code /api/refresh/status}.
+ *
+ * @param startedAt       When the refresh started.
+ * @param duration        Wall time from start until the snapshot was published (or kept).
+ * @param partners        Crawl statistics of the partner directory.
+ * @param solutions       Crawl statistics of the solutions catalog.
+ * @param rejoined        Partners (re-)joined in this refresh.
+ * @param reused          Partners whose previous joined instance was reused.
+ * @param matches         How solution owners were matched to partners.
+ * @param snapshotVersion Version of the snapshot being served after the refresh.
+ * @param published       False when the upstream data was unchanged and the snapshot was kept.
+ */
+public record RefreshReport(
+        Instant startedAt,
+        Duration duration,
+        FetchStats partners,
+        FetchStats solutions,
+        int rejoined,
+        int reused,
+        MatchStats matches,
+        long snapshotVersion,
+        boolean published
+) {}
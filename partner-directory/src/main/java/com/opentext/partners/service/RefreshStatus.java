@@ -0,0 +1,30 @@
+package com.opentext.partners.service;
+
+import java.time.Instant;
+
+/**
+ * State of the refresh pipeline, served by /api/refresh/status.
+ *
+ * @param running           True while a refresh is in flight.
+ * @param runningSince      When the refresh in flight started; null when idle.
+ * @param collapsedTriggers Triggers folded into the refresh in flight (or the last one).
+ * @param nextAllowedAt     Earliest start of the next refresh (partners.refresh.min-interval); null before the first.
+ * @param lastSuccessAt     When the last successful refresh finished; null before the first.
+ * @param snapshotVersion   Version of the snapshot being served.
+ * @param partners          Partners in the snapshot being served.
+ * @param lastFailureAt     When the last refresh failed or was cancelled; null if none has.
+ * @param lastFailure       Why it failed.
+ * @param lastRefresh       Full report of the last successful refresh (duration, records, requests); null before the first.
+ */
+public record RefreshStatus(
+        boolean running,
+        Instant runningSince,
+        int collapsedTriggers,
+        Instant nextAllowedAt,
+        Instant lastSuccessAt,
+        long snapshotVersion,
+        int partners,
+        Instant lastFailureAt,
+        String lastFailure,
+        RefreshReport lastRefresh
+) {}
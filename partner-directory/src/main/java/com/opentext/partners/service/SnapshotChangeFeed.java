@@ -0,0 +1,179 @@
+package com.opentext.partners.service;
+
+import com.opentext.partners.metrics.PartnerMetrics;
+import com.opentext.partners.model.JoinedPartnerDto.PartnerSolution;
+import com.opentext.partners.model.SnapshotChange;
+import com.opentext.partners.snapshot.PartnerSnapshot;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes a {@link SnapshotChange} to every /api/partners/changes subscriber when a snapshot is
+ * published (by this node's refresh, or adopted from another node).
+ *
+ * The diff is computed once per snapshot, and only while someone is subscribed, then multicast.
+ * An idle subscriber costs no thread: both web stacks hold it as an open async response. Heartbeat
+ * comments come from a single shared timer and keep proxies from closing idle connections. They
+ * also make writes to vanished clients fail, which ends those subscriptions.
+ *
+ * Every subscriber has its own buffer of partners.changes.buffer events. A client that reads too
+ * slowly loses the oldest ones; it notices from the previousVersion gap and refetches everything.
+ * The same goes for a client that subscribed while two snapshots were published in quick
+ * succession: it gets the latest change only.
+ * At most partners.changes.max-subscribers streams are open at once.
+ */
+@Component
+public class SnapshotChangeFeed {
+
+    static final String SNAPSHOT_EVENT = "snapshot";
+    static final String CHANGE_EVENT = "change";
+
+    /**
+     * Replays the latest change to each new subscriber: a stream subscribes here only after its
+     * 'snapshot' event, and a snapshot published in between must still reach it.
+     */
+    private final Sinks.Many<SnapshotChange> changes = Sinks.many().replay().latest();
+    private final Sinks.Empty<Void> closed = Sinks.empty();
+    private final Flux<ServerSentEvent<SnapshotChange>> heartbeats;
+    private final AtomicInteger subscribers = new AtomicInteger();
+    private final PartnerMetrics metrics;
+    private final int bufferSize;
+    private final int maxIds;
+    private final int maxSubscribers;
+
+    private volatile PartnerSnapshot current = PartnerSnapshot.EMPTY;
+
+    public SnapshotChangeFeed(PartnerMetrics metrics,
+                              @Value("${partners.changes.buffer:16}") int bufferSize,
+                              @Value("${partners.changes.max-ids:200}") int maxIds,
+                              @Value("${partners.changes.max-subscribers:10000}") int maxSubscribers,
+                              @Value("${partners.changes.heartbeat:30s}") Duration heartbeat) {
+        this.metrics = metrics;
+        this.bufferSize = Math.max(1, bufferSize);
+        this.maxIds = Math.max(0, maxIds);
+        this.maxSubscribers = maxSubscribers;
+        this.heartbeats = Flux.interval(heartbeat, heartbeat)
+                .map(tick -> ServerSentEvent.<SnapshotChange>builder().comment("heartbeat").build())
+                .share();
+        metrics.changeSubscribers(subscribers);
+    }
+
+    /** {@code next} replaced {@code previous} as the snapshot being served. */
+    public void published(PartnerSnapshot previous, PartnerSnapshot next) {
+        // Set before counting subscribers; subscribe() counts itself before reading it
+        this.current = next;
+        if (subscribers.get() == 0) return;
+        changes.emitNext(diff(previous, next, maxIds), Sinks.EmitFailureHandler.busyLooping(Duration.ofMillis(100)));
+    }
+
+    /** False once partners.changes.max-subscribers streams are open. */
+    public boolean acceptsSubscribers() {
+        return subscribers.get() < maxSubscribers;
+    }
+
+    /** Streams currently open. */
+    public int subscribers() {
+        return subscribers.get();
+    }
+
+    /**
+     * One subscriber's stream: a 'snapshot' event with the version being served, then a 'change'
+     * event per published snapshot, with heartbeat comments in between.
+     */
+    public Flux<ServerSentEvent<SnapshotChange>> subscribe() {
+        return Flux.defer(() -> {
+            // Counted first, so every snapshot published after 'start' is emitted to the sink
+            subscribers.incrementAndGet();
+            PartnerSnapshot start = current;
+            // The replayed latest change is dropped here unless it is newer than 'start'
+            Flux<ServerSentEvent<SnapshotChange>> published = changes.asFlux()
+                    .filter(change -> change.version() > start.version())
+                    .map(change -> event(CHANGE_EVENT, change))
+                    .onBackpressureBuffer(bufferSize, dropped -> metrics.changeDropped(), BufferOverflowStrategy.DROP_OLDEST);
+            // Prefetch 1: the per-subscriber buffer above is the only place events queue up
+            return Flux.merge(1, published, heartbeats.onBackpressureDrop().takeUntilOther(closed.asMono()))
+                    .startWith(event(SNAPSHOT_EVENT,
+                            SnapshotChange.current(start.version(), start.createdAt(), start.size())));
+        })
+                .doFinally(signal -> subscribers.decrementAndGet());
+    }
+
+    /**
+     * Ends every stream when the application shuts down. Runs before the web server's graceful
+     * shutdown, which would otherwise wait for these never-ending responses.
+     */
+    @EventListener(ContextClosedEvent.class)
+    public void close() {
+        changes.tryEmitComplete();
+        closed.tryEmitEmpty();
+    }
+
+    /** Compares two snapshots by partner id; the lists are cut at {@code maxIds} */
+    static SnapshotChange diff(PartnerSnapshot previous, PartnerSnapshot next, int maxIds) {
+        List<PartnerSolution> before = previous.all();
+        List<PartnerSolution> after = next.all();
+        Map<String, Integer> beforeRows = new HashMap<>(before.size() * 2);
+        for (int i = 0; i < before.size(); i++) {
+            beforeRows.put(key(before.get(i)), i);
+        }
+
+        int added = 0;
+        int changed = 0;
+        int firstChanged = Integer.MAX_VALUE;
+        List<String> addedIds = new ArrayList<>();
+        List<String> changedIds = new ArrayList<>();
+        for (int row = 0; row < after.size(); row++) {
+            PartnerSolution partner = after.get(row);
+            String key = key(partner);
+            Integer beforeRow = beforeRows.remove(key);
+            if (beforeRow == null) {
+                added++;
+                if (addedIds.size() < maxIds) addedIds.add(key);
+                firstChanged = Math.min(firstChanged, row);
+            } else if (!before.get(beforeRow).equals(partner)) {
+                changed++;
+                if (changedIds.size() < maxIds) changedIds.add(key);
+                firstChanged = Math.min(firstChanged, Math.min(row, beforeRow));
+            } else if (beforeRow != row) {
+                // Same data in another row: pages from there on show different partners
+                firstChanged = Math.min(firstChanged, Math.min(row, beforeRow));
+            }
+        }
+
+        int removed = beforeRows.size();
+        List<String> removedIds = new ArrayList<>();
+        for (Map.Entry<String, Integer> gone : beforeRows.entrySet()) {
+            if (removedIds.size() < maxIds) removedIds.add(gone.getKey());
+            firstChanged = Math.min(firstChanged, gone.getValue());
+        }
+
+        return new SnapshotChange(next.version(), previous.version(), next.createdAt(), after.size(),
+                added, removed, changed, firstChanged == Integer.MAX_VALUE ? -1 : firstChanged,
+                List.copyOf(addedIds), List.copyOf(removedIds), List.copyOf(changedIds),
+                added > maxIds || removed > maxIds || changed > maxIds);
+    }
+
+    private static String key(PartnerSolution partner) {
+        return partner.partnerId() != null ? partner.partnerId() : partner.partnerName();
+    }
+
+    private static ServerSentEvent<SnapshotChange> event(String name, SnapshotChange change) {
+        return ServerSentEvent.builder(change)
+                .id(Long.toString(change.version()))
+                .event(name)
+                .build();
+    }
+}
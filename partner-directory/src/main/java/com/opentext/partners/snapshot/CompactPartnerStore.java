@@ -0,0 +1,374 @@
+package com.opentext.partners.snapshot;
+
+import com.opentext.partners.model.JoinedPartnerDto.PartnerSolution;
+import com.opentext.partners.model.JoinedPartnerDto.Solution;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * Columnar, compact storage for the joined directory.
+ *
+ * Low-cardinality strings (partnerLevel, partnerType, solution displayName) are dictionary-encoded
+ * into int codes; every other string is stored once as UTF-8 in a single byte arena (on or off heap)
+ * and addressed by offset. A snapshot of N partners is thus a handful of primitive arrays plus one
+ * buffer instead of millions of small objects, which keeps retained heap and GC marking work low.
+ *
+ * {@link PartnerSolution} instances are materialised on demand by the {@link List} views, so only
+ * the page being served is ever turned back into objects.
+ *
+ * The same columns are the on-disk format of {@link SnapshotFile}: {@link #writeTo} writes them
+ * as-is and {@link #read} maps them back without re-encoding.
+ */
+public final class CompactPartnerStore {
+
+    /** Code used for null dictionary values and null texts. */
+    private static final int NULL = -1;
+
+    private final String[] dictionary;
+
+    // Per partner: four consecutive text ids (name, id, shortDescription, companyOverview)
+    private final int[] partnerText;
+    private final int[] levelCode;
+    private final int[] typeCode;
+    // Solutions of partner i are [solutionStart[i], solutionStart[i + 1])
+    private final int[] solutionStart;
+    private final int[] solutionNameCode;
+    private final int[] solutionDescriptionText;
+
+    // Text t is arena[textOffset[t], textOffset[t + 1]); textNull marks null strings
+    private final int[] textOffset;
+    private final boolean[] textNull;
+    private final ByteBuffer arena;
+
+    private final int[] withSolutionsRows;
+
+    private CompactPartnerStore(Builder builder, boolean offHeap) {
+        this.dictionary = builder.dictionary.toArray(String[]::new);
+        this.partnerText = builder.partnerText.toArray();
+        this.levelCode = builder.levelCode.toArray();
+        this.typeCode = builder.typeCode.toArray();
+        this.solutionStart = builder.solutionStart.toArray();
+        this.solutionNameCode = builder.solutionNameCode.toArray();
+        this.solutionDescriptionText = builder.solutionDescriptionText.toArray();
+        this.textOffset = builder.textOffset.toArray();
+        this.textNull = builder.textNull();
+        this.withSolutionsRows = builder.withSolutionsRows.toArray();
+
+        byte[] bytes = builder.arena.toByteArray();
+        ByteBuffer buffer = offHeap ? ByteBuffer.allocateDirect(bytes.length) : ByteBuffer.wrap(bytes);
+        if (offHeap) {
+            buffer.put(bytes).flip();
+        }
+        this.arena = buffer.asReadOnlyBuffer();
+    }
+
+    private CompactPartnerStore(String[] dictionary, int[] partnerText, int[] levelCode, int[] typeCode,
+                                int[] solutionStart, int[] solutionNameCode, int[] solutionDescriptionText,
+                                int[] textOffset, boolean[] textNull, int[] withSolutionsRows, ByteBuffer arena) {
+        this.dictionary = dictionary;
+        this.partnerText = partnerText;
+        this.levelCode = levelCode;
+        this.typeCode = typeCode;
+        this.solutionStart = solutionStart;
+        this.solutionNameCode = solutionNameCode;
+        this.solutionDescriptionText = solutionDescriptionText;
+        this.textOffset = textOffset;
+        this.textNull = textNull;
+        this.withSolutionsRows = withSolutionsRows;
+        this.arena = arena.asReadOnlyBuffer();
+    }
+
+    /** Encodes a joined list; {@code offHeap} places the text arena in a direct buffer. */
+    public static CompactPartnerStore of(List<PartnerSolution> partners, boolean offHeap) {
+        Builder builder = new Builder();
+        for (PartnerSolution partner : partners) {
+            builder.add(partner);
+        }
+        return new CompactPartnerStore(builder, offHeap);
+    }
+
+    public int size() {
+        return levelCode.length;
+    }
+
+    /** Bytes held by the UTF-8 text arena. */
+    public int arenaBytes() {
+        return arena.capacity();
+    }
+
+    public boolean isOffHeap() {
+        return arena.isDirect();
+    }
+
+    /** All partners, materialised lazily on {@code get}. */
+    public List<PartnerSolution> all() {
+        return new RowView(null);
+    }
+
+    /** Partners with at least one solution, materialised lazily on {@code get}. */
+    public List<PartnerSolution> withSolutions() {
+        return new RowView(withSolutionsRows);
+    }
+
+    /** Materialises one row. */
+    public PartnerSolution get(int row) {
+        int text = partnerText[row];
+        int from = solutionStart[row];
+        int to = solutionStart[row + 1];
+
+        List<Solution> solutions;
+        if (from == to) {
+            solutions = List.of();
+        } else {
+            Solution[] array = new Solution[to - from];
+            for (int s = from; s < to; s++) {
+                array[s - from] = new Solution(lookup(solutionNameCode[s]), text(solutionDescriptionText[s]));
+            }
+            solutions = List.of(array);
+        }
+
+        return new PartnerSolution(
+                text(text),
+                text(text + 1),
+                lookup(levelCode[row]),
+                lookup(typeCode[row]),
+                text(text + 2),
+                text(text + 3),
+                solutions
+        );
+    }
+
+    /**
+     * Writes the columns as-is: the dictionary as length-prefixed UTF-8, every int column as its
+     * length followed by its values, null texts as a list of text ids, then the arena. Big-endian,
+     * as read back by {@link #read}.
+     */
+    public void writeTo(DataOutputStream out) throws IOException {
+        out.writeInt(dictionary.length);
+        for (String value : dictionary) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+        for (int[] column : new int[][]{partnerText, levelCode, typeCode, solutionStart, solutionNameCode,
+                solutionDescriptionText, textOffset, withSolutionsRows}) {
+            writeInts(out, column);
+        }
+        IntColumn nullTexts = new IntColumn();
+        for (int id = 0; id < textNull.length; id++) {
+            if (textNull[id]) nullTexts.add(id);
+        }
+        writeInts(out, nullTexts.toArray());
+
+        out.writeInt(arena.capacity());
+        if (arena.hasArray()) {
+            out.write(arena.array(), arena.arrayOffset(), arena.capacity());
+        } else {
+            byte[] chunk = new byte[8192];
+            for (int position = 0; position < arena.capacity(); position += chunk.length) {
+                int length = Math.min(chunk.length, arena.capacity() - position);
+                arena.get(position, chunk, 0, length);
+                out.write(chunk, 0, length);
+            }
+        }
+    }
+
+    /**
+     * Reads a store written by {@link #writeTo} from {@code buffer}'s position on. The columns are
+     * copied to the heap; the arena stays a view of {@code buffer}, so texts of a memory-mapped file
+     * are decoded straight from the mapping.
+     *
+     * @throws IllegalArgumentException if the data is truncated or inconsistent.
+     */
+    public static CompactPartnerStore read(ByteBuffer buffer) {
+        try {
+            String[] dictionary = new String[buffer.getInt()];
+            for (int i = 0; i < dictionary.length; i++) {
+                byte[] bytes = new byte[buffer.getInt()];
+                buffer.get(bytes);
+                dictionary[i] = new String(bytes, StandardCharsets.UTF_8);
+            }
+            int[] partnerText = readInts(buffer);
+            int[] levelCode = readInts(buffer);
+            int[] typeCode = readInts(buffer);
+            int[] solutionStart = readInts(buffer);
+            int[] solutionNameCode = readInts(buffer);
+            int[] solutionDescriptionText = readInts(buffer);
+            int[] textOffset = readInts(buffer);
+            int[] withSolutionsRows = readInts(buffer);
+            boolean[] textNull = new boolean[Math.max(0, textOffset.length - 1)];
+            for (int id : readInts(buffer)) {
+                textNull[id] = true;
+            }
+            int arenaBytes = buffer.getInt();
+            ByteBuffer arena = buffer.slice(buffer.position(), arenaBytes);
+            buffer.position(buffer.position() + arenaBytes);
+
+            if (partnerText.length != levelCode.length || typeCode.length != levelCode.length
+                    || solutionStart.length != levelCode.length + 1
+                    || solutionDescriptionText.length != solutionNameCode.length
+                    || textOffset.length == 0 || textOffset[textOffset.length - 1] != arenaBytes) {
+                throw new IllegalArgumentException("Inconsistent compact partner store columns");
+            }
+            return new CompactPartnerStore(dictionary, partnerText, levelCode, typeCode, solutionStart,
+                    solutionNameCode, solutionDescriptionText, textOffset, textNull, withSolutionsRows, arena);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | NegativeArraySizeException e) {
+            throw new IllegalArgumentException("Truncated or corrupt compact partner store", e);
+        }
+    }
+
+    private static void writeInts(DataOutputStream out, int[] values) throws IOException {
+        out.writeInt(values.length);
+        for (int value : values) {
+            out.writeInt(value);
+        }
+    }
+
+    private static int[] readInts(ByteBuffer buffer) {
+        int[] values = new int[buffer.getInt()];
+        buffer.asIntBuffer().get(values);
+        buffer.position(buffer.position() + values.length * Integer.BYTES);
+        return values;
+    }
+
+    private String lookup(int code) {
+        return code == NULL ? null : dictionary[code];
+    }
+
+    private String text(int id) {
+        if (textNull[id]) return null;
+        int start = textOffset[id];
+        int length = textOffset[id + 1] - start;
+        if (length == 0) return "";
+        if (arena.hasArray()) {
+            return new String(arena.array(), arena.arrayOffset() + start, length, StandardCharsets.UTF_8);
+        }
+        byte[] bytes = new byte[length];
+        arena.get(start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /** Read-only random-access view over all rows, or over a subset of row numbers. */
+    private final class RowView extends AbstractList<PartnerSolution> implements RandomAccess {
+
+        private final int[] rows;
+
+        RowView(int[] rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public PartnerSolution get(int index) {
+            return CompactPartnerStore.this.get(rows == null ? index : rows[index]);
+        }
+
+        @Override
+        public int size() {
+            return rows == null ? CompactPartnerStore.this.size() : rows.length;
+        }
+    }
+
+    /** Accumulates columns while encoding. */
+    private static final class Builder {
+
+        private final List<String> dictionary = new ArrayList<>();
+        private final Map<String, Integer> codes = new HashMap<>();
+
+        private final IntColumn partnerText = new IntColumn();
+        private final IntColumn levelCode = new IntColumn();
+        private final IntColumn typeCode = new IntColumn();
+        private final IntColumn solutionStart = new IntColumn();
+        private final IntColumn solutionNameCode = new IntColumn();
+        private final IntColumn solutionDescriptionText = new IntColumn();
+        private final IntColumn textOffset = new IntColumn();
+        private final IntColumn nullTexts = new IntColumn();
+        private final IntColumn withSolutionsRows = new IntColumn();
+        private final ByteArrayOutputStream arena = new ByteArrayOutputStream(1 << 16);
+
+        Builder() {
+            solutionStart.add(0);
+            textOffset.add(0);
+        }
+
+        void add(PartnerSolution partner) {
+            int row = levelCode.size();
+            partnerText.add(text(partner.partnerName()));
+            text(partner.partnerId());
+            text(partner.shortDescription());
+            text(partner.companyOverview());
+            levelCode.add(code(partner.partnerLevel()));
+            typeCode.add(code(partner.partnerType()));
+
+            List<Solution> solutions = partner.solutions() != null ? partner.solutions() : List.of();
+            for (Solution solution : solutions) {
+                solutionNameCode.add(code(solution.displayName()));
+                solutionDescriptionText.add(text(solution.shortDescription()));
+            }
+            solutionStart.add(solutionNameCode.size());
+            if (!solutions.isEmpty()) {
+                withSolutionsRows.add(row);
+            }
+        }
+
+        private int code(String value) {
+            if (value == null) return NULL;
+            return codes.computeIfAbsent(value, v -> {
+                dictionary.add(v);
+                return dictionary.size() - 1;
+            });
+        }
+
+        private int text(String value) {
+            int id = textOffset.size() - 1;
+            if (value == null) {
+                nullTexts.add(id);
+            } else {
+                arena.writeBytes(value.getBytes(StandardCharsets.UTF_8));
+            }
+            textOffset.add(arena.size());
+            return id;
+        }
+
+        boolean[] textNull() {
+            boolean[] result = new boolean[textOffset.size() - 1];
+            for (int id : nullTexts.toArray()) {
+                result[id] = true;
+            }
+            return result;
+        }
+    }
+
+    /** Growable int array, to avoid boxing while building columns. */
+    private static final class IntColumn {
+
+        private int[] values = new int[64];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int size() {
+            return size;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.opentext.partners.snapshot;
+
+/**
+ * Cheap 64-bit content fingerprints (FNV-1a) used to detect which upstream records
+ * changed between two refreshes. Not cryptographic; collisions are astronomically unlikely
+ * at directory scale and would only delay an update until the next change.
+ */
+public final class ContentHash {
+
+    private static final long OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long PRIME = 0x100000001b3L;
+    private static final long NULL_MARKER = 0x9e3779b97f4a7c15L;
+
+    private ContentHash() {
+    }
+
+    /** Hashes a fixed sequence of (possibly null) fields. */
+    public static long of(String... fields) {
+        long hash = OFFSET_BASIS;
+        for (String field : fields) {
+            hash = combine(hash, field);
+        }
+        return hash;
+    }
+
+    /** Mixes one more string into a running hash. Field boundaries are kept distinct. */
+    public static long combine(long hash, String value) {
+        if (value == null) {
+            return combine(hash, NULL_MARKER);
+        }
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= PRIME;
+        }
+        // Field separator, so ("ab", "c") and ("a", "bc") hash differently
+        hash ^= 0xff;
+        return hash * PRIME;
+    }
+
+    /** Mixes one more 64-bit value (e.g. a nested fingerprint) into a running hash. */
+    public static long combine(long hash, long value) {
+        for (int shift = 0; shift < 64; shift += 8) {
+            hash ^= (value >>> shift) & 0xff;
+            hash *= PRIME;
+        }
+        return hash;
+    }
+
+    /** Starting value for hashes built incrementally with {@code combine}. */
+    public static long seed() {
+        return OFFSET_BASIS;
+    }
+}
@@ -0,0 +1,46 @@
+package com.opentext.partners.snapshot;
+
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Facet selection of a directory query: values within one facet are OR-ed, facets are AND-ed.
+ * Values are matched case-insensitively; an empty set leaves that facet unrestricted.
+ *
+ * @param levels        Accepted partnerLevel values.
+ * @param types         Accepted partnerType values.
+ * @param hasSolutions  If true, only partners with 1 or more solutions.
+ */
+public record FacetFilter(Set<String> levels, Set<String> types, boolean hasSolutions) {
+
+    public static final FacetFilter NONE = new FacetFilter(Set.of(), Set.of(), false);
+
+    public FacetFilter {
+        levels = normalize(levels);
+        types = normalize(types);
+    }
+
+    public static FacetFilter of(Collection<String> levels, Collection<String> types, boolean hasSolutions) {
+        return new FacetFilter(levels != null ? Set.copyOf(levels) : Set.of(),
+                types != null ? Set.copyOf(types) : Set.of(), hasSolutions);
+    }
+
+    /** True when only the hasSolutions flag (or nothing) is set, which the precomputed views answer. */
+    public boolean onlySolutions() {
+        return levels.isEmpty() && types.isEmpty();
+    }
+
+    static String key(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static Set<String> normalize(Set<String> values) {
+        if (values == null || values.isEmpty()) return Set.of();
+        return values.stream()
+                .filter(v -> v != null && !v.isBlank())
+                .map(FacetFilter::key)
+                .collect(Collectors.toUnmodifiableSet());
+    }
+}
@@ -0,0 +1,188 @@
+package com.opentext.partners.snapshot;
+
+import com.opentext.partners.model.JoinedPartnerDto.PartnerSolution;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Per-snapshot bitset indexes over partnerLevel, partnerType and solution presence.
+ *
+ * Every facet value owns a {@code long[]} bitset of the rows carrying it, built once per refresh.
+ * A filter is evaluated with word-wise OR (within a facet) and AND (across facets), counted with
+ * {@link Long#bitCount}, and a page is read by skipping whole words up to the requested rank and
+ * then selecting set bits, so no query ever walks the partner list.
+ */
+public final class FacetIndex {
+
+    public static final FacetIndex EMPTY = build(List.of());
+
+    /**
+     * Facet counts for a filter. Counts of one facet apply the other facets' selections but not
+     * its own, so the client can see how many results choosing another value would add.
+     *
+     * @param partnerLevel  Partners per level, most frequent first.
+     * @param partnerType   Partners per type, most frequent first.
+     * @param withSolutions Partners with 1 or more solutions.
+     * @param total         Partners matching the whole filter.
+     */
+    public record FacetCounts(Map<String, Integer> partnerLevel, Map<String, Integer> partnerType,
+                              int withSolutions, int total) {}
+
+    /** One facet value: its display form (as sent upstream) and the rows carrying it. */
+    private record FacetValue(String value, long[] rows) {}
+
+    private final int size;
+    private final long[] all;
+    private final long[] withSolutions;
+    private final Map<String, FacetValue> levels;
+    private final Map<String, FacetValue> types;
+
+    private FacetIndex(int size, long[] withSolutions,
+                       Map<String, FacetValue> levels, Map<String, FacetValue> types) {
+        this.size = size;
+        this.all = new long[words(size)];
+        Arrays.fill(all, -1L);
+        if ((size & 63) != 0) {
+            all[all.length - 1] = (1L << size) - 1;
+        }
+        this.withSolutions = withSolutions;
+        this.levels = levels;
+        this.types = types;
+    }
+
+    /** Indexes {@code partners}; rows are positions in that list. */
+    public static FacetIndex build(List<PartnerSolution> partners) {
+        int size = partners.size();
+        long[] withSolutions = new long[words(size)];
+        Map<String, FacetValue> levels = new HashMap<>();
+        Map<String, FacetValue> types = new HashMap<>();
+
+        for (int row = 0; row < size; row++) {
+            PartnerSolution partner = partners.get(row);
+            if (partner.solutions() != null && !partner.solutions().isEmpty()) {
+                set(withSolutions, row);
+            }
+            add(levels, partner.partnerLevel(), row, size);
+            add(types, partner.partnerType(), row, size);
+        }
+        return new FacetIndex(size, withSolutions, levels, types);
+    }
+
+    /** Rows matching {@code filter}, as a bitset owned by the caller. */
+    public long[] filter(FacetFilter filter) {
+        long[] result = all.clone();
+        and(result, union(levels, filter.levels()));
+        and(result, union(types, filter.types()));
+        if (filter.hasSolutions()) and(result, withSolutions);
+        return result;
+    }
+
+    /** Counts per facet value under {@code filter}. */
+    public FacetCounts counts(FacetFilter filter) {
+        long[] levelRows = union(levels, filter.levels());
+        long[] typeRows = union(types, filter.types());
+        long[] solutionRows = filter.hasSolutions() ? withSolutions : null;
+
+        return new FacetCounts(
+                countValues(levels, typeRows, solutionRows),
+                countValues(types, levelRows, solutionRows),
+                countAnd(withSolutions, levelRows, typeRows),
+                countAnd(levelRows != null ? levelRows : all, typeRows, solutionRows));
+    }
+
+    /** Number of set bits. */
+    public static int count(long[] rows) {
+        int count = 0;
+        for (long word : rows) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /** Rows of ranks [offset, offset + limit) in {@code rows}, in upstream order. */
+    public static int[] select(long[] rows, int offset, int limit) {
+        int[] selected = new int[Math.max(0, limit)];
+        int found = 0;
+        int skip = offset;
+        for (int w = 0; w < rows.length && found < selected.length; w++) {
+            long word = rows[w];
+            int bits = Long.bitCount(word);
+            if (skip >= bits) {
+                // Rank: the whole word lies before the page
+                skip -= bits;
+                continue;
+            }
+            while (word != 0 && found < selected.length) {
+                int bit = Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+                if (skip > 0) {
+                    skip--;
+                } else {
+                    selected[found++] = (w << 6) + bit;
+                }
+            }
+        }
+        return found == selected.length ? selected : Arrays.copyOf(selected, found);
+    }
+
+    private Map<String, Integer> countValues(Map<String, FacetValue> facet, long[] other, long[] solutions) {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        facet.values().stream()
+                .map(value -> Map.entry(value.value(), countAnd(value.rows(), other, solutions)))
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed()
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .forEach(entry -> counts.put(entry.getKey(), entry.getValue()));
+        return counts;
+    }
+
+    /** popcount(a & b & c), where a null operand means "every row". */
+    private static int countAnd(long[] a, long[] b, long[] c) {
+        int count = 0;
+        for (int w = 0; w < a.length; w++) {
+            long word = a[w];
+            if (b != null) word &= b[w];
+            if (c != null) word &= c[w];
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /** OR of the selected values' bitsets; null when the facet is unrestricted. */
+    private long[] union(Map<String, FacetValue> facet, Set<String> selected) {
+        if (selected.isEmpty()) return null;
+        long[] result = new long[words(size)];
+        for (String key : selected) {
+            FacetValue value = facet.get(key);
+            if (value == null) continue;
+            for (int w = 0; w < result.length; w++) {
+                result[w] |= value.rows()[w];
+            }
+        }
+        return result;
+    }
+
+    private static void and(long[] target, long[] mask) {
+        if (mask == null) return;
+        for (int w = 0; w < target.length; w++) {
+            target[w] &= mask[w];
+        }
+    }
+
+    private static void add(Map<String, FacetValue> facet, String value, int row, int size) {
+        if (value == null || value.isBlank()) return;
+        set(facet.computeIfAbsent(FacetFilter.key(value), k -> new FacetValue(value.trim(), new long[words(size)])).rows(), row);
+    }
+
+    private static void set(long[] bits, int row) {
+        bits[row >>> 6] |= 1L << row;
+    }
+
+    private static int words(int size) {
+        return (size + 63) >>> 6;
+    }
+}
@@ -0,0 +1,23 @@
+package com.opentext.partners.snapshot;
+
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * One page of records fetched from an upstream endpoint, with a content fingerprint
+ * so unchanged batches can be recognised on the next refresh.
+ *
+ * @param start       Upstream offset ('start' query parameter) of the first record.
+ * @param records     Records decoded from the batch, in upstream order.
+ * @param fingerprint Order-sensitive hash of every record's content hash.
+ */
+public record FetchedBatch<T>(int start, List<T> records, long fingerprint) {
+
+    public static <T> FetchedBatch<T> of(int start, List<T> records, ToLongFunction<T> contentHash) {
+        long fingerprint = ContentHash.combine(ContentHash.seed(), start);
+        for (T record : records) {
+            fingerprint = ContentHash.combine(fingerprint, contentHash.applyAsLong(record));
+        }
+        return new FetchedBatch<>(start, List.copyOf(records), fingerprint);
+    }
+}
@@ -0,0 +1,76 @@
+package com.opentext.partners.snapshot;
+
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Position of a client in a sorted, filtered walk over one snapshot.
+ *
+ * Serialized as an opaque URL-safe token. Because it names the snapshot version, following a
+ * cursor keeps reading the snapshot the walk started on, even if a refresh has published a newer
+ * one in between, and because it stores a position in the presorted order, the next page starts
+ * right there instead of re-scanning from the first row.
+ *
+ * @param version  Snapshot the walk reads.
+ * @param sort     Order of the walk.
+ * @param filter   Facet filter of the walk.
+ * @param position Next position to read in {@code sort} order.
+ */
+public record PageCursor(long version, SortOrder sort, FacetFilter filter, int position) {
+
+    private static final String FORMAT = "c1";
+    private static final String SEPARATOR = "|";
+
+    /** A cursor starting a new walk. */
+    public static PageCursor first(long version, SortOrder sort, FacetFilter filter) {
+        return new PageCursor(version, sort, filter, 0);
+    }
+
+    public PageCursor at(int nextPosition) {
+        return new PageCursor(version, sort, filter, nextPosition);
+    }
+
+    public String encode() {
+        String raw = String.join(SEPARATOR, FORMAT, Long.toString(version), sort.name(),
+                Boolean.toString(filter.hasSolutions()), join(filter.levels()), join(filter.types()),
+                Integer.toString(position));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** Parses a token produced by {@link #encode()}; IllegalArgumentException if it is not one. */
+    public static PageCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != 7 || !FORMAT.equals(parts[0])) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+            FacetFilter filter = new FacetFilter(split(parts[4]), split(parts[5]), Boolean.parseBoolean(parts[3]));
+            int position = Integer.parseInt(parts[6]);
+            if (position < 0) throw new IllegalArgumentException("Malformed cursor");
+            return new PageCursor(Long.parseLong(parts[1]), SortOrder.valueOf(parts[2]), filter, position);
+        } catch (IllegalArgumentException e) {
+            // Also covers bad Base64 and NumberFormatException
+            throw new IllegalArgumentException("Invalid cursor '" + token + "'", e);
+        }
+    }
+
+    private static String join(Set<String> values) {
+        return values.stream()
+                .sorted()
+                .map(v -> URLEncoder.encode(v, StandardCharsets.UTF_8))
+                .collect(Collectors.joining(","));
+    }
+
+    private static Set<String> split(String joined) {
+        if (joined.isEmpty()) return Set.of();
+        return Arrays.stream(joined.split(","))
+                .map(v -> URLDecoder.decode(v, StandardCharsets.UTF_8))
+                .collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,182 @@
+package com.opentext.partners.snapshot;
+
+import com.opentext.partners.model.CursorPage;
+import com.opentext.partners.model.JoinedPartnerDto.PartnerSolution;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Immutable, versioned view of the joined partner directory.
+ * Built once per refresh so the read paths never have to filter or copy the full list:
+ * every filter combination the API supports is precomputed here.
+ *
+ * @param version       Monotonic snapshot number, bumped on every successful refresh.
+ * @param createdAt     When this snapshot was published.
+ * @param all           Every joined partner, in upstream order.
+ * @param withSolutions Only the partners with at least one solution, in upstream order.
+ * @param search        Inverted index over {@code all}, for full-text queries.
+ * @param facets        Bitset indexes over {@code all} by level, type and solution presence.
+ * @param sorted        Presorted row orders of {@code all}.
+ */
+public record PartnerSnapshot(
+        long version,
+        Instant createdAt,
+        List<PartnerSolution> all,
+        List<PartnerSolution> withSolutions,
+        SearchIndex search,
+        FacetIndex facets,
+        SortedViews sorted
+) {
+
+    /** Served until the first refresh completes. */
+    public static final PartnerSnapshot EMPTY = new PartnerSnapshot(0L, Instant.EPOCH, List.of(), List.of(), SearchIndex.EMPTY, FacetIndex.EMPTY, SortedViews.EMPTY);
+
+    /**
+     * Builds a snapshot and its precomputed filter views from a freshly joined list.
+     * The indexes are built concurrently, on the ForkJoin pool of the calling thread if it has one.
+     */
+    public static PartnerSnapshot of(long version, List<PartnerSolution> partners) {
+        List<PartnerSolution> all = List.copyOf(partners);
+        List<PartnerSolution> withSolutions = all.stream()
+                .filter(p -> p.solutions() != null && !p.solutions().isEmpty())
+                .toList();
+        ForkJoinTask<SearchIndex> search = ForkJoinTask.adapt(() -> SearchIndex.build(all)).fork();
+        ForkJoinTask<FacetIndex> facets = ForkJoinTask.adapt(() -> FacetIndex.build(all)).fork();
+        SortedViews sorted = SortedViews.build(all);
+        return new PartnerSnapshot(version, Instant.now(), all, withSolutions, search.join(), facets.join(), sorted);
+    }
+
+    /**
+     * Builds a snapshot backed by a {@link CompactPartnerStore}: dictionary-encoded columns plus one UTF-8
+     * text arena (in a direct buffer when {@code offHeap}). Both views materialise rows lazily.
+     */
+    public static PartnerSnapshot compact(long version, List<PartnerSolution> partners, boolean offHeap) {
+        // Indexed from the joined objects, before they are dropped in favour of the columns
+        ForkJoinTask<SearchIndex> search = ForkJoinTask.adapt(() -> SearchIndex.build(partners)).fork();
+        ForkJoinTask<FacetIndex> facets = ForkJoinTask.adapt(() -> FacetIndex.build(partners)).fork();
+        ForkJoinTask<SortedViews> sorted = ForkJoinTask.adapt(() -> SortedViews.build(partners)).fork();
+        CompactPartnerStore store = CompactPartnerStore.of(partners, offHeap);
+        return new PartnerSnapshot(version, Instant.now(), store.all(), store.withSolutions(),
+                search.join(), facets.join(), sorted.join());
+    }
+
+    /** Returns the precomputed view matching the filter; never copies. */
+    public List<PartnerSolution> view(boolean hasSolutions) {
+        return hasSolutions ? withSolutions : all;
+    }
+
+    /** Returns one page of the requested view as an O(1) subList window. */
+    public Page<PartnerSolution> page(Pageable pageable, boolean hasSolutions) {
+        List<PartnerSolution> view = view(hasSolutions);
+
+        int total = view.size();
+        int start = (int) pageable.getOffset();
+        int end = Math.min(start + pageable.getPageSize(), total);
+
+        if (start >= total) return Page.empty(pageable);
+
+        return new PageImpl<>(view.subList(start, end), pageable, total);
+    }
+
+    /**
+     * Returns one page of the partners matching {@code filter}. Solution-only filters use the
+     * precomputed views; level/type filters are answered from the facet bitsets.
+     */
+    public Page<PartnerSolution> page(Pageable pageable, FacetFilter filter) {
+        if (filter.onlySolutions()) return page(pageable, filter.hasSolutions());
+
+        long[] rows = facets.filter(filter);
+        int total = FacetIndex.count(rows);
+        if (pageable.getOffset() >= total) return new PageImpl<>(List.of(), pageable, total);
+
+        int[] selected = FacetIndex.select(rows, (int) pageable.getOffset(), pageable.getPageSize());
+        List<PartnerSolution> content = new ArrayList<>(selected.length);
+        for (int row : selected) {
+            content.add(all.get(row));
+        }
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    /**
+     * Returns one page of the partners matching {@code filter} in {@code sort} order. Unfiltered
+     * sorted pages are a window of the presorted order; filtered ones walk that order up to the
+     * page, so deep filtered pages are better read with {@link #scroll}.
+     */
+    public Page<PartnerSolution> page(Pageable pageable, FacetFilter filter, SortOrder sort) {
+        if (sort == SortOrder.UPSTREAM) return page(pageable, filter);
+
+        long[] rows = unrestricted(filter) ? null : facets.filter(filter);
+        int total = rows == null ? size() : FacetIndex.count(rows);
+        if (pageable.getOffset() >= total) return new PageImpl<>(List.of(), pageable, total);
+
+        List<PartnerSolution> content = new ArrayList<>(pageable.getPageSize());
+        int skip = (int) pageable.getOffset();
+        int position = rows == null ? skip : 0;
+        for (; position < size() && content.size() < pageable.getPageSize(); position++) {
+            int row = sorted.row(sort, position);
+            if (rows != null && !contains(rows, row)) continue;
+            if (rows != null && skip > 0) {
+                skip--;
+                continue;
+            }
+            content.add(all.get(row));
+        }
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    /**
+     * Returns the page starting at {@code cursor}, which must belong to this snapshot.
+     * Costs O(page size) for unfiltered walks and O(page size / filter selectivity) otherwise,
+     * however deep the page.
+     */
+    public CursorPage<PartnerSolution> scroll(PageCursor cursor, int pageSize) {
+        if (cursor.version() != version) {
+            throw new IllegalArgumentException("Cursor of snapshot v" + cursor.version() + " used on v" + version);
+        }
+        long[] rows = unrestricted(cursor.filter()) ? null : facets.filter(cursor.filter());
+        int total = rows == null ? size() : FacetIndex.count(rows);
+
+        List<PartnerSolution> content = new ArrayList<>(Math.min(pageSize, total));
+        int position = cursor.position();
+        for (; position < size() && content.size() < pageSize; position++) {
+            int row = sorted.row(cursor.sort(), position);
+            if (rows == null || contains(rows, row)) {
+                content.add(all.get(row));
+            }
+        }
+        // Skip ahead to the next match so the last page does not hand out an empty cursor
+        while (rows != null && position < size() && !contains(rows, sorted.row(cursor.sort(), position))) {
+            position++;
+        }
+        String next = position < size() ? cursor.at(position).encode() : null;
+        return new CursorPage<>(content, pageSize, total, version, next);
+    }
+
+    private static boolean unrestricted(FacetFilter filter) {
+        return filter.onlySolutions() && !filter.hasSolutions();
+    }
+
+    private static boolean contains(long[] rows, int row) {
+        return (rows[row >>> 6] & (1L << row)) != 0;
+    }
+
+    /** Returns one page of the partners matching {@code query}, best match first. */
+    public Page<PartnerSolution> search(String query, Pageable pageable) {
+        SearchIndex.Hits hits = search.search(query, (int) pageable.getOffset(), pageable.getPageSize());
+        List<PartnerSolution> content = new ArrayList<>(hits.rows().length);
+        for (int row : hits.rows()) {
+            content.add(all.get(row));
+        }
+        return new PageImpl<>(content, pageable, hits.total());
+    }
+
+    public int size() {
+        return all.size();
+    }
+}
@@ -0,0 +1,350 @@
+package com.opentext.partners.snapshot;
+
+import com.opentext.partners.model.JoinedPartnerDto.PartnerSolution;
+import com.opentext.partners.model.JoinedPartnerDto.Solution;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Immutable inverted index over the partner name, solution names, shortDescription and
+ * companyOverview of one snapshot, built once per refresh.
+ *
+ * Terms are lower-cased, accent-folded runs of letters and digits, kept sorted so that a query
+ * term also matches every indexed term it is a prefix of (binary search, no scan). A prefix expands
+ * to all of those terms; their postings are merged in one pass over a per-row score array, so a
+ * short prefix costs time linear in its postings rather than in its terms times rows. Each posting
+ * stores the row and a bitmask of the fields the term occurs in; a hit scores the summed field
+ * weights times the term's inverse document frequency, and a query matches rows containing all of
+ * its terms. Only the requested page of the ranking is selected, with a bounded heap.
+ */
+public final class SearchIndex {
+
+    /** Field bits stored per posting. */
+    static final int NAME = 1;
+    static final int SOLUTION = 2;
+    static final int SHORT_DESCRIPTION = 4;
+    static final int COMPANY_OVERVIEW = 8;
+
+    /** Relevance of a hit by field mask: name > solution name > short description > overview. */
+    private static final float[] FIELD_WEIGHTS = new float[16];
+
+    static {
+        for (int mask = 0; mask < FIELD_WEIGHTS.length; mask++) {
+            FIELD_WEIGHTS[mask] = ((mask & NAME) != 0 ? 8f : 0f)
+                    + ((mask & SOLUTION) != 0 ? 4f : 0f)
+                    + ((mask & SHORT_DESCRIPTION) != 0 ? 2f : 0f)
+                    + ((mask & COMPANY_OVERVIEW) != 0 ? 1f : 0f);
+        }
+    }
+
+    /** Shorter query terms only match exactly, so "a" does not expand to half the dictionary. */
+    private static final int MIN_PREFIX_LENGTH = 2;
+    /** A prefix-only match ranks below an exact one. */
+    private static final float PREFIX_PENALTY = 0.5f;
+    private static final int MAX_QUERY_TERMS = 8;
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    public static final SearchIndex EMPTY = new SearchIndex(new String[0], new int[0][], new byte[0][], 0);
+
+    private final String[] terms;
+    private final int[][] rows;
+    private final byte[][] fields;
+    private final float[] idf;
+    private final int documents;
+
+    private SearchIndex(String[] terms, int[][] rows, byte[][] fields, int documents) {
+        this.terms = terms;
+        this.rows = rows;
+        this.fields = fields;
+        this.documents = documents;
+        this.idf = new float[terms.length];
+        for (int t = 0; t < terms.length; t++) {
+            idf[t] = (float) Math.log(1.0 + (double) documents / rows[t].length);
+        }
+    }
+
+    /**
+     * One page of ranked hits.
+     *
+     * @param total Number of rows matching the query.
+     * @param rows  Rows of the requested page, best first (ties in upstream order).
+     */
+    public record Hits(int total, int[] rows) {
+        static final Hits NONE = new Hits(0, new int[0]);
+    }
+
+    /** Indexes {@code partners}; rows are positions in that list. */
+    public static SearchIndex build(List<PartnerSolution> partners) {
+        Map<String, Postings> postings = new HashMap<>();
+        Map<String, Integer> rowTerms = new HashMap<>();
+
+        for (int row = 0; row < partners.size(); row++) {
+            PartnerSolution partner = partners.get(row);
+            rowTerms.clear();
+            collect(partner.partnerName(), NAME, rowTerms);
+            if (partner.solutions() != null) {
+                for (Solution solution : partner.solutions()) {
+                    collect(solution.displayName(), SOLUTION, rowTerms);
+                }
+            }
+            collect(partner.shortDescription(), SHORT_DESCRIPTION, rowTerms);
+            collect(partner.companyOverview(), COMPANY_OVERVIEW, rowTerms);
+
+            // Rows are visited in order, so every posting list comes out sorted
+            for (Map.Entry<String, Integer> term : rowTerms.entrySet()) {
+                postings.computeIfAbsent(term.getKey(), k -> new Postings()).add(row, term.getValue());
+            }
+        }
+
+        String[] terms = postings.keySet().toArray(String[]::new);
+        Arrays.sort(terms);
+        int[][] rows = new int[terms.length][];
+        byte[][] fields = new byte[terms.length][];
+        for (int t = 0; t < terms.length; t++) {
+            Postings list = postings.get(terms[t]);
+            rows[t] = Arrays.copyOf(list.rows, list.size);
+            fields[t] = Arrays.copyOf(list.fields, list.size);
+        }
+        return new SearchIndex(terms, rows, fields, partners.size());
+    }
+
+    /** Number of distinct indexed terms. */
+    public int terms() {
+        return terms.length;
+    }
+
+    /** Ranks the rows matching every term of {@code query} and returns [offset, offset + limit). */
+    public Hits search(String query, int offset, int limit) {
+        List<String> queryTerms = new ArrayList<>(4);
+        tokenize(query, term -> {
+            if (queryTerms.size() < MAX_QUERY_TERMS && !queryTerms.contains(term)) queryTerms.add(term);
+        });
+        if (queryTerms.isEmpty() || limit <= 0) return Hits.NONE;
+
+        List<Scored> matches = new ArrayList<>(queryTerms.size());
+        for (String term : queryTerms) {
+            Scored match = match(term);
+            if (match.size == 0) return Hits.NONE;
+            matches.add(match);
+        }
+        // Intersect from the most selective term up
+        matches.sort((a, b) -> Integer.compare(a.size, b.size));
+        Scored result = matches.get(0);
+        for (int i = 1; i < matches.size() && result.size > 0; i++) {
+            result = result.intersect(matches.get(i));
+        }
+        return new Hits(result.size, result.top(offset, limit));
+    }
+
+    /** Rows matching one query term, exactly or as a prefix, with their scores. */
+    private Scored match(String term) {
+        int from = lowerBound(term);
+        int to = from;
+        if (term.length() < MIN_PREFIX_LENGTH) {
+            if (from < terms.length && terms[from].equals(term)) to = from + 1;
+        } else {
+            while (to < terms.length && terms[to].startsWith(term)) to++;
+        }
+        if (to - from == 0) return Scored.EMPTY;
+        if (to - from == 1) return Scored.of(rows[from], fields[from], factor(from, term));
+
+        // Each row keeps its best score over all expanded terms; scores are always positive
+        float[] best = new float[documents];
+        int matched = 0;
+        for (int t = from; t < to; t++) {
+            float factor = factor(t, term);
+            int[] termRows = rows[t];
+            byte[] termFields = fields[t];
+            for (int i = 0; i < termRows.length; i++) {
+                float score = FIELD_WEIGHTS[termFields[i]] * factor;
+                float previous = best[termRows[i]];
+                if (previous == 0f) matched++;
+                if (score > previous) best[termRows[i]] = score;
+            }
+        }
+        int[] matchedRows = new int[matched];
+        float[] scores = new float[matched];
+        for (int row = 0, n = 0; n < matched; row++) {
+            if (best[row] > 0f) {
+                matchedRows[n] = row;
+                scores[n++] = best[row];
+            }
+        }
+        return new Scored(matchedRows, scores, matched);
+    }
+
+    /** Score multiplier of indexed term {@code t} for query term {@code term}. */
+    private float factor(int t, String term) {
+        return idf[t] * (terms[t].length() == term.length() ? 1f : PREFIX_PENALTY);
+    }
+
+    private int lowerBound(String term) {
+        int low = 0;
+        int high = terms.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (terms[mid].compareTo(term) < 0) low = mid + 1;
+            else high = mid;
+        }
+        return low;
+    }
+
+    private static void collect(String text, int field, Map<String, Integer> rowTerms) {
+        tokenize(text, term -> rowTerms.merge(term, field, (a, b) -> a | b));
+    }
+
+    /** Splits {@code text} into lower-cased, accent-folded runs of letters and digits. */
+    static void tokenize(String text, Consumer<String> sink) {
+        if (text == null || text.isEmpty()) return;
+        int length = text.length();
+        int start = -1;
+        boolean ascii = true;
+        for (int i = 0; i <= length; i++) {
+            char c = i < length ? text.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                if (start < 0) {
+                    start = i;
+                    ascii = true;
+                }
+                if (c > 0x7f) ascii = false;
+            } else if (start >= 0) {
+                sink.accept(normalize(text.substring(start, i), ascii));
+                start = -1;
+            }
+        }
+    }
+
+    private static String normalize(String token, boolean ascii) {
+        if (ascii) return token.toLowerCase(Locale.ROOT);
+        String folded = COMBINING_MARKS.matcher(Normalizer.normalize(token, Normalizer.Form.NFD)).replaceAll("");
+        return folded.toLowerCase(Locale.ROOT);
+    }
+
+    /** Growable posting list used while building. */
+    private static final class Postings {
+        private int[] rows = new int[4];
+        private byte[] fields = new byte[4];
+        private int size;
+
+        void add(int row, int fieldMask) {
+            if (size == rows.length) {
+                rows = Arrays.copyOf(rows, size * 2);
+                fields = Arrays.copyOf(fields, size * 2);
+            }
+            rows[size] = row;
+            fields[size] = (byte) fieldMask;
+            size++;
+        }
+    }
+
+    /** Rows in ascending order with a score each. */
+    private static final class Scored {
+
+        static final Scored EMPTY = new Scored(new int[0], new float[0], 0);
+
+        final int[] rows;
+        final float[] scores;
+        final int size;
+
+        Scored(int[] rows, float[] scores, int size) {
+            this.rows = rows;
+            this.scores = scores;
+            this.size = size;
+        }
+
+        static Scored of(int[] rows, byte[] fields, float factor) {
+            float[] scores = new float[rows.length];
+            for (int i = 0; i < rows.length; i++) {
+                scores[i] = FIELD_WEIGHTS[fields[i]] * factor;
+            }
+            return new Scored(rows, scores, rows.length);
+        }
+
+        /** Rows in both lists, scores summed. */
+        Scored intersect(Scored other) {
+            int[] outRows = new int[Math.min(size, other.size)];
+            float[] outScores = new float[outRows.length];
+            int i = 0, j = 0, n = 0;
+            while (i < size && j < other.size) {
+                if (rows[i] < other.rows[j]) {
+                    i++;
+                } else if (other.rows[j] < rows[i]) {
+                    j++;
+                } else {
+                    outRows[n] = rows[i];
+                    outScores[n++] = scores[i++] + other.scores[j++];
+                }
+            }
+            return new Scored(outRows, outScores, n);
+        }
+
+        /** Positions [offset, offset + limit) of the ranking, via a bounded min-heap. */
+        int[] top(int offset, int limit) {
+            int k = (int) Math.min(size, (long) offset + limit);
+            if (offset >= k) return new int[0];
+
+            // heap holds indexes into rows/scores; its root is the weakest of the best k so far
+            int[] heap = new int[k];
+            int heapSize = 0;
+            for (int i = 0; i < size; i++) {
+                if (heapSize < k) {
+                    heap[heapSize] = i;
+                    siftUp(heap, heapSize++);
+                } else if (better(i, heap[0])) {
+                    heap[0] = i;
+                    siftDown(heap, heapSize);
+                }
+            }
+
+            // Drain weakest first, filling the ranking from the back
+            int[] ranked = new int[k];
+            for (int r = k - 1; r >= 0; r--) {
+                ranked[r] = rows[heap[0]];
+                heap[0] = heap[--heapSize];
+                siftDown(heap, heapSize);
+            }
+            return Arrays.copyOfRange(ranked, offset, k);
+        }
+
+        /** Higher score first; equal scores in upstream order. */
+        private boolean better(int a, int b) {
+            return scores[a] > scores[b] || (scores[a] == scores[b] && rows[a] < rows[b]);
+        }
+
+        private void siftUp(int[] heap, int index) {
+            while (index > 0) {
+                int parent = (index - 1) >>> 1;
+                if (!better(heap[parent], heap[index])) break;
+                swap(heap, parent, index);
+                index = parent;
+            }
+        }
+
+        private void siftDown(int[] heap, int heapSize) {
+            int index = 0;
+            while (true) {
+                int left = 2 * index + 1;
+                if (left >= heapSize) break;
+                int weaker = left;
+                if (left + 1 < heapSize && better(heap[left], heap[left + 1])) weaker = left + 1;
+                if (!better(heap[index], heap[weaker])) break;
+                swap(heap, index, weaker);
+                index = weaker;
+            }
+        }
+
+        private static void swap(int[] heap, int a, int b) {
+            int tmp = heap[a];
+            heap[a] = heap[b];
+            heap[b] = tmp;
+        }
+    }
+}
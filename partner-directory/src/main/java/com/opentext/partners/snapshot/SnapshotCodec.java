@@ -0,0 +1,119 @@
+package com.opentext.partners.snapshot;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.zip.CRC32C;
+
+/**
+ * Compact binary form of a snapshot, shared by {@link SnapshotFile} and the Redis L2 tier.
+ *
+ * Layout: a fixed {@value #HEADER_BYTES}-byte header (magic, format version, snapshot version,
+ * creation time, payload length, CRC32C of the payload) followed by a {@link CompactPartnerStore}
+ * as written by {@link CompactPartnerStore#writeTo}. The header alone is enough to tell which
+ * version a blob holds, so peers can compare versions without transferring the payload.
+ */
+public final class SnapshotCodec {
+
+    public static final int HEADER_BYTES = 40;
+
+    private static final int MAGIC = 0x50445331; // "PDS1"
+    /** Bump whenever the header or the CompactPartnerStore column layout changes. */
+    private static final int FORMAT_VERSION = 1;
+
+    /**
+     * What an encoded snapshot's header says.
+     *
+     * @param version      Version the snapshot had when it was encoded.
+     * @param createdAt    When it was originally published.
+     * @param payloadBytes Length of the payload after the header.
+     * @param checksum     CRC32C of the payload.
+     */
+    public record Header(long version, Instant createdAt, long payloadBytes, long checksum) {}
+
+    /**
+     * A decoded snapshot.
+     *
+     * @param version   Version the snapshot had when it was encoded.
+     * @param createdAt When it was originally published.
+     * @param store     Its partners; texts are read from the decoded buffer.
+     */
+    public record Decoded(long version, Instant createdAt, CompactPartnerStore store) {}
+
+    private SnapshotCodec() {
+    }
+
+    /** Encodes header and payload into one array. */
+    public static byte[] encode(PartnerSnapshot snapshot) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(1 << 20);
+        try {
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.write(new byte[HEADER_BYTES]);
+            CompactPartnerStore.of(snapshot.all(), false).writeTo(out);
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // Cannot happen on a byte array
+        }
+
+        byte[] encoded = bytes.toByteArray();
+        CRC32C crc = new CRC32C();
+        crc.update(encoded, HEADER_BYTES, encoded.length - HEADER_BYTES);
+        ByteBuffer.wrap(encoded)
+                .putInt(MAGIC)
+                .putInt(FORMAT_VERSION)
+                .putLong(snapshot.version())
+                .putLong(snapshot.createdAt().toEpochMilli())
+                .putLong(encoded.length - HEADER_BYTES)
+                .putLong(crc.getValue());
+        return encoded;
+    }
+
+    /**
+     * Reads the header at the start of {@code buffer}.
+     *
+     * @param source Named in error messages.
+     * @throws IOException if it is not a snapshot of this format version.
+     */
+    public static Header header(ByteBuffer buffer, String source) throws IOException {
+        if (buffer.remaining() < HEADER_BYTES || buffer.getInt(buffer.position()) != MAGIC) {
+            throw new IOException(source + " is not a partner snapshot");
+        }
+        int start = buffer.position();
+        int format = buffer.getInt(start + 4);
+        if (format != FORMAT_VERSION) {
+            throw new IOException(source + " has format version " + format + ", expected " + FORMAT_VERSION);
+        }
+        return new Header(buffer.getLong(start + 8), Instant.ofEpochMilli(buffer.getLong(start + 16)),
+                buffer.getLong(start + 24), buffer.getLong(start + 32));
+    }
+
+    /**
+     * Decodes a whole encoded snapshot after verifying length and checksum. The store's text arena
+     * stays a view of {@code buffer}.
+     *
+     * @param source Named in error messages.
+     * @throws IOException if the snapshot is corrupt, truncated or of another format version.
+     */
+    public static Decoded decode(ByteBuffer buffer, String source) throws IOException {
+        Header header = header(buffer, source);
+        long available = buffer.remaining() - HEADER_BYTES;
+        if (header.payloadBytes() != available) {
+            throw new IOException(source + " is truncated (" + available + " of " + header.payloadBytes() + " payload bytes)");
+        }
+
+        ByteBuffer payload = buffer.slice(buffer.position() + HEADER_BYTES, (int) available);
+        CRC32C crc = new CRC32C();
+        crc.update(payload.duplicate());
+        if (crc.getValue() != header.checksum()) {
+            throw new IOException(source + " failed its checksum");
+        }
+        try {
+            return new Decoded(header.version(), header.createdAt(), CompactPartnerStore.read(payload));
+        } catch (IllegalArgumentException e) {
+            throw new IOException(source + ": " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.opentext.partners.snapshot;
+
+import com.opentext.partners.snapshot.SnapshotCodec.Decoded;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+
+/**
+ * Local copy of the last published snapshot, so a restart serves data in milliseconds instead of
+ * after a full crawl. Selected with {@code partners.snapshot.file}, see SnapshotConfig.
+ *
+ * The file holds one {@link SnapshotCodec} blob. Files are written next to the target and moved
+ * into place atomically, so a crash mid-write leaves the previous file intact. Loading memory-maps
+ * the file and rejects it unless magic, format version, length and checksum all match.
+ */
+public final class SnapshotFile {
+
+    /** No file: nothing is saved and nothing restored. */
+    public static final SnapshotFile NONE = new SnapshotFile(null);
+
+    private final Path path;
+
+    private SnapshotFile(Path path) {
+        this.path = path;
+    }
+
+    public static SnapshotFile at(Path path) {
+        return new SnapshotFile(path);
+    }
+
+    public boolean isEnabled() {
+        return path != null;
+    }
+
+    public Path path() {
+        return path;
+    }
+
+    /**
+     * Writes {@code snapshot}, replacing the previous file atomically.
+     *
+     * @return Bytes written; 0 when disabled.
+     */
+    public long save(PartnerSnapshot snapshot) throws IOException {
+        if (path == null) return 0;
+        Path directory = path.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+        try {
+            ByteBuffer encoded = ByteBuffer.wrap(SnapshotCodec.encode(snapshot));
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                while (encoded.hasRemaining()) {
+                    channel.write(encoded);
+                }
+                channel.force(true);
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return encoded.capacity();
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Reads the saved snapshot back.
+     *
+     * @return Empty when there is no file.
+     * @throws IOException if the file cannot be read, or is corrupt, truncated or of another format version.
+     */
+    public Optional<Decoded> load() throws IOException {
+        if (path == null) return Optional.empty();
+        MappedByteBuffer mapped;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        }
+        return Optional.of(SnapshotCodec.decode(mapped, path.toString()));
+    }
+}
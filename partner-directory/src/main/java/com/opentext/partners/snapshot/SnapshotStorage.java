@@ -0,0 +1,24 @@
+package com.opentext.partners.snapshot;
+
+import com.opentext.partners.model.JoinedPartnerDto.PartnerSolution;
+
+import java.util.List;
+
+/**
+ * How a freshly joined list is laid out in memory once published as a {@link PartnerSnapshot}.
+ * Selected with {@code partners.snapshot.storage}, see SnapshotConfig.
+ */
+@FunctionalInterface
+public interface SnapshotStorage {
+
+    /** Plain immutable list of {@link PartnerSolution} records. */
+    SnapshotStorage HEAP = PartnerSnapshot::of;
+
+    /** Columnar {@link CompactPartnerStore} with its text arena on the Java heap. */
+    SnapshotStorage COMPACT = (version, partners) -> PartnerSnapshot.compact(version, partners, false);
+
+    /** Columnar {@link CompactPartnerStore} with its text arena in a direct (off-heap) buffer. */
+    SnapshotStorage COMPACT_OFF_HEAP = (version, partners) -> PartnerSnapshot.compact(version, partners, true);
+
+    PartnerSnapshot build(long version, List<PartnerSolution> partners);
+}
@@ -0,0 +1,27 @@
+package com.opentext.partners.snapshot;
+
+import java.util.Locale;
+
+/** Orders the directory can be served in. All but UPSTREAM are presorted once per snapshot. */
+public enum SortOrder {
+
+    /** As returned by the upstream partner endpoint. */
+    UPSTREAM,
+    /** Partner name, case-insensitive. */
+    NAME,
+    /** Partner level, case-insensitive, then name. */
+    LEVEL,
+    /** Most solutions first, then name. */
+    SOLUTIONS;
+
+    /** Parses the API value ("upstream", "name", "level", "solutions"); null or blank means UPSTREAM. */
+    public static SortOrder parse(String value) {
+        if (value == null || value.isBlank()) return UPSTREAM;
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(
+                    "Unknown sort '" + value + "' (expected 'upstream', 'name', 'level' or 'solutions')");
+        }
+    }
+}
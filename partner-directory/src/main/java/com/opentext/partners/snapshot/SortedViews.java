@@ -0,0 +1,74 @@
+package com.opentext.partners.snapshot;
+
+import com.opentext.partners.model.JoinedPartnerDto.PartnerSolution;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Presorted row orders of one snapshot, one {@code int[]} permutation per {@link SortOrder},
+ * computed once at refresh time so a sorted page is an array window instead of a sort.
+ */
+public final class SortedViews {
+
+    public static final SortedViews EMPTY = build(List.of());
+
+    private final int size;
+    private final Map<SortOrder, int[]> orders;
+
+    private SortedViews(int size, Map<SortOrder, int[]> orders) {
+        this.size = size;
+        this.orders = orders;
+    }
+
+    /** Sorts the rows of {@code partners}; ties keep upstream order. */
+    public static SortedViews build(List<PartnerSolution> partners) {
+        int size = partners.size();
+        // Sort keys are extracted once per row, not once per comparison
+        String[] names = new String[size];
+        String[] levels = new String[size];
+        int[] solutions = new int[size];
+        for (int row = 0; row < size; row++) {
+            PartnerSolution partner = partners.get(row);
+            names[row] = sortKey(partner.partnerName());
+            levels[row] = sortKey(partner.partnerLevel());
+            solutions[row] = partner.solutions() != null ? partner.solutions().size() : 0;
+        }
+
+        Comparator<Integer> byName = Comparator.comparing(row -> names[row], Comparator.nullsLast(Comparator.naturalOrder()));
+        Map<SortOrder, int[]> orders = new EnumMap<>(SortOrder.class);
+        orders.put(SortOrder.NAME, sort(size, byName));
+        orders.put(SortOrder.LEVEL, sort(size,
+                Comparator.<Integer, String>comparing(row -> levels[row], Comparator.nullsLast(Comparator.naturalOrder()))
+                        .thenComparing(byName)));
+        orders.put(SortOrder.SOLUTIONS, sort(size,
+                Comparator.<Integer>comparingInt(row -> -solutions[row]).thenComparing(byName)));
+        return new SortedViews(size, orders);
+    }
+
+    /** Number of rows in every order. */
+    public int size() {
+        return size;
+    }
+
+    /** Row at {@code position} of {@code order}. */
+    public int row(SortOrder order, int position) {
+        return order == SortOrder.UPSTREAM ? position : orders.get(order)[position];
+    }
+
+    private static int[] sort(int size, Comparator<Integer> comparator) {
+        // Stable sort, so equal keys stay in upstream order
+        Integer[] rows = IntStream.range(0, size).boxed().toArray(Integer[]::new);
+        Arrays.sort(rows, comparator);
+        return Arrays.stream(rows).mapToInt(Integer::intValue).toArray();
+    }
+
+    private static String sortKey(String value) {
+        return value == null || value.isBlank() ? null : value.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,70 @@
+package com.opentext.partners.perf;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.opentext.partners.fetch.AssetStreamDecoder;
+import com.opentext.partners.model.PartnerModels.RawPartner;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoding a whole partner crawl (pages of 500) with the streaming AssetStreamDecoder against
+ * binding each page to a JsonNode tree first and converting the records from it.
+ * Each page arrives as 8 KB buffers, like a network read. Run with -prof gc for allocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DecodeBenchmark {
+
+    private static final int PAGE_SIZE = 500;
+    private static final int CHUNK = 8192;
+
+    @Param({"1000", "10000", "100000"})
+    int partners;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private List<byte[]> pages;
+
+    @Setup
+    public void setUp() {
+        pages = SyntheticCatalog.upstreamPages(SyntheticCatalog.rawPartners(partners), "Partners", "Partner", PAGE_SIZE);
+    }
+
+    @Benchmark
+    public void streamDecoder(Blackhole blackhole) {
+        for (byte[] page : pages) {
+            AssetStreamDecoder<RawPartner> decoder =
+                    new AssetStreamDecoder<>(objectMapper, "Partners", "Partner", RawPartner.class);
+            blackhole.consume(decoder.decode(chunks(page)).collectList().block());
+        }
+    }
+
+    @Benchmark
+    public void treeBinding(Blackhole blackhole) throws IOException {
+        for (byte[] page : pages) {
+            JsonNode root = objectMapper.readTree(page);
+            for (JsonNode asset : root.path("results").path("assets")) {
+                blackhole.consume(objectMapper.treeToValue(
+                        asset.path("contentJson").path("Partners").path("Partner"), RawPartner.class));
+            }
+        }
+    }
+
+    private static Flux<DataBuffer> chunks(byte[] page) {
+        return Flux.range(0, (page.length + CHUNK - 1) / CHUNK)
+                .map(i -> DefaultDataBufferFactory.sharedInstance.wrap(
+                        ByteBuffer.wrap(page, i * CHUNK, Math.min(CHUNK, page.length - i * CHUNK)).slice()));
+    }
+}
@@ -0,0 +1,61 @@
+package com.opentext.partners.perf;
+
+import com.opentext.partners.model.CursorPage;
+import com.opentext.partners.model.JoinedPartnerDto.PartnerSolution;
+import com.opentext.partners.snapshot.FacetFilter;
+import com.opentext.partners.snapshot.PageCursor;
+import com.opentext.partners.snapshot.PartnerSnapshot;
+import com.opentext.partners.snapshot.SortOrder;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A page 90% deep into the name-sorted directory filtered to partners with solutions:
+ * offset paging walks the presorted order up to the page, a cursor resumes right at it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DeepPagingBenchmark {
+
+    private static final int PAGE_SIZE = 12;
+
+    @Param({"10000", "100000"})
+    int partners;
+
+    private PartnerSnapshot snapshot;
+    private FacetFilter filter;
+    private int deepPage;
+    private String deepCursor;
+
+    @Setup
+    public void setUp() {
+        snapshot = PartnerSnapshot.of(1L, SyntheticCatalog.joinedPartners(partners));
+        filter = FacetFilter.of(List.of(), List.of(), true);
+        deepPage = snapshot.withSolutions().size() * 9 / 10 / PAGE_SIZE;
+
+        // Walk once to obtain the cursor of the same page
+        PageCursor cursor = PageCursor.first(snapshot.version(), SortOrder.NAME, filter);
+        for (int page = 0; page < deepPage; page++) {
+            cursor = PageCursor.decode(snapshot.scroll(cursor, PAGE_SIZE).nextCursor());
+        }
+        deepCursor = cursor.encode();
+    }
+
+    @Benchmark
+    public Page<PartnerSolution> offset() {
+        return snapshot.page(PageRequest.of(deepPage, PAGE_SIZE), filter, SortOrder.NAME);
+    }
+
+    @Benchmark
+    public CursorPage<PartnerSolution> cursor() {
+        return snapshot.scroll(PageCursor.decode(deepCursor), PAGE_SIZE);
+    }
+}
@@ -0,0 +1,66 @@
+package com.opentext.partners.perf;
+
+import com.opentext.partners.model.JoinedPartnerDto.PartnerSolution;
+import com.opentext.partners.snapshot.FacetFilter;
+import com.opentext.partners.snapshot.FacetIndex.FacetCounts;
+import com.opentext.partners.snapshot.PartnerSnapshot;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Multi-facet filtering (two levels, one type, with solutions) as a stream scan versus the
+ * snapshot's bitset indexes, plus the cost of the facet counts sent with every page.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FacetBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    int partners;
+
+    private static final Set<String> LEVELS = Set.of("Gold", "Platinum");
+    private static final String TYPE = "Technology";
+
+    private PartnerSnapshot snapshot;
+    private FacetFilter filter;
+    private Pageable pageable;
+
+    @Setup
+    public void setUp() {
+        snapshot = PartnerSnapshot.of(1L, SyntheticCatalog.joinedPartners(partners));
+        filter = FacetFilter.of(LEVELS, List.of(TYPE), true);
+        pageable = PageRequest.of(2, 12);
+    }
+
+    @Benchmark
+    public Page<PartnerSolution> streamScan() {
+        List<PartnerSolution> filtered = snapshot.all().stream()
+                .filter(p -> LEVELS.contains(p.partnerLevel()) && TYPE.equals(p.partnerType()))
+                .filter(p -> p.solutions() != null && !p.solutions().isEmpty())
+                .toList();
+        int start = (int) Math.min(pageable.getOffset(), filtered.size());
+        int end = Math.min(start + pageable.getPageSize(), filtered.size());
+        return new PageImpl<>(filtered.subList(start, end), pageable, filtered.size());
+    }
+
+    @Benchmark
+    public Page<PartnerSolution> bitsetPage() {
+        return snapshot.page(pageable, filter);
+    }
+
+    @Benchmark
+    public FacetCounts facetCounts() {
+        return snapshot.facets().counts(filter);
+    }
+}
@@ -0,0 +1,83 @@
+package com.opentext.partners.perf;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares two JMH JSON result files (-rf json), benchmark by benchmark and parameter set:
+ * score of each run, the change, and allocated bytes per operation where -prof gc was on.
+ * Changes inside the combined error margins are marked with '~'.
+ *
+ * Run with: mvn -Pperf exec:exec -Dperf.main=com.opentext.partners.perf.JmhCompare
+ * -Dperf.args="baseline.json target/jmh-result.json" (the baseline, then the results to compare with it).
+ */
+public final class JmhCompare {
+
+    private record Result(double score, double error, String unit, double allocPerOp) {}
+
+    private JmhCompare() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        String baseline = null;
+        String current = null;
+        for (String arg : args) {
+            if (!arg.endsWith(".json")) continue;
+            if (baseline == null) baseline = arg;
+            else current = arg;
+        }
+        if (baseline == null || current == null) {
+            System.err.println("Usage: JmhCompare <baseline.json> <current.json>");
+            System.exit(2);
+        }
+
+        Map<String, Result> before = read(new File(baseline));
+        Map<String, Result> after = read(new File(current));
+        System.out.printf("%-70s %14s %14s %9s %14s %14s%n", "benchmark", "baseline", "current", "change", "B/op before", "B/op after");
+        for (Map.Entry<String, Result> entry : after.entrySet()) {
+            Result now = entry.getValue();
+            Result then = before.get(entry.getKey());
+            if (then == null) {
+                System.out.printf("%-70s %14s %14.3f %9s %14s %14s%n", entry.getKey(), "-", now.score(), "new", "-", bytes(now));
+                continue;
+            }
+            double change = (now.score() - then.score()) / then.score() * 100;
+            boolean withinNoise = Math.abs(now.score() - then.score()) <= now.error() + then.error();
+            System.out.printf("%-70s %14.3f %14.3f %8.1f%%%s %13s %14s%n", entry.getKey(), then.score(), now.score(),
+                    change, withinNoise ? "~" : " ", bytes(then), bytes(now));
+        }
+    }
+
+    /** Results keyed by "Benchmark.method [param=value, ...] (unit)" */
+    private static Map<String, Result> read(File file) throws IOException {
+        Map<String, Result> results = new LinkedHashMap<>();
+        for (JsonNode run : new ObjectMapper().readTree(file)) {
+            String benchmark = run.path("benchmark").asText();
+            benchmark = benchmark.substring(benchmark.lastIndexOf('.', benchmark.lastIndexOf('.') - 1) + 1);
+            Map<String, String> params = new TreeMap<>();
+            for (Map.Entry<String, JsonNode> field : run.path("params").properties()) {
+                params.put(field.getKey(), field.getValue().asText());
+            }
+
+            JsonNode primary = run.path("primaryMetric");
+            double alloc = Double.NaN;
+            for (Map.Entry<String, JsonNode> metric : run.path("secondaryMetrics").properties()) {
+                if (metric.getKey().endsWith("gc.alloc.rate.norm")) alloc = metric.getValue().path("score").asDouble();
+            }
+            String unit = primary.path("scoreUnit").asText();
+            results.put(benchmark + (params.isEmpty() ? "" : " " + params) + " (" + unit + ")",
+                    new Result(primary.path("score").asDouble(), primary.path("scoreError").asDouble(0), unit, alloc));
+        }
+        return results;
+    }
+
+    private static String bytes(Result result) {
+        return Double.isNaN(result.allocPerOp()) ? "-" : String.format("%.0f", result.allocPerOp());
+    }
+}
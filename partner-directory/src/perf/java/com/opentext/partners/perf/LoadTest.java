@@ -0,0 +1,275 @@
+package com.opentext.partners.perf;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.opentext.partners.PartnerDirectoryApplication;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Load test of the read endpoints while refreshes keep publishing new snapshots.
+ *
+ * By default starts an {@link UpstreamSimulator} (with churn, so refreshes have changes to join) and
+ * the application against it, on free ports, with the snapshot file off and refresh throttling at
+ * one second. Then keeps {@code concurrency} requests in flight for {@code duration} seconds, mostly
+ * /api/partners pages (random page, size, filters and sort, gzip accepted) and a share of full
+ * /api/partners/joined-json downloads, while /api/refresh is triggered every {@code refresh-every}
+ * seconds. Reports, per endpoint, requests, throughput, p50/p90/p99/max latency and errors, plus the
+ * snapshots published during the run.
+ *
+ * Run with: mvn -Pperf test-compile exec:exec -Dperf.main=com.opentext.partners.perf.LoadTest
+ * -Dperf.args="concurrency=128 duration=60"
+ * Options (key=value): concurrency (64), duration (30 s), warmup (5 s), refresh-every (5 s),
+ * joined-share (0.02), the UpstreamSimulator options (partners, solutions, latency, jitter, error-rate,
+ * rate-limit, churn; defaults 20000, 20000, 20, 10, 0, 0, 0.01), any partners.*, server.* or spring.*
+ * property passed on to the application (e.g. spring.profiles.active=reactive for the WebFlux API),
+ * and target=http://host:port to load an already running application instead (no simulator or
+ * application is started then).
+ */
+public final class LoadTest {
+
+    /** Latencies up to one minute, three significant digits */
+    private static final long MAX_LATENCY_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private static final String[] SIZES = {"10", "20", "50"};
+    private static final String[] SORTS = {"", "&sort=name", "&sort=level", "&sort=solutions"};
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String target;
+
+    private LoadTest(String target) {
+        this.target = target;
+    }
+
+    /** Measured figures of one endpoint; latencies in milliseconds. */
+    public record Result(String endpoint, long requests, double perSecond, double p50, double p90, double p99,
+                         double max, long errors, double megabytesPerSecond) {}
+
+    /** Per-endpoint counters; reset after the warm-up */
+    private static final class EndpointStats {
+        final Histogram latency = new ConcurrentHistogram(MAX_LATENCY_NANOS, 3);
+        final LongAdder errors = new LongAdder();
+        final LongAdder bytes = new LongAdder();
+
+        void reset() {
+            latency.reset();
+            errors.reset();
+            bytes.reset();
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        load(new PerfOptions(args));
+    }
+
+    /** Runs one load test as configured by {@code options} (see the class comment), printing and returning the results. */
+    static List<Result> load(PerfOptions options) throws Exception {
+        // devtools (on the test classpath) would otherwise re-run the main class in a restart class loader
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        int concurrency = options.integer("concurrency", 64);
+        Duration duration = options.seconds("duration", 30);
+        Duration warmup = options.seconds("warmup", 5);
+        Duration refreshEvery = options.seconds("refresh-every", 5);
+        double joinedShare = options.decimal("joined-share", 0.02);
+
+        String target = options.string("target", null);
+        UpstreamSimulator simulator = null;
+        ConfigurableApplicationContext application = null;
+        try {
+            if (target == null) {
+                UpstreamSimulator.Behaviour behaviour = UpstreamSimulator.Behaviour.of(withDefaults(options));
+                simulator = new UpstreamSimulator(behaviour).start();
+                application = SpringApplication.run(PartnerDirectoryApplication.class, applicationArgs(options, simulator));
+                target = "http://127.0.0.1:" + ((WebServerApplicationContext) application).getWebServer().getPort();
+                System.out.printf("Upstream: %s%n", behaviour);
+            }
+            LoadTest test = new LoadTest(target);
+            long version = test.awaitFirstSnapshot(Duration.ofMinutes(5));
+            System.out.printf("Target %s serving snapshot %d; %d in flight, %d s warm-up, %d s measured, refresh every %d s%n",
+                    target, version, concurrency, warmup.toSeconds(), duration.toSeconds(), refreshEvery.toSeconds());
+            List<Result> results = test.run(concurrency, warmup, duration, refreshEvery, joinedShare);
+            if (simulator != null) {
+                System.out.printf("Upstream saw %d requests, %d answered 503, %d answered 429%n",
+                        simulator.requests(), simulator.failed(), simulator.throttled());
+            }
+            return results;
+        } finally {
+            if (application != null) application.close();
+            if (simulator != null) simulator.close();
+        }
+    }
+
+    /** Churn and jitter on by default here, unlike the simulator's own defaults */
+    private static PerfOptions withDefaults(PerfOptions options) {
+        return new PerfOptions(new String[] {"latency=20", "jitter=10", "churn=0.01"}).with(options.all());
+    }
+
+    private static String[] applicationArgs(PerfOptions options, UpstreamSimulator simulator) {
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("server.port", "0");
+        properties.put("partners.upstream.base-url", simulator.baseUrl());
+        properties.put("partners.upstream.rate-limit.permits-per-second", "0");
+        properties.put("partners.snapshot.file", "");
+        properties.put("partners.refresh.min-interval", "1s");
+        properties.put("spring.main.banner-mode", "off");
+        properties.put("logging.level.root", "WARN");
+        for (String option : options.all()) {
+            if (option.startsWith("partners.") || option.startsWith("server.") || option.startsWith("spring.")
+                    || option.startsWith("logging.")) {
+                int equals = option.indexOf('=');
+                properties.put(option.substring(0, equals), option.substring(equals + 1));
+            }
+        }
+        return properties.entrySet().stream().map(e -> "--" + e.getKey() + "=" + e.getValue()).toArray(String[]::new);
+    }
+
+    private long awaitFirstSnapshot(Duration timeout) throws Exception {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            long version = snapshotVersion();
+            if (version > 0) return version;
+            Thread.sleep(250);
+        }
+        throw new IllegalStateException("No snapshot published within " + timeout);
+    }
+
+    private long snapshotVersion() throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(target + "/api/refresh/status")).GET().build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        JsonNode status = objectMapper.readTree(response.body());
+        return status.path("snapshotVersion").asLong();
+    }
+
+    private List<Result> run(int concurrency, Duration warmup, Duration duration, Duration refreshEvery, double joinedShare)
+            throws Exception {
+        Map<String, EndpointStats> stats = new LinkedHashMap<>();
+        stats.put("partners", new EndpointStats());
+        stats.put("joined-json", new EndpointStats());
+
+        long firstVersion = snapshotVersion();
+        AtomicLong refreshes = new AtomicLong();
+        long endAt = System.nanoTime() + warmup.toNanos() + duration.toNanos();
+
+        Thread refresher = new Thread(() -> {
+            while (System.nanoTime() < endAt) {
+                try {
+                    Thread.sleep(refreshEvery.toMillis());
+                    int status = client.send(get("/api/refresh"), HttpResponse.BodyHandlers.discarding()).statusCode();
+                    if (status == 202) refreshes.incrementAndGet();
+                } catch (InterruptedException e) {
+                    return;
+                } catch (Exception e) {
+                    System.err.println("Refresh trigger failed: " + e);
+                }
+            }
+        }, "load-test-refresher");
+        refresher.setDaemon(true);
+        refresher.start();
+
+        // Closed model: every worker sends its next request when the previous one completed
+        List<CompletableFuture<Void>> workers = new ArrayList<>();
+        for (int i = 0; i < concurrency; i++) {
+            CompletableFuture<Void> done = new CompletableFuture<>();
+            next(stats, joinedShare, endAt, done);
+            workers.add(done);
+        }
+
+        Thread.sleep(warmup.toMillis());
+        stats.values().forEach(EndpointStats::reset);
+        long measuredFrom = System.nanoTime();
+        CompletableFuture.allOf(workers.toArray(CompletableFuture[]::new)).join();
+        double seconds = (System.nanoTime() - measuredFrom) / 1e9;
+        refresher.interrupt();
+
+        List<Result> results = new ArrayList<>();
+        stats.forEach((name, s) -> {
+            Histogram h = s.latency;
+            results.add(new Result(name, h.getTotalCount(), h.getTotalCount() / seconds,
+                    millis(h.getValueAtPercentile(50)), millis(h.getValueAtPercentile(90)),
+                    millis(h.getValueAtPercentile(99)), millis(h.getMaxValue()),
+                    s.errors.sum(), s.bytes.sum() / seconds / 1e6));
+        });
+        print(results);
+        long lastVersion = snapshotVersion();
+        System.out.printf("Refreshes triggered: %d; snapshots published: %d (version %d -> %d)%n",
+                refreshes.get(), lastVersion - firstVersion, firstVersion, lastVersion);
+        return results;
+    }
+
+    /** Prints {@code results} as a table. */
+    static void print(List<Result> results) {
+        System.out.printf("%-24s %10s %10s %9s %9s %9s %9s %8s %10s%n",
+                "endpoint", "requests", "req/s", "p50 ms", "p90 ms", "p99 ms", "max ms", "errors", "MB/s");
+        for (Result r : results) {
+            System.out.printf("%-24s %10d %10.1f %9.2f %9.2f %9.2f %9.2f %8d %10.2f%n", r.endpoint(),
+                    r.requests(), r.perSecond(), r.p50(), r.p90(), r.p99(), r.max(), r.errors(), r.megabytesPerSecond());
+        }
+    }
+
+    private void next(Map<String, EndpointStats> stats, double joinedShare, long endAt, CompletableFuture<Void> done) {
+        if (System.nanoTime() >= endAt) {
+            done.complete(null);
+            return;
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        boolean joined = random.nextDouble() < joinedShare;
+        EndpointStats endpoint = stats.get(joined ? "joined-json" : "partners");
+        HttpRequest request = joined ? get("/api/partners/joined-json") : get(randomPageQuery(random));
+
+        long startedAt = System.nanoTime();
+        client.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray()).whenComplete((response, error) -> {
+            long elapsed = System.nanoTime() - startedAt;
+            if (error != null || response.statusCode() >= 400) {
+                endpoint.errors.increment();
+            } else {
+                endpoint.latency.recordValue(Math.min(elapsed, MAX_LATENCY_NANOS));
+                endpoint.bytes.add(response.body().length);
+            }
+            next(stats, joinedShare, endAt, done);
+        });
+    }
+
+    private static String randomPageQuery(ThreadLocalRandom random) {
+        StringBuilder query = new StringBuilder("/api/partners?page=").append(random.nextInt(20))
+                .append("&size=").append(SIZES[random.nextInt(SIZES.length)])
+                .append(SORTS[random.nextInt(SORTS.length)]);
+        if (random.nextInt(4) == 0) query.append("&hasSolutions=true");
+        if (random.nextInt(3) == 0) query.append("&partnerLevel=").append(SyntheticCatalog.LEVELS[random.nextInt(SyntheticCatalog.LEVELS.length)]);
+        if (random.nextInt(3) == 0) query.append("&partnerType=").append(SyntheticCatalog.TYPES[random.nextInt(SyntheticCatalog.TYPES.length)]);
+        return query.toString();
+    }
+
+    /** Accepts gzip like a browser would; bodies are counted, never decoded */
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(target + path))
+                .header("Accept-Encoding", "gzip")
+                .timeout(Duration.ofSeconds(60))
+                .GET()
+                .build();
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+}
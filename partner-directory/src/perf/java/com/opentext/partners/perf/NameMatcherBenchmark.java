@@ -0,0 +1,72 @@
+package com.opentext.partners.perf;
+
+import com.opentext.partners.join.CanonicalNameMatcher;
+import com.opentext.partners.join.ExactNameMatcher;
+import com.opentext.partners.join.FuzzyNameMatcher;
+import com.opentext.partners.join.NameResolution;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One full name resolution per refresh: {@code partners} partner names against as many distinct
+ * solution owners, of which a third are spelled differently (punctuation, legal suffix, one typo).
+ * The fuzzy run at 100000 is the one that has to fit in a refresh.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class NameMatcherBenchmark {
+
+    private static final String[] WORDS = {"global", "data", "systems", "cloud", "solutions", "consulting",
+            "digital", "network", "services", "partners", "tech", "group", "information", "software"};
+    private static final String[] SUFFIXES = {"", " inc.", ", llc", " gmbh", " ltd"};
+
+    @Param({"10000", "100000"})
+    int partners;
+
+    private List<String> partnerKeys;
+    private Set<String> solutionKeys;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        partnerKeys = new ArrayList<>(partners);
+        solutionKeys = new LinkedHashSet<>();
+        for (int i = 0; i < partners; i++) {
+            String base = WORDS[random.nextInt(WORDS.length)] + " " + Integer.toString(i, 36) + "corp "
+                    + WORDS[random.nextInt(WORDS.length)];
+            String partner = base + SUFFIXES[random.nextInt(SUFFIXES.length)];
+            partnerKeys.add(partner.toLowerCase(Locale.ROOT));
+            solutionKeys.add(switch (i % 6) {
+                case 0 -> base.replace(' ', ',') + " incorporated";
+                case 1 -> base.substring(0, base.length() - 2) + base.charAt(base.length() - 1);
+                default -> partner;
+            });
+        }
+    }
+
+    @Benchmark
+    public NameResolution exact() {
+        return new ExactNameMatcher().resolve(partnerKeys, solutionKeys);
+    }
+
+    @Benchmark
+    public NameResolution canonical() {
+        return new CanonicalNameMatcher().resolve(partnerKeys, solutionKeys);
+    }
+
+    @Benchmark
+    public NameResolution fuzzy() {
+        return new FuzzyNameMatcher(0.85).resolve(partnerKeys, solutionKeys);
+    }
+}
@@ -0,0 +1,63 @@
+package com.opentext.partners.perf;
+
+import com.opentext.partners.model.JoinedPartnerDto.PartnerSolution;
+import com.opentext.partners.snapshot.PartnerSnapshot;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the original stream-and-filter pagination against the precomputed snapshot views.
+ * The snapshot variant should stay flat as the directory grows; the legacy one grows with N.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PaginationBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    int partners;
+
+    @Param({"true", "false"})
+    boolean hasSolutions;
+
+    private List<PartnerSolution> joined;
+    private PartnerSnapshot snapshot;
+    private Pageable pageable;
+
+    @Setup
+    public void setUp() {
+        joined = SyntheticCatalog.joinedPartners(partners);
+        snapshot = PartnerSnapshot.of(1L, joined);
+        // A page in the middle of the filtered view, like a user paging deep into the grid
+        pageable = PageRequest.of(snapshot.view(hasSolutions).size() / 24, 12);
+    }
+
+    @Benchmark
+    public Page<PartnerSolution> legacyStreamFilter() {
+        List<PartnerSolution> filtered = joined.stream()
+                .filter(p -> !hasSolutions || (p.solutions() != null && !p.solutions().isEmpty()))
+                .toList();
+
+        int total = filtered.size();
+        int start = (int) pageable.getOffset();
+        int end = Math.min(start + pageable.getPageSize(), total);
+
+        if (start >= total) return Page.empty(pageable);
+
+        return new PageImpl<>(filtered.subList(start, end), pageable, total);
+    }
+
+    @Benchmark
+    public Page<PartnerSolution> snapshotView() {
+        return snapshot.page(pageable, hasSolutions);
+    }
+}
@@ -0,0 +1,62 @@
+package com.opentext.partners.perf;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * key=value options of the standalone perf mains, passed with -Dperf.args="partners=50000 latency=80"
+ * under the perf profile. Options may also come comma-separated in one argument; anything else is
+ * rejected rather than dropped, so a mistyped option does not silently run with the defaults.
+ */
+final class PerfOptions {
+
+    private final Map<String, String> values = new LinkedHashMap<>();
+
+    PerfOptions(String[] args) {
+        for (String arg : args) {
+            for (String token : arg.split("[\\s,]+")) {
+                if (token.isEmpty()) continue;
+                int equals = token.indexOf('=');
+                if (equals <= 0) throw new IllegalArgumentException("Expected key=value, got '" + token + "'");
+                values.put(token.substring(0, equals), token.substring(equals + 1));
+            }
+        }
+    }
+
+    /** Every option as key=value, in the order given. */
+    List<String> all() {
+        return values.entrySet().stream().map(e -> e.getKey() + "=" + e.getValue()).toList();
+    }
+
+    /** These options, with {@code overrides} (key=value) added or replacing existing values. */
+    PerfOptions with(List<String> overrides) {
+        PerfOptions copy = new PerfOptions(new String[0]);
+        copy.values.putAll(values);
+        copy.values.putAll(new PerfOptions(overrides.toArray(String[]::new)).values);
+        return copy;
+    }
+
+    String string(String key, String fallback) {
+        return values.getOrDefault(key, fallback);
+    }
+
+    int integer(String key, int fallback) {
+        return values.containsKey(key) ? Integer.parseInt(values.get(key)) : fallback;
+    }
+
+    double decimal(String key, double fallback) {
+        return values.containsKey(key) ? Double.parseDouble(values.get(key)) : fallback;
+    }
+
+    /** A whole number of milliseconds. */
+    Duration millis(String key, long fallback) {
+        return Duration.ofMillis(values.containsKey(key) ? Long.parseLong(values.get(key)) : fallback);
+    }
+
+    /** A whole number of seconds. */
+    Duration seconds(String key, long fallback) {
+        return Duration.ofSeconds(values.containsKey(key) ? Long.parseLong(values.get(key)) : fallback);
+    }
+}
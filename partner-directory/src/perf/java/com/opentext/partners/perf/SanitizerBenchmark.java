@@ -0,0 +1,58 @@
+package com.opentext.partners.perf;
+
+import com.opentext.partners.sanitizer.FastHtmlSanitizer;
+import com.opentext.partners.sanitizer.HtmlSanitizer;
+import com.opentext.partners.sanitizer.JsoupHtmlSanitizer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cleans a set of realistic companyOverview payloads with the original regex, the fast
+ * single-pass sanitizer and the jsoup-backed strict sanitizer.
+ * Run with -prof gc to compare allocation per operation as well.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SanitizerBenchmark {
+
+    private static final int PAYLOADS = 256;
+
+    private final HtmlSanitizer fast = new FastHtmlSanitizer();
+    private final HtmlSanitizer strict = new JsoupHtmlSanitizer();
+    private String[] payloads;
+
+    @Setup
+    public void setUp() {
+        payloads = new String[PAYLOADS];
+        for (int i = 0; i < PAYLOADS; i++) {
+            payloads[i] = SyntheticCatalog.companyOverviewHtml(i);
+        }
+    }
+
+    @Benchmark
+    public void regex(Blackhole blackhole) {
+        for (String payload : payloads) {
+            blackhole.consume(payload.replaceAll("<[^>]*>", "").trim());
+        }
+    }
+
+    @Benchmark
+    public void fast(Blackhole blackhole) {
+        for (String payload : payloads) {
+            blackhole.consume(fast.clean(payload));
+        }
+    }
+
+    @Benchmark
+    public void strict(Blackhole blackhole) {
+        for (String payload : payloads) {
+            blackhole.consume(strict.clean(payload));
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.opentext.partners.perf;
+
+import com.opentext.partners.snapshot.SearchIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Query latency of the snapshot's inverted index. SampleTime mode reports the latency
+ * distribution, so the p0.99 line of the 100k run is the number to watch.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SearchBenchmark {
+
+    @Param({"10000", "100000"})
+    int partners;
+
+    /** Selective name lookup, prefix expansion, a term matching every row, and a two-term AND. */
+    @Param({"partner 4217", "integ", "overview", "solution 99"})
+    String query;
+
+    private SearchIndex index;
+
+    @Setup
+    public void setUp() {
+        index = SearchIndex.build(SyntheticCatalog.joinedPartners(partners));
+    }
+
+    @Benchmark
+    public SearchIndex.Hits firstPage() {
+        return index.search(query, 0, 12);
+    }
+
+    @Benchmark
+    public SearchIndex.Hits deepPage() {
+        return index.search(query, 240, 12);
+    }
+}
@@ -0,0 +1,61 @@
+package com.opentext.partners.perf;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.opentext.partners.model.FacetedPage;
+import com.opentext.partners.service.JoinedJsonWriter;
+import com.opentext.partners.service.PageResponseCache;
+import com.opentext.partners.service.PageResponseCache.EncodedResponse;
+import com.opentext.partners.service.PageResponseCache.PageKey;
+import com.opentext.partners.snapshot.FacetFilter;
+import com.opentext.partners.snapshot.PartnerSnapshot;
+import com.opentext.partners.snapshot.SortOrder;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.PageRequest;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Response serialization: one /api/partners page encoded on a cache miss (JSON plus gzip, as
+ * PageResponseCache stores it) and the full /joined-json array streamed by JoinedJsonWriter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    int partners;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final JoinedJsonWriter writer = new JoinedJsonWriter(objectMapper);
+    private PartnerSnapshot snapshot;
+    private FacetFilter filter;
+    private PageKey key;
+
+    @Setup
+    public void setUp() {
+        snapshot = PartnerSnapshot.of(1L, SyntheticCatalog.joinedPartners(partners));
+        filter = FacetFilter.of(List.of("Gold"), null, true);
+        key = new PageKey(2, 12, filter, SortOrder.NAME);
+    }
+
+    /** A cache miss: a fresh cache per call, so the page is paged, serialized and gzipped every time. */
+    @Benchmark
+    public EncodedResponse pageMiss() {
+        return new PageResponseCache(objectMapper, 16).get(snapshot, key, () -> new FacetedPage<>(
+                snapshot.page(PageRequest.of(key.page(), key.size()), filter, SortOrder.NAME),
+                snapshot.facets().counts(filter)));
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public long joinedJson() throws IOException {
+        return writer.writeArray(snapshot.all(), OutputStream.nullOutputStream());
+    }
+}
@@ -0,0 +1,75 @@
+package com.opentext.partners.perf;
+
+import com.opentext.partners.model.JoinedPartnerDto.PartnerSolution;
+import com.opentext.partners.snapshot.CompactPartnerStore;
+import com.opentext.partners.snapshot.PartnerSnapshot;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Reference;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Memory-footprint comparison of the snapshot storage layouts.
+ *
+ * For each catalog size and layout it reports the retained heap and object count of the published
+ * data (measured with JOL), the size of the off-heap text arena, and the average time of a full GC
+ * with only that data alive, as a proxy for the marking work it adds to every collection.
+ *
+ * Run with: mvn -Pperf test-compile exec:exec -Dperf.main=com.opentext.partners.perf.SnapshotFootprint
+ * (catalog sizes in -Dperf.args override the defaults, e.g. -Dperf.args="10000 1000000").
+ */
+public final class SnapshotFootprint {
+
+    private static final int GC_ROUNDS = 5;
+
+    private SnapshotFootprint() {
+    }
+
+    public static void main(String[] args) {
+        List<Integer> sizes = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.matches("\\d+")) sizes.add(Integer.parseInt(arg));
+        }
+        if (sizes.isEmpty()) sizes = List.of(1_000, 10_000, 100_000);
+
+        System.out.printf("%-10s %-18s %14s %12s %14s %12s%n",
+                "partners", "storage", "heap bytes", "objects", "direct bytes", "full GC ms");
+        for (int size : sizes) {
+            List<PartnerSolution> partners = SyntheticCatalog.joinedPartners(size);
+            report(size, "heap", PartnerSnapshot.of(1L, partners), 0);
+            CompactPartnerStore compact = CompactPartnerStore.of(partners, false);
+            report(size, "compact", compact, 0);
+            CompactPartnerStore offHeap = CompactPartnerStore.of(partners, true);
+            report(size, "compact-off-heap", offHeap, offHeap.arenaBytes());
+        }
+    }
+
+    private static void report(int size, String storage, Object retained, long directBytes) {
+        GraphLayout graph = GraphLayout.parseInstance(retained);
+        System.out.printf("%-10d %-18s %14d %12d %14d %12.1f%n",
+                size, storage, graph.totalSize(), graph.totalCount(), directBytes, fullGcMillis(retained));
+    }
+
+    /** Average time of an explicit full collection while {@code live} is reachable. */
+    private static double fullGcMillis(Object live) {
+        System.gc();
+        long before = gcMillis();
+        for (int i = 0; i < GC_ROUNDS; i++) {
+            System.gc();
+        }
+        double average = (gcMillis() - before) / (double) GC_ROUNDS;
+        Reference.reachabilityFence(live);
+        return average;
+    }
+
+    private static long gcMillis() {
+        long total = 0;
+        for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            total += Math.max(0, bean.getCollectionTime());
+        }
+        return total;
+    }
+}
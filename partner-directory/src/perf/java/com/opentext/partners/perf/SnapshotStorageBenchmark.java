@@ -0,0 +1,61 @@
+package com.opentext.partners.perf;
+
+import com.opentext.partners.model.JoinedPartnerDto.PartnerSolution;
+import com.opentext.partners.snapshot.PartnerSnapshot;
+import com.opentext.partners.snapshot.SnapshotStorage;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read and publish cost of the snapshot storage layouts. The compact layouts pay to materialise
+ * the served page and to encode on publish; see SnapshotFootprint for what they save in heap.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SnapshotStorageBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    int partners;
+
+    @Param({"heap", "compact", "compact-off-heap"})
+    String storage;
+
+    private SnapshotStorage layout;
+    private List<PartnerSolution> joined;
+    private PartnerSnapshot snapshot;
+    private Pageable pageable;
+
+    @Setup
+    public void setUp() {
+        layout = switch (storage) {
+            case "compact" -> SnapshotStorage.COMPACT;
+            case "compact-off-heap" -> SnapshotStorage.COMPACT_OFF_HEAP;
+            default -> SnapshotStorage.HEAP;
+        };
+        joined = SyntheticCatalog.joinedPartners(partners);
+        snapshot = layout.build(1L, joined);
+        pageable = PageRequest.of(snapshot.view(true).size() / 24, 12);
+    }
+
+    /** One page as served: windowed and every row read, as the JSON writer would. */
+    @Benchmark
+    public void servePage(Blackhole blackhole) {
+        for (PartnerSolution partner : snapshot.page(pageable, true)) {
+            blackhole.consume(partner);
+        }
+    }
+
+    @Benchmark
+    public PartnerSnapshot publish() {
+        return layout.build(2L, joined);
+    }
+}
@@ -0,0 +1,130 @@
+package com.opentext.partners.perf;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.opentext.partners.model.JoinedPartnerDto.PartnerSolution;
+import com.opentext.partners.model.JoinedPartnerDto.Solution;
+import com.opentext.partners.model.PartnerModels.RawPartner;
+import com.opentext.partners.model.SolutionModels.RawSolution;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic synthetic partner catalogs for benchmarks.
+ * Roughly mirrors the shape of the real directory: a handful of levels and types,
+ * and about a third of partners listing one or more solutions.
+ */
+public final class SyntheticCatalog {
+
+    static final String[] LEVELS = {"Platinum", "Gold", "Silver", "Member"};
+    static final String[] TYPES = {"Reseller", "Technology", "Services", "OEM", "Cloud"};
+
+    private SyntheticCatalog() {
+    }
+
+    /**
+     * A company overview shaped like the real PartnerCompanyOverview__c payloads:
+     * a few paragraphs with inline markup, a bullet list, links and character references.
+     */
+    public static String companyOverviewHtml(int i) {
+        return "<p><strong>Partner " + i + "</strong> is a global provider of information management "
+                + "services&nbsp;&amp; solutions, helping customers modernise content&#8209;centric processes.</p>\n"
+                + "<p>Founded in " + (1980 + i % 40) + ", the company operates in <em>" + (3 + i % 20)
+                + " countries</em> and has delivered more than " + (100 + i) + " OpenText projects.</p>\n"
+                + "<ul>\n  <li>Enterprise Content Management</li>\n  <li>Business Network &ndash; B2B integration</li>\n"
+                + "  <li>Cloud &amp; managed services</li>\n</ul>\n"
+                + "<p>Learn more at <a href=\"https://partner" + i + ".example.com\" target=\"_blank\">partner" + i
+                + ".example.com</a>.&nbsp;</p>";
+    }
+
+    /** Builds {@code size} joined partners from a fixed seed so runs are comparable. */
+    public static List<PartnerSolution> joinedPartners(int size) {
+        SplittableRandom random = new SplittableRandom(42);
+        List<PartnerSolution> partners = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            int solutionCount = random.nextInt(3) == 0 ? 1 + random.nextInt(4) : 0;
+            List<Solution> solutions = new ArrayList<>(solutionCount);
+            for (int s = 0; s < solutionCount; s++) {
+                solutions.add(new Solution("Solution " + i + "-" + s, "Integrates partner " + i + " with OpenText."));
+            }
+            partners.add(new PartnerSolution(
+                    "Partner " + i,
+                    "P-" + i,
+                    // Copies, like JSON binding produces: every record gets its own String instances
+                    new String(LEVELS[random.nextInt(LEVELS.length)]),
+                    new String(TYPES[random.nextInt(TYPES.length)]),
+                    "Short description for partner " + i,
+                    "Company overview for partner " + i + ". ".repeat(8),
+                    List.copyOf(solutions)
+            ));
+        }
+        return partners;
+    }
+
+    /** Partner records as the upstream sends them: {@code size} partners with HTML overviews. */
+    public static List<RawPartner> rawPartners(int size) {
+        SplittableRandom random = new SplittableRandom(42);
+        List<RawPartner> partners = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            partners.add(new RawPartner(
+                    "P-" + i,
+                    "Partner " + i,
+                    LEVELS[random.nextInt(LEVELS.length)],
+                    TYPES[random.nextInt(TYPES.length)],
+                    random.nextInt(4) == 0 ? null : "Short description for partner " + i,
+                    companyOverviewHtml(i)));
+        }
+        return partners;
+    }
+
+    /**
+     * Solution records for a catalog of {@code partners}: about a third of partners own one to four
+     * solutions, and one owner name in six is spelled differently (case, legal suffix), as upstream.
+     */
+    public static List<RawSolution> rawSolutions(int partners) {
+        SplittableRandom random = new SplittableRandom(7);
+        List<RawSolution> solutions = new ArrayList<>(partners / 2);
+        for (int i = 0; i < partners; i++) {
+            if (random.nextInt(3) != 0) continue;
+            int count = 1 + random.nextInt(4);
+            for (int s = 0; s < count; s++) {
+                String owner = switch (random.nextInt(6)) {
+                    case 0 -> "PARTNER " + i;
+                    case 1 -> "Partner " + i + ", Inc.";
+                    default -> "Partner " + i;
+                };
+                solutions.add(new RawSolution(owner, "Solution " + i + "-" + s,
+                        "<p>Integrates <b>partner " + i + "</b> with OpenText&nbsp;Content Cloud.</p>"));
+            }
+        }
+        return solutions;
+    }
+
+    /**
+     * Encodes {@code records} as upstream '.ajax' pages of {@code pageSize}, in the envelope
+     * AssetStreamDecoder reads: {@code results.assets[*].contentJson.<wrapper>.<record>}.
+     */
+    public static List<byte[]> upstreamPages(List<?> records, String wrapper, String record, int pageSize) {
+        ObjectMapper objectMapper = new ObjectMapper();
+        List<byte[]> pages = new ArrayList<>();
+        for (int start = 0; start < Math.max(1, records.size()); start += pageSize) {
+            List<Map<String, Object>> assets = new ArrayList<>();
+            for (Object value : records.subList(start, Math.min(records.size(), start + pageSize))) {
+                assets.add(Map.of("contentJson", Map.of(wrapper, Map.of(record, value))));
+            }
+            Map<String, Object> envelope = new LinkedHashMap<>();
+            envelope.put("total", Integer.toString(records.size()));
+            envelope.put("results", Map.of("assets", assets));
+            try {
+                pages.add(objectMapper.writeValueAsBytes(envelope));
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        return pages;
+    }
+}
@@ -0,0 +1,51 @@
+package com.opentext.partners.perf;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Throughput and tail latency of the read endpoints with the default Tomcat worker pool against
+ * virtual-thread request handling (spring.threads.virtual.enabled), under thousands of concurrent
+ * clients and live refreshes. Runs the same {@link LoadTest} twice, each against a fresh simulator
+ * and application, and prints both tables side by side.
+ *
+ * Run with: mvn -Pperf test-compile exec:exec -Dperf.main=com.opentext.partners.perf.ThreadingBenchmark
+ * -Dperf.args="concurrency=4000 duration=60"
+ * Takes the LoadTest options; defaults here are concurrency=2000, duration=30, warmup=10, joined-share=0.01.
+ * Application properties pass through as well, e.g. partners.serving.max-concurrent-requests=500 or
+ * server.tomcat.threads.max=400. Needs Java 21 for the virtual run; older JVMs run platform threads twice.
+ */
+public final class ThreadingBenchmark {
+
+    private ThreadingBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (Runtime.version().feature() < 21) {
+            System.out.printf("Java %d has no virtual threads: the 'virtual' run falls back to the Tomcat pool.%n",
+                    Runtime.version().feature());
+        }
+        PerfOptions options = new PerfOptions(new String[] {"concurrency=2000", "duration=30", "warmup=10", "joined-share=0.01"})
+                .with(new PerfOptions(args).all());
+
+        List<LoadTest.Result> platform = run("platform", options.with(List.of("spring.threads.virtual.enabled=false")));
+        List<LoadTest.Result> virtual = run("virtual", options.with(List.of("spring.threads.virtual.enabled=true")));
+
+        System.out.println();
+        List<LoadTest.Result> rows = new ArrayList<>(labelled("platform ", platform));
+        rows.addAll(labelled("virtual ", virtual));
+        LoadTest.print(rows);
+    }
+
+    private static List<LoadTest.Result> run(String mode, PerfOptions options) throws Exception {
+        System.out.printf("%n=== %s threads ===%n", mode);
+        return LoadTest.load(options);
+    }
+
+    private static List<LoadTest.Result> labelled(String label, List<LoadTest.Result> results) {
+        return results.stream()
+                .map(r -> new LoadTest.Result(label + r.endpoint(), r.requests(), r.perSecond(),
+                        r.p50(), r.p90(), r.p99(), r.max(), r.errors(), r.megabytesPerSecond()))
+                .toList();
+    }
+}
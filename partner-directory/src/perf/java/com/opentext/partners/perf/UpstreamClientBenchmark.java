@@ -0,0 +1,114 @@
+package com.opentext.partners.perf;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.opentext.partners.config.UpstreamProperties;
+import com.opentext.partners.config.WebClientConfig;
+import com.opentext.partners.fetch.FetchResult;
+import com.opentext.partners.fetch.PaginatedFetcher;
+import com.opentext.partners.fetch.UpstreamSource;
+import com.opentext.partners.metrics.PartnerMetrics;
+import com.opentext.partners.model.PartnerModels.RawPartner;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.channel.ChannelOption;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Crawl throughput and connection reuse of the upstream client, against a local {@link UpstreamSimulator}.
+ *
+ * Compares the previous client (HttpClient.create() with timeouts only) with the profile built by
+ * WebClientConfig from partners.upstream.client.*, running the same crawls through PaginatedFetcher
+ * with rate limiting and the HTTP cache off and a fixed page size. Reported per profile: average crawl time, records and
+ * requests per second, page size, and the TCP connections the simulator had to accept.
+ *
+ * Run with: mvn -Pperf test-compile exec:exec -Dperf.main=com.opentext.partners.perf.UpstreamClientBenchmark
+ * (optional numeric -Dperf.args: partners, crawls, latency in ms, max in flight; defaults 20000 10 20 16.
+ * Arguments of the form partners.upstream.x=y override the tuned profile, e.g. partners.upstream.client.compress=false).
+ */
+public final class UpstreamClientBenchmark {
+
+    private UpstreamClientBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        List<Integer> numbers = new ArrayList<>();
+        Map<String, String> overrides = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (arg.matches("\\d+")) numbers.add(Integer.parseInt(arg));
+            else if (arg.startsWith("partners.upstream.") && arg.contains("=")) {
+                overrides.put(arg.substring(0, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            }
+        }
+        int partners = numbers.size() > 0 ? numbers.get(0) : 20_000;
+        int crawls = numbers.size() > 1 ? numbers.get(1) : 10;
+        Duration latency = Duration.ofMillis(numbers.size() > 2 ? numbers.get(2) : 20);
+        int maxInFlight = numbers.size() > 3 ? numbers.get(3) : 16;
+
+        Map<String, String> settings = new LinkedHashMap<>();
+        settings.put("partners.upstream.max-in-flight", Integer.toString(maxInFlight));
+        settings.put("partners.upstream.rate-limit.permits-per-second", "0");
+        settings.put("partners.upstream.http-cache.enabled", "false");
+        // Fixed page size: the adaptive sizer reacts to timing noise and would make the profiles issue different requests
+        settings.put("partners.upstream.batch-size", "500");
+        settings.put("partners.upstream.min-batch-size", "500");
+        settings.put("partners.upstream.max-batch-size", "500");
+        settings.putAll(overrides);
+        UpstreamProperties properties = new Binder(new MapConfigurationPropertySource(settings))
+                .bindOrCreate("partners.upstream", UpstreamProperties.class);
+
+        try (UpstreamSimulator simulator = new UpstreamSimulator(partners, 0, latency).start()) {
+            UpstreamSource<RawPartner> source = new UpstreamSource<>("partners", simulator.partnersUrlTemplate(),
+                    "Partners", "Partner", RawPartner.class, RawPartner::contentHash);
+
+            System.out.printf("%d partners, %d crawls, %d ms latency, %d in flight%n",
+                    partners, crawls, latency.toMillis(), maxInFlight);
+            System.out.printf("%-10s %12s %14s %14s %8s %12s%n",
+                    "client", "crawl ms", "records/s", "requests/s", "batch", "connections");
+
+            HttpClient baseline = HttpClient.create()
+                    .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, 10000)
+                    .responseTimeout(Duration.ofSeconds(30));
+            run("baseline", WebClient.builder().clientConnector(new ReactorClientHttpConnector(baseline)),
+                    properties, source, simulator, crawls);
+
+            WebClientConfig config = new WebClientConfig();
+            ConnectionProvider pool = config.upstreamConnectionProvider(properties);
+            try {
+                run("tuned", config.webClientBuilder(properties, pool), properties, source, simulator, crawls);
+            } finally {
+                pool.disposeLater().block();
+            }
+        }
+    }
+
+    private static void run(String name, WebClient.Builder builder, UpstreamProperties properties,
+                            UpstreamSource<RawPartner> source, UpstreamSimulator simulator, int crawls) {
+        PaginatedFetcher fetcher = new PaginatedFetcher(builder, new ObjectMapper(), properties,
+                new PartnerMetrics(new SimpleMeterRegistry()));
+        // Warm-up crawl: class loading, JIT and the batch sizer settling on a page size
+        fetcher.fetchAll(source).block();
+        simulator.resetCounters();
+
+        long records = 0;
+        int batchSize = 0;
+        long startedAt = System.nanoTime();
+        for (int i = 0; i < crawls; i++) {
+            FetchResult<RawPartner> result = fetcher.fetchAll(source).block();
+            records += result.stats().records();
+            batchSize = result.stats().batchSize();
+        }
+        double seconds = (System.nanoTime() - startedAt) / 1e9;
+        System.out.printf("%-10s %12.1f %14.0f %14.1f %8d %12d%n", name, seconds * 1000 / crawls, records / seconds,
+                simulator.requests() / seconds, batchSize, simulator.connections());
+    }
+}
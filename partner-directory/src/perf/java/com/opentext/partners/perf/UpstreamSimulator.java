@@ -0,0 +1,230 @@
+package com.opentext.partners.perf;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.opentext.partners.model.PartnerModels.RawPartner;
+import com.opentext.partners.model.SolutionModels.RawSolution;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.QueryStringDecoder;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.server.HttpServerResponse;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+
+/**
+ * Local stand-in for the two upstream '.ajax' endpoints, on the same paths as the real ones, so the
+ * application only needs partners.upstream.base-url pointed at it. Pages carry SyntheticCatalog
+ * records in the upstream envelope (see AssetStreamDecoder).
+ *
+ * The upstream can be made to misbehave on purpose: latency with random jitter before every
+ * response, a share of requests failing with 503, a request rate above which requests get 429 with
+ * Retry-After, and churn (a share of partners whose description changes every minute, so refreshes
+ * publish new snapshots). Counts the connections and requests it receives, so a benchmark can tell
+ * how well a client reuses connections.
+ *
+ * Standalone: mvn -Pperf test-compile exec:exec -Dperf.main=com.opentext.partners.perf.UpstreamSimulator
+ * -Dperf.args="port=9090 partners=20000 latency=80 jitter=40 error-rate=0.02 rate-limit=20 churn=0.01"
+ * (latency and jitter in ms, rate-limit in requests per second, 0 = unlimited).
+ */
+public final class UpstreamSimulator implements AutoCloseable {
+
+    static final String PARTNERS_PATH = "/en/partners/partners-directory-overview/1716790338234.ajax";
+    static final String SOLUTIONS_PATH = "/en/partners/ApplicationMarketplace/1754971906819.ajax";
+
+    /**
+     * @param partners  Partner records served.
+     * @param solutions Size of the catalog the solutions belong to (SyntheticCatalog.rawSolutions); 0 for none.
+     * @param latency   Delay before every response, standing in for network and upstream time.
+     * @param jitter    Random extra delay, up to this much.
+     * @param errorRate Share of requests answered with 503, 0-1.
+     * @param rateLimit Requests per second answered before the rest of that second gets 429; 0 for no limit.
+     * @param churn     Share of partners whose description changes every minute, 0-1.
+     */
+    public record Behaviour(int partners, int solutions, Duration latency, Duration jitter,
+                            double errorRate, double rateLimit, double churn) {
+
+        public static Behaviour of(int partners, int solutions, Duration latency) {
+            return new Behaviour(partners, solutions, latency, Duration.ZERO, 0, 0, 0);
+        }
+
+        static Behaviour of(PerfOptions options) {
+            int partners = options.integer("partners", 20_000);
+            return new Behaviour(partners,
+                    options.integer("solutions", partners),
+                    options.millis("latency", 50),
+                    options.millis("jitter", 0),
+                    options.decimal("error-rate", 0),
+                    options.decimal("rate-limit", 0),
+                    options.decimal("churn", 0));
+        }
+    }
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Behaviour behaviour;
+    private final List<RawPartner> partners;
+    private final List<RawSolution> solutions;
+    private final AtomicInteger connections = new AtomicInteger();
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private final AtomicInteger throttled = new AtomicInteger();
+    private final AtomicLong rateWindow = new AtomicLong();
+    private final AtomicInteger rateWindowRequests = new AtomicInteger();
+    private DisposableServer server;
+
+    public UpstreamSimulator(int partners, int solutions, Duration latency) {
+        this(Behaviour.of(partners, solutions, latency));
+    }
+
+    public UpstreamSimulator(Behaviour behaviour) {
+        this.behaviour = behaviour;
+        this.partners = SyntheticCatalog.rawPartners(behaviour.partners());
+        this.solutions = behaviour.solutions() > 0 ? SyntheticCatalog.rawSolutions(behaviour.solutions()) : List.of();
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        PerfOptions options = new PerfOptions(args);
+        Behaviour behaviour = Behaviour.of(options);
+        UpstreamSimulator simulator = new UpstreamSimulator(behaviour).start(options.integer("port", 9090));
+        Runtime.getRuntime().addShutdownHook(new Thread(simulator::close));
+        System.out.printf("%s%nServing %d partners and %d solutions; run the application with --partners.upstream.base-url=%s%n",
+                behaviour, simulator.partners.size(), simulator.solutions.size(), simulator.baseUrl());
+        Thread.currentThread().join();
+    }
+
+    /** Starts on a free port. */
+    public UpstreamSimulator start() {
+        return start(0);
+    }
+
+    public UpstreamSimulator start(int port) {
+        server = HttpServer.create()
+                .host("127.0.0.1")
+                .port(port)
+                .compress(true)
+                // Once per TCP channel; doOnConnection would fire for every request on a kept-alive connection
+                .doOnChannelInit((observer, channel, remoteAddress) -> connections.incrementAndGet())
+                .route(routes -> routes
+                        .get(PARTNERS_PATH, (request, response) -> page(request, response, partners.size(), this::partner, "Partners", "Partner"))
+                        .get(SOLUTIONS_PATH, (request, response) -> page(request, response, solutions.size(), solutions::get, "Solutions", "Solution")))
+                .bindNow();
+        return this;
+    }
+
+    /** Value for partners.upstream.base-url; the default paths of UpstreamProperties match. */
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.port();
+    }
+
+    public String partnersUrlTemplate() {
+        return baseUrl() + PARTNERS_PATH + "?q=&start=%d&max=%d";
+    }
+
+    public String solutionsUrlTemplate() {
+        return baseUrl() + SOLUTIONS_PATH + "?q=&start=%d&max=%d";
+    }
+
+    /** TCP connections accepted since start or the last {@link #resetCounters()}. */
+    public int connections() {
+        return connections.get();
+    }
+
+    /** HTTP requests received since start or the last {@link #resetCounters()}, including failed and throttled ones. */
+    public int requests() {
+        return requests.get();
+    }
+
+    /** Requests answered with an injected 503. */
+    public int failed() {
+        return failed.get();
+    }
+
+    /** Requests answered with 429. */
+    public int throttled() {
+        return throttled.get();
+    }
+
+    public void resetCounters() {
+        connections.set(0);
+        requests.set(0);
+        failed.set(0);
+        throttled.set(0);
+    }
+
+    @Override
+    public void close() {
+        if (server != null) server.disposeNow();
+    }
+
+    private Mono<Void> page(HttpServerRequest request, HttpServerResponse response, int total,
+                            IntFunction<Object> record, String wrapper, String recordField) {
+        requests.incrementAndGet();
+        if (overRateLimit()) {
+            throttled.incrementAndGet();
+            return response.status(HttpResponseStatus.TOO_MANY_REQUESTS).header("Retry-After", "1").send();
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Duration delay = behaviour.jitter().isZero()
+                ? behaviour.latency()
+                : behaviour.latency().plusMillis(random.nextLong(behaviour.jitter().toMillis() + 1));
+        if (random.nextDouble() < behaviour.errorRate()) {
+            failed.incrementAndGet();
+            return Mono.delay(delay).then(response.status(HttpResponseStatus.SERVICE_UNAVAILABLE).send());
+        }
+
+        QueryStringDecoder query = new QueryStringDecoder(request.uri());
+        int start = intParam(query, "start", 0);
+        int max = intParam(query, "max", 100);
+
+        List<Map<String, Object>> assets = new ArrayList<>();
+        for (int i = start; i < Math.min(total, start + max); i++) {
+            assets.add(Map.of("contentJson", Map.of(wrapper, Map.of(recordField, record.apply(i)))));
+        }
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("total", Integer.toString(total));
+        body.put("results", Map.of("assets", assets));
+
+        return Mono.delay(delay)
+                .then(Mono.fromCallable(() -> objectMapper.writeValueAsBytes(body)))
+                .flatMap(bytes -> response
+                        .header("Content-Type", "application/json")
+                        .sendByteArray(Mono.just(bytes))
+                        .then());
+    }
+
+    /** Partner {@code i}, with a description naming the current minute if churn selects it this minute */
+    private Object partner(int i) {
+        RawPartner partner = partners.get(i);
+        if (behaviour.churn() <= 0) return partner;
+        long minute = System.currentTimeMillis() / 60_000;
+        long every = Math.max(1, Math.round(1 / behaviour.churn()));
+        if ((i + minute) % every != 0) return partner;
+        return new RawPartner(partner.id(), partner.name(), partner.partnerLevel(), partner.partnerType(),
+                "Updated in minute " + minute, partner.companyOverview());
+    }
+
+    /** Fixed one-second windows; coarse, but enough for a client to meet 429s above the configured rate */
+    private boolean overRateLimit() {
+        if (behaviour.rateLimit() <= 0) return false;
+        long second = System.nanoTime() / 1_000_000_000L;
+        long window = rateWindow.get();
+        if (window != second && rateWindow.compareAndSet(window, second)) {
+            rateWindowRequests.set(0);
+        }
+        return rateWindowRequests.incrementAndGet() > behaviour.rateLimit();
+    }
+
+    private static int intParam(QueryStringDecoder query, String name, int fallback) {
+        List<String> values = query.parameters().get(name);
+        return values == null || values.isEmpty() ? fallback : Integer.parseInt(values.get(0));
+    }
+}
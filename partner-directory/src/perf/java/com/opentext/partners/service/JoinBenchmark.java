@@ -0,0 +1,94 @@
+package com.opentext.partners.service;
+
+import com.opentext.partners.join.CanonicalNameMatcher;
+import com.opentext.partners.model.PartnerModels.RawPartner;
+import com.opentext.partners.model.SolutionModels.RawSolution;
+import com.opentext.partners.perf.SyntheticCatalog;
+import com.opentext.partners.sanitizer.FastHtmlSanitizer;
+import com.opentext.partners.service.IncrementalJoiner.JoinResult;
+import com.opentext.partners.snapshot.FetchedBatch;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToLongFunction;
+
+/**
+ * The refresh join at directory scale, with canonical name matching and the fast sanitizer.
+ * Lives in the service package because IncrementalJoiner is package-private.
+ * <ul>
+ *   <li>{@code full}: a first join, every partner built and sanitized.</li>
+ *   <li>{@code onePercentChanged}: a refresh where 1% of partners changed; alternates between two
+ *       catalogs so every invocation sees the change.</li>
+ *   <li>{@code unchanged}: a refresh with identical batches, answered from the fingerprints.</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JoinBenchmark {
+
+    private static final int PAGE_SIZE = 500;
+
+    @Param({"1000", "10000", "100000"})
+    int partners;
+
+    private List<FetchedBatch<RawPartner>> partnerBatches;
+    private List<FetchedBatch<RawPartner>> changedPartnerBatches;
+    private List<FetchedBatch<RawSolution>> solutionBatches;
+
+    private IncrementalJoiner incremental;
+    private IncrementalJoiner steady;
+    private boolean flip;
+
+    @Setup
+    public void setUp() {
+        List<RawPartner> raw = SyntheticCatalog.rawPartners(partners);
+        List<RawPartner> changed = new ArrayList<>(raw);
+        for (int i = 0; i < changed.size(); i += 100) {
+            RawPartner p = changed.get(i);
+            changed.set(i, new RawPartner(p.id(), p.name(), p.partnerLevel(), p.partnerType(),
+                    "Updated description " + i, p.companyOverview()));
+        }
+        partnerBatches = batches(raw, RawPartner::contentHash);
+        changedPartnerBatches = batches(changed, RawPartner::contentHash);
+        solutionBatches = batches(SyntheticCatalog.rawSolutions(partners), RawSolution::contentHash);
+
+        incremental = newJoiner();
+        incremental.join(partnerBatches, solutionBatches);
+        steady = newJoiner();
+        steady.join(partnerBatches, solutionBatches);
+    }
+
+    @Benchmark
+    public JoinResult full() {
+        return newJoiner().join(partnerBatches, solutionBatches);
+    }
+
+    @Benchmark
+    public JoinResult onePercentChanged() {
+        flip = !flip;
+        return incremental.join(flip ? changedPartnerBatches : partnerBatches, solutionBatches);
+    }
+
+    @Benchmark
+    public JoinResult unchanged() {
+        return steady.join(partnerBatches, solutionBatches);
+    }
+
+    private static IncrementalJoiner newJoiner() {
+        return new IncrementalJoiner(new FastHtmlSanitizer(), new CanonicalNameMatcher());
+    }
+
+    private static <T> List<FetchedBatch<T>> batches(List<T> records, ToLongFunction<T> contentHash) {
+        List<FetchedBatch<T>> batches = new ArrayList<>();
+        for (int start = 0; start < records.size(); start += PAGE_SIZE) {
+            batches.add(FetchedBatch.of(start, records.subList(start, Math.min(records.size(), start + PAGE_SIZE)), contentHash));
+        }
+        return batches;
+    }
+}
@@ -0,0 +1,108 @@
+package com.opentext.partners.cluster;
+
+import com.opentext.partners.model.JoinedPartnerDto.PartnerSolution;
+import com.opentext.partners.model.JoinedPartnerDto.Solution;
+import com.opentext.partners.snapshot.PartnerSnapshot;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** Two nodes sharing one embedded Redis server. */
+class RedisSnapshotDistributionTest {
+
+	private static RedisServer server;
+	private static LettuceConnectionFactory connectionFactory;
+
+	private RedisSnapshotDistribution first;
+	private RedisSnapshotDistribution second;
+
+	@BeforeAll
+	static void startRedis() throws IOException {
+		int port;
+		try (ServerSocket socket = new ServerSocket(0)) {
+			port = socket.getLocalPort();
+		}
+		server = new RedisServer(port);
+		server.start();
+		connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", port));
+		connectionFactory.afterPropertiesSet();
+		connectionFactory.start();
+	}
+
+	@AfterAll
+	static void stopRedis() throws IOException {
+		connectionFactory.destroy();
+		server.stop();
+	}
+
+	@BeforeEach
+	void startNodes() {
+		String prefix = "test-" + UUID.randomUUID();
+		first = new RedisSnapshotDistribution(connectionFactory, prefix);
+		second = new RedisSnapshotDistribution(connectionFactory, prefix);
+	}
+
+	@AfterEach
+	void stopNodes() {
+		first.close();
+		second.close();
+	}
+
+	@Test
+	void onlyOneNodeHoldsTheCrawlLock() {
+		assertThat(first.tryAcquireCrawl(Duration.ofMinutes(1))).isTrue();
+		assertThat(second.tryAcquireCrawl(Duration.ofMinutes(1))).isFalse();
+
+		// Releasing someone else's claim is a no-op
+		second.releaseCrawl();
+		assertThat(second.tryAcquireCrawl(Duration.ofMinutes(1))).isFalse();
+
+		first.releaseCrawl();
+		assertThat(second.tryAcquireCrawl(Duration.ofMinutes(1))).isTrue();
+	}
+
+	@Test
+	void publishedSnapshotReachesTheOtherNode() throws Exception {
+		BlockingQueue<Long> announcedToSecond = new LinkedBlockingQueue<>();
+		BlockingQueue<Long> announcedToFirst = new LinkedBlockingQueue<>();
+		second.onPublished(announcedToSecond::add);
+		first.onPublished(announcedToFirst::add);
+		assertThat(second.latest()).isEmpty();
+
+		List<PartnerSolution> partners = List.of(
+				new PartnerSolution("Acme", "P-1", "Gold", "OEM", "Short", "Overview", List.of(new Solution("Capture", null))),
+				new PartnerSolution("Globex", "P-2", null, "Reseller", null, null, List.of()));
+		// Pub/sub drops announcements sent before the listener subscribed: re-publish until one arrives
+		PartnerSnapshot snapshot = PartnerSnapshot.of(5, partners);
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		Long announced = null;
+		while (announced == null && System.nanoTime() < deadline) {
+			first.publish(snapshot);
+			announced = announcedToSecond.poll(100, TimeUnit.MILLISECONDS);
+		}
+
+		assertThat(announced).isEqualTo(5L);
+		assertThat(announcedToFirst.poll(200, TimeUnit.MILLISECONDS)).isNull();
+		assertThat(second.latest()).get().extracting(header -> header.version()).isEqualTo(5L);
+		assertThat(second.fetch()).get().satisfies(shared -> {
+			assertThat(shared.version()).isEqualTo(5);
+			assertThat(shared.store().all()).isEqualTo(partners);
+		});
+	}
+}
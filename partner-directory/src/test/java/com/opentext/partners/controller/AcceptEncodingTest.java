@@ -0,0 +1,48 @@
+package com.opentext.partners.controller;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AcceptEncodingTest {
+
+	@Test
+	void acceptsGzipListedWithAPositiveQuality() {
+		assertThat(AcceptEncoding.acceptsGzip("gzip")).isTrue();
+		assertThat(AcceptEncoding.acceptsGzip("gzip, deflate, br")).isTrue();
+		assertThat(AcceptEncoding.acceptsGzip("br;q=1.0, GZIP;q=0.5")).isTrue();
+		assertThat(AcceptEncoding.acceptsGzip("deflate, gzip ; Q = 0.001")).isTrue();
+	}
+
+	@Test
+	void refusesGzipWithZeroQuality() {
+		assertThat(AcceptEncoding.acceptsGzip("gzip;q=0")).isFalse();
+		assertThat(AcceptEncoding.acceptsGzip("gzip;q=0.000, identity")).isFalse();
+		assertThat(AcceptEncoding.acceptsGzip("*, gzip;q=0")).isFalse();
+	}
+
+	@Test
+	void wildcardCoversGzipUnlessGzipIsListed() {
+		assertThat(AcceptEncoding.acceptsGzip("*")).isTrue();
+		assertThat(AcceptEncoding.acceptsGzip("br, *;q=0.1")).isTrue();
+		assertThat(AcceptEncoding.acceptsGzip("*;q=0")).isFalse();
+		assertThat(AcceptEncoding.acceptsGzip("gzip;q=0.5, *;q=0")).isTrue();
+	}
+
+	@Test
+	void otherCodingsAndMissingHeaderMeanIdentity() {
+		assertThat(AcceptEncoding.acceptsGzip(null)).isFalse();
+		assertThat(AcceptEncoding.acceptsGzip("")).isFalse();
+		assertThat(AcceptEncoding.acceptsGzip("identity")).isFalse();
+		assertThat(AcceptEncoding.acceptsGzip("x-gzip")).isFalse();
+		assertThat(AcceptEncoding.acceptsGzip("br, deflate")).isFalse();
+		assertThat(AcceptEncoding.acceptsGzip("notgzip, gzipped")).isFalse();
+	}
+
+	@Test
+	void unparsableQualityMeansNotAcceptable() {
+		assertThat(AcceptEncoding.acceptsGzip("gzip;q=high")).isFalse();
+		assertThat(AcceptEncoding.acceptsGzip("gzip;q=2")).isFalse();
+		assertThat(AcceptEncoding.acceptsGzip("gzip;level=9")).isTrue();
+	}
+}
@@ -0,0 +1,87 @@
+package com.opentext.partners.controller;
+
+import com.opentext.partners.metrics.PartnerMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConcurrencyLimitFilterTest {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	private final ConcurrencyLimitFilter filter =
+			new ConcurrencyLimitFilter(1, Duration.ofMillis(50), new PartnerMetrics(registry));
+
+	@Test
+	void requestOverTheLimitGets503() throws Exception {
+		CountDownLatch entered = new CountDownLatch(1);
+		CountDownLatch leave = new CountDownLatch(1);
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			Future<?> first = executor.submit(() -> {
+				filter.doFilter(new MockHttpServletRequest("GET", "/api/partners"), new MockHttpServletResponse(),
+						(request, response) -> {
+							entered.countDown();
+							await(leave);
+						});
+				return null;
+			});
+			assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+			MockHttpServletResponse rejected = new MockHttpServletResponse();
+			filter.doFilter(new MockHttpServletRequest("GET", "/api/partners"), rejected, (request, response) -> {
+				throw new AssertionError("Must not reach the controller");
+			});
+			assertThat(rejected.getStatus()).isEqualTo(503);
+			assertThat(rejected.getHeader("Retry-After")).isEqualTo("1");
+			assertThat(registry.get("partners.http.rejected").tag("reason", "concurrency-limit").counter().count()).isEqualTo(1);
+
+			leave.countDown();
+			first.get(5, TimeUnit.SECONDS);
+			assertThat(filter.available()).isEqualTo(1);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void streamedBodyKeepsItsSlotUntilTheStreamCompletes() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/partners/joined-json");
+		request.setAsyncSupported(true);
+		FilterChain startsAsync = (req, res) -> req.startAsync();
+
+		filter.doFilter(request, new MockHttpServletResponse(), startsAsync);
+		assertThat(filter.available()).isZero();
+
+		((MockAsyncContext) request.getAsyncContext()).complete();
+		assertThat(filter.available()).isEqualTo(1);
+	}
+
+	@Test
+	void changeStreamsDoNotTakeASlot() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/partners/changes");
+		request.setAsyncSupported(true);
+
+		filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> req.startAsync());
+		assertThat(filter.available()).isEqualTo(1);
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
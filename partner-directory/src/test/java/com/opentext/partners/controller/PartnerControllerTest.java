@@ -0,0 +1,56 @@
+package com.opentext.partners.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/** Pre-encoded /api/partners pages; the upstream is unreachable, so the directory stays empty. */
+@SpringBootTest(properties = {
+		"partners.upstream.base-url=http://127.0.0.1:9",
+		"partners.upstream.retry.max-attempts=1",
+		"partners.snapshot.file="})
+@AutoConfigureMockMvc
+class PartnerControllerTest {
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Test
+	void matchingIfNoneMatchIsNotModified() throws Exception {
+		String etag = mvc.perform(get("/api/partners?page=0&size=5"))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		assertThat(etag).startsWith("\"").doesNotContain("gzip");
+
+		mvc.perform(get("/api/partners?page=0&size=5").header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isNotModified());
+		mvc.perform(get("/api/partners?page=0&size=5").header(HttpHeaders.IF_NONE_MATCH, "\"other\""))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	void gzipRepresentationHasItsOwnEtag() throws Exception {
+		String etag = mvc.perform(get("/api/partners?page=0&size=5").header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+				.andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT_ENCODING)))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		assertThat(etag).endsWith("-gzip\"");
+
+		mvc.perform(get("/api/partners?page=0&size=5").header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+						.header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isNotModified());
+		mvc.perform(get("/api/partners?page=0&size=5").header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isOk())
+				.andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING));
+	}
+}
@@ -0,0 +1,118 @@
+package com.opentext.partners.controller;
+
+import com.opentext.partners.model.SnapshotChange;
+import com.opentext.partners.snapshot.FacetFilter;
+import com.opentext.partners.snapshot.PageCursor;
+import com.opentext.partners.snapshot.SortOrder;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.reactive.context.ReactiveWebServerApplicationContext;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** The 'reactive' profile serves /api from WebFlux; the upstream is unreachable, so the directory stays empty. */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+		"partners.upstream.base-url=http://127.0.0.1:9",
+		"partners.upstream.retry.max-attempts=1",
+		"partners.snapshot.file="})
+@ActiveProfiles("reactive")
+class ReactivePartnerControllerTest {
+
+	@Autowired
+	private ApplicationContext context;
+
+	@Autowired
+	private WebTestClient client;
+
+	@Test
+	void reactiveProfileReplacesTheServletController() {
+		assertThat(context).isInstanceOf(ReactiveWebServerApplicationContext.class);
+		assertThat(context.getBeanNamesForType(ReactivePartnerController.class)).hasSize(1);
+		assertThat(context.getBeanNamesForType(PartnerController.class)).isEmpty();
+	}
+
+	@Test
+	void healthIsUpWithoutRedisInLocalMode() {
+		client.get().uri("/actuator/health")
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody().jsonPath("$.status").isEqualTo("UP");
+	}
+
+	@Test
+	void servesPagesWithEtags() {
+		client.get().uri("/api/partners?page=0&size=5")
+				.exchange()
+				.expectStatus().isOk()
+				.expectHeader().exists("ETag")
+				.expectBody().jsonPath("$.content").isArray();
+	}
+
+	@Test
+	void servesGzipOnlyToClientsAcceptingIt() {
+		// The test client inflates gzip bodies and drops Content-Encoding; the ETag tells the representations apart
+		for (String acceptEncoding : new String[]{"gzip", "br, gzip;q=0.8", "*"}) {
+			client.get().uri("/api/partners?page=0&size=5").header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding)
+					.exchange()
+					.expectHeader().value(HttpHeaders.ETAG, etag -> assertThat(etag).as(acceptEncoding).endsWith("-gzip\""));
+		}
+		for (String acceptEncoding : new String[]{"gzip;q=0", "x-gzip", "*;q=0"}) {
+			client.get().uri("/api/partners?page=0&size=5").header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding)
+					.exchange()
+					.expectHeader().value(HttpHeaders.ETAG, etag -> assertThat(etag).as(acceptEncoding).doesNotContain("gzip"));
+		}
+	}
+
+	@Test
+	void streamsJoinedJsonInEveryFormat() {
+		client.get().uri("/api/partners/joined-json").accept(MediaType.APPLICATION_JSON)
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody(String.class).isEqualTo("[]");
+
+		client.get().uri("/api/partners/joined-json").accept(MediaType.TEXT_EVENT_STREAM)
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody(String.class).value(body -> assertThat(body).contains("event:complete").contains("data:0"));
+	}
+
+	@Test
+	void undecodableCursorIsABadRequest() {
+		client.get().uri("/api/partners/scroll?cursor=garbage")
+				.exchange()
+				.expectStatus().isBadRequest();
+	}
+
+	@Test
+	void cursorOfAnExpiredSnapshotIsGone() {
+		String cursor = PageCursor.first(99, SortOrder.NAME, FacetFilter.NONE).encode();
+
+		client.get().uri("/api/partners/scroll?cursor={cursor}", cursor)
+				.exchange()
+				.expectStatus().isEqualTo(410);
+	}
+
+	@Test
+	void changeStreamStartsWithTheCurrentSnapshot() {
+		ServerSentEvent<SnapshotChange> first = client.get().uri("/api/partners/changes").accept(MediaType.TEXT_EVENT_STREAM)
+				.exchange()
+				.expectStatus().isOk()
+				.returnResult(new ParameterizedTypeReference<ServerSentEvent<SnapshotChange>>() {})
+				.getResponseBody()
+				.blockFirst(Duration.ofSeconds(5));
+
+		assertThat(first).isNotNull();
+		assertThat(first.event()).isEqualTo("snapshot");
+		assertThat(first.data().partners()).isZero();
+	}
+}
@@ -0,0 +1,124 @@
+package com.opentext.partners.fetch;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.opentext.partners.model.PartnerModels.RawPartner;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** Every body is also fed split at each byte, so tokens, records and the total straddle chunk boundaries. */
+class AssetStreamDecoderTest {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	@Test
+	void totalAsStringOrNumber() {
+		forEverySplit("{\"total\":\"2\",\"results\":{\"assets\":[" + asset("P-1") + "," + asset("P-2") + "]}}", decoded -> {
+			assertThat(decoded.total()).isEqualTo(2);
+			assertThat(decoded.ids()).containsExactly("P-1", "P-2");
+		});
+		forEverySplit("{\"results\":{\"assets\":[" + asset("P-1") + "]},\"total\":1}", decoded -> {
+			assertThat(decoded.total()).isEqualTo(1);
+			assertThat(decoded.ids()).containsExactly("P-1");
+		});
+	}
+
+	@Test
+	void missingOrGarbledTotalIsUnknown() {
+		forEverySplit("{\"results\":{\"assets\":[" + asset("P-1") + "]}}", decoded -> assertThat(decoded.total()).isEqualTo(-1));
+		for (String total : List.of("\"20k\"", "\"\"", "-5", "1.5", "null", "\"99999999999\"")) {
+			forEverySplit("{\"total\":" + total + ",\"results\":{\"assets\":[]}}",
+					decoded -> assertThat(decoded.total()).as("total %s", total).isEqualTo(-1));
+		}
+	}
+
+	@Test
+	void nestedTotalIsNotThePageTotal() {
+		forEverySplit("{\"results\":{\"total\":7,\"assets\":[{\"contentJson\":{\"Partners\":{\"Partner\":"
+				+ "{\"Id\":\"P-1\",\"total\":9}}}}]}}", decoded -> {
+			assertThat(decoded.total()).isEqualTo(-1);
+			assertThat(decoded.ids()).containsExactly("P-1");
+		});
+	}
+
+	@Test
+	void assetsWithoutTheWrapperOrRecordFieldAreSkipped() {
+		String body = "{\"total\":4,\"results\":{\"assets\":["
+				+ "{\"contentJson\":{\"Solutions\":{\"Partner\":{\"Id\":\"wrong-wrapper\"}}}},"
+				+ "{\"contentJson\":{\"Partners\":{\"Solution\":{\"Id\":\"wrong-record\"}}}},"
+				+ "{\"contentJson\":{}},"
+				+ asset("P-4") + "]}}";
+		forEverySplit(body, decoded -> assertThat(decoded.ids()).containsExactly("P-4"));
+	}
+
+	@Test
+	void nullRecordIsSkipped() {
+		String body = "{\"total\":2,\"results\":{\"assets\":["
+				+ "{\"contentJson\":{\"Partners\":{\"Partner\":null}}}," + asset("P-2") + "]}}";
+		forEverySplit(body, decoded -> assertThat(decoded.ids()).containsExactly("P-2"));
+	}
+
+	@Test
+	void nestedArraysAndObjectsInsideARecordStayInThatRecord() {
+		String body = "{\"total\":2,\"results\":{\"assets\":["
+				+ "{\"contentJson\":{\"Partners\":{\"Partner\":{\"Id\":\"P-1\",\"Tags\":[[1,2],{\"Partner\":{\"Id\":\"inner\"}}],"
+				+ "\"Name\":\"Acme [Gold]\"}}}}," + asset("P-2") + "]}}";
+		forEverySplit(body, decoded -> {
+			assertThat(decoded.ids()).containsExactly("P-1", "P-2");
+			assertThat(decoded.records().get(0).name()).isEqualTo("Acme [Gold]");
+		});
+	}
+
+	@Test
+	void recordsSpanningChunksKeepMultiByteCharacters() {
+		String body = "{\"total\":1,\"results\":{\"assets\":[{\"contentJson\":{\"Partners\":{\"Partner\":"
+				+ "{\"Id\":\"P-1\",\"Name\":\"Acmé Société – 株式会社\"}}}}]}}";
+		forEverySplit(body, decoded -> assertThat(decoded.records()).extracting(RawPartner::name)
+				.containsExactly("Acmé Société – 株式会社"));
+	}
+
+	private record Decoded(int total, List<RawPartner> records, long bytesRead) {
+		List<String> ids() {
+			return records.stream().map(RawPartner::id).toList();
+		}
+	}
+
+	/** Decodes {@code body} whole, then split in two at every byte, and checks each result */
+	private void forEverySplit(String body, Consumer<Decoded> check) {
+		byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+		for (int split = 0; split <= bytes.length; split++) {
+			Decoded decoded = decode(Arrays.copyOfRange(bytes, 0, split), Arrays.copyOfRange(bytes, split, bytes.length));
+			assertThat(decoded.bytesRead()).isEqualTo(bytes.length);
+			check.accept(decoded);
+		}
+		check.accept(decode(chunksOfOne(bytes)));
+	}
+
+	private Decoded decode(byte[]... chunks) {
+		AssetStreamDecoder<RawPartner> decoder = new AssetStreamDecoder<>(objectMapper, "Partners", "Partner", RawPartner.class);
+		List<RawPartner> records = new ArrayList<>();
+		for (byte[] chunk : chunks) {
+			records.addAll(decoder.feed(chunk));
+		}
+		records.addAll(decoder.endOfInput());
+		return new Decoded(decoder.total(), records, decoder.bytesRead());
+	}
+
+	private static byte[][] chunksOfOne(byte[] bytes) {
+		byte[][] chunks = new byte[bytes.length][];
+		for (int i = 0; i < bytes.length; i++) {
+			chunks[i] = new byte[]{bytes[i]};
+		}
+		return chunks;
+	}
+
+	private static String asset(String id) {
+		return "{\"contentJson\":{\"Partners\":{\"Partner\":{\"Id\":\"" + id + "\",\"Name\":\"Partner " + id + "\"}}}}";
+	}
+}
@@ -0,0 +1,71 @@
+package com.opentext.partners.fetch;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConditionalRequestCacheTest {
+
+	private static final URI PAGE = URI.create("http://upstream/partners?start=0&max=200");
+	private static final String BODY = "{\"Wrapper\":{\"total\":1,\"Partners\":[{\"name\":\"Acme\"}]}}";
+
+	private final List<ClientRequest> sent = new ArrayList<>();
+
+	@Test
+	void unchangedPageIsReplayedFromTheCache() {
+		ConditionalRequestCache cache = new ConditionalRequestCache(16, 1 << 20);
+		ExchangeFunction upstream = request -> {
+			sent.add(request);
+			if ("\"v1\"".equals(request.headers().getFirst(HttpHeaders.IF_NONE_MATCH))) {
+				return Mono.just(ClientResponse.create(HttpStatus.NOT_MODIFIED).build());
+			}
+			return Mono.just(ClientResponse.create(HttpStatus.OK)
+					.header(HttpHeaders.ETAG, "\"v1\"")
+					.header(HttpHeaders.CONTENT_TYPE, "application/json")
+					.body(BODY)
+					.build());
+		};
+
+		ClientResponse first = cache.filter(get(), upstream).block();
+		assertThat(first.bodyToMono(String.class).block()).isEqualTo(BODY);
+		assertThat(first.headers().header(ConditionalRequestCache.REVALIDATED)).isEmpty();
+		assertThat(cache.size()).isEqualTo(1);
+
+		ClientResponse second = cache.filter(get(), upstream).block();
+		assertThat(sent.get(1).headers().getFirst(HttpHeaders.IF_NONE_MATCH)).isEqualTo("\"v1\"");
+		assertThat(second.statusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(second.headers().header(ConditionalRequestCache.REVALIDATED)).containsExactly("true");
+		assertThat(second.bodyToMono(String.class).block()).isEqualTo(BODY);
+	}
+
+	@Test
+	void responsesWithoutValidatorsOrTooLargeAreNotStored() {
+		ExchangeFunction upstream = request -> Mono.just(ClientResponse.create(HttpStatus.OK)
+				.header(HttpHeaders.LAST_MODIFIED, "Wed, 21 Oct 2026 07:28:00 GMT")
+				.body(BODY)
+				.build());
+		ConditionalRequestCache small = new ConditionalRequestCache(16, 8);
+		small.filter(get(), upstream).block().bodyToMono(String.class).block();
+		assertThat(small.size()).isZero();
+
+		ConditionalRequestCache cache = new ConditionalRequestCache(16, 1 << 20);
+		cache.filter(get(), request -> Mono.just(ClientResponse.create(HttpStatus.OK).body(BODY).build()))
+				.block().bodyToMono(String.class).block();
+		assertThat(cache.size()).isZero();
+	}
+
+	private static ClientRequest get() {
+		return ClientRequest.create(HttpMethod.GET, PAGE).build();
+	}
+}
@@ -0,0 +1,150 @@
+package com.opentext.partners.fetch;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.opentext.partners.config.UpstreamProperties;
+import com.opentext.partners.exception.IncompleteFetchException;
+import com.opentext.partners.metrics.PartnerMetrics;
+import com.opentext.partners.model.PartnerModels.RawPartner;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PaginatedFetcherTest {
+
+	private static final int BATCH_SIZE = 2;
+
+	private final UpstreamSource<RawPartner> source = new UpstreamSource<>("partners",
+			"http://upstream/partners?start=%d&max=%d", "Partners", "Partner", RawPartner.class, RawPartner::contentHash);
+
+	@Test
+	void crawlsEveryPageTheTotalAnnounces() {
+		PaginatedFetcher fetcher = fetcher((start, max) -> page("\"5\"", start, Math.min(max, 5 - start)));
+
+		FetchResult<RawPartner> result = fetcher.fetchAll(source).block();
+
+		assertThat(result.batches().stream().mapToInt(batch -> batch.records().size()).sum()).isEqualTo(5);
+		assertThat(result.stats().records()).isEqualTo(5);
+	}
+
+	@Test
+	void emptyMiddlePageFailsTheFetch() {
+		PaginatedFetcher fetcher = fetcher((start, max) -> page("5", start, start == 2 ? 0 : Math.min(max, 5 - start)));
+
+		assertThatThrownBy(() -> fetcher.fetchAll(source).block())
+				.isInstanceOf(IncompleteFetchException.class)
+				.hasMessageContaining("starting at 2")
+				.hasMessageContaining("page is empty");
+	}
+
+	@Test
+	void shortPagesFailTheFetchBeyondTheChurnAllowance() {
+		// 'total' 5 allows no shortfall: one record missing from the middle page fails the crawl
+		PaginatedFetcher fetcher = fetcher((start, max) -> page("5", start, start == 2 ? 1 : Math.min(max, 5 - start)));
+
+		assertThatThrownBy(() -> fetcher.fetchAll(source).block())
+				.isInstanceOf(IncompleteFetchException.class)
+				.hasMessageContaining("starting at 2")
+				.hasMessageContaining("crawl returned 4 records but 'total' is 5");
+	}
+
+	@Test
+	void recordsRemovedDuringTheCrawlAreWithinTheAllowance() {
+		// Two of 200 records disappear before the last page is read
+		PaginatedFetcher fetcher = fetcher((start, max) -> page("200", start, Math.min(max, 198 - start)));
+
+		assertThat(fetcher.fetchAll(source).block().stats().records()).isEqualTo(198);
+	}
+
+	@Test
+	void missingTotalFailsTheFetchInsteadOfKeepingTheFirstPage() {
+		PaginatedFetcher fetcher = fetcher((start, max) -> page(null, start, max));
+
+		assertThatThrownBy(() -> fetcher.fetchAll(source).block())
+				.isInstanceOf(IncompleteFetchException.class)
+				.hasMessageContaining("'total' is missing");
+	}
+
+	@Test
+	void garbledTotalFailsTheFetch() {
+		for (String total : List.of("\"20k\"", "\"\"", "-1", "1e3", "\"99999999999\"")) {
+			PaginatedFetcher fetcher = fetcher((start, max) -> page(total, start, max));
+
+			assertThatThrownBy(() -> fetcher.fetchAll(source).block())
+					.as("total %s", total)
+					.isInstanceOf(IncompleteFetchException.class);
+		}
+	}
+
+	@Test
+	void totalBelowAFullFirstPageFailsTheFetch() {
+		PaginatedFetcher fetcher = fetcher((start, max) -> page("0", start, max));
+
+		assertThatThrownBy(() -> fetcher.fetchAll(source).block())
+				.isInstanceOf(IncompleteFetchException.class)
+				.hasMessageContaining("'total' is 0");
+	}
+
+	@Test
+	void emptyFirstPageOfANonEmptyDirectoryFailsTheFetch() {
+		PaginatedFetcher fetcher = fetcher((start, max) -> page("500", start, 0));
+
+		assertThatThrownBy(() -> fetcher.fetchAll(source).block())
+				.isInstanceOf(IncompleteFetchException.class)
+				.hasMessageContaining("'total' is 500 but the first page returned 0 records");
+	}
+
+	@Test
+	void emptyDirectoryWithZeroTotalIsComplete() {
+		PaginatedFetcher fetcher = fetcher((start, max) -> page("0", start, 0));
+
+		assertThat(fetcher.fetchAll(source).block().stats().records()).isZero();
+	}
+
+	/** A fetcher whose upstream answers every page request with {@code body(start, max)} */
+	private static PaginatedFetcher fetcher(BiFunction<Integer, Integer, String> body) {
+		WebClient.Builder builder = WebClient.builder().exchangeFunction(request -> {
+			var query = UriComponentsBuilder.fromUri(request.url()).build().getQueryParams();
+			int start = Integer.parseInt(query.getFirst("start"));
+			int max = Integer.parseInt(query.getFirst("max"));
+			return Mono.just(ClientResponse.create(HttpStatus.OK)
+					.header(HttpHeaders.CONTENT_TYPE, "application/json")
+					.body(body.apply(start, max))
+					.build());
+		});
+		return new PaginatedFetcher(builder, new ObjectMapper(), properties(),
+				new PartnerMetrics(new SimpleMeterRegistry()));
+	}
+
+	/** One upstream page of {@code count} partners from {@code start}; a null {@code total} leaves the field out */
+	private static String page(String total, int start, int count) {
+		String assets = IntStream.range(start, start + Math.max(0, count))
+				.mapToObj(i -> "{\"contentJson\":{\"Partners\":{\"Partner\":{\"Id\":\"P-" + i + "\",\"Name\":\"Partner " + i + "\"}}}}")
+				.collect(Collectors.joining(","));
+		return "{" + (total == null ? "" : "\"total\":" + total + ",") + "\"results\":{\"assets\":[" + assets + "]}}";
+	}
+
+	private static UpstreamProperties properties() {
+		return new UpstreamProperties("http://upstream", "/partners?start=%d&max=%d", "/solutions?start=%d&max=%d",
+				BATCH_SIZE, 1, BATCH_SIZE, DataSize.ofMegabytes(8), 2, Duration.ofSeconds(5),
+				new UpstreamProperties.Retry(1, Duration.ofMillis(1), Duration.ofMillis(1), 0),
+				new UpstreamProperties.RateLimit(0, 1),
+				new UpstreamProperties.HttpCache(false, 16, DataSize.ofMegabytes(1)),
+				new UpstreamProperties.Client(4, 16, Duration.ofSeconds(5), Duration.ofSeconds(20), Duration.ofMinutes(5),
+						Duration.ofSeconds(30), Duration.ofSeconds(5), Duration.ofSeconds(5), List.of(), false, false));
+	}
+}
@@ -0,0 +1,61 @@
+package com.opentext.partners.join;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NameMatcherTest {
+
+	@Test
+	void canonicalizesPunctuationAccentsAndLegalSuffixes() {
+		assertThat(NameCanonicalizer.canonical("Acme Inc.")).isEqualTo("acme");
+		assertThat(NameCanonicalizer.canonical("ACME, Inc")).isEqualTo("acme");
+		assertThat(NameCanonicalizer.canonical("Acmé Incorporated")).isEqualTo("acme");
+		assertThat(NameCanonicalizer.canonical("The Smith & Jones Co. S.A.")).isEqualTo("smith and jones");
+		assertThat(NameCanonicalizer.canonical("AG")).isEqualTo("ag");
+		assertThat(NameCanonicalizer.canonical("  ")).isEmpty();
+	}
+
+	@Test
+	void canonicalMatcherRemapsOnlyNonExactKeys() {
+		NameResolution resolution = new CanonicalNameMatcher().resolve(
+				List.of("acme inc.", "globex"),
+				new LinkedHashSet<>(List.of("acme, inc", "globex", "initech")));
+
+		assertThat(resolution.partnerKey("acme, inc")).isEqualTo("acme inc.");
+		assertThat(resolution.partnerKey("globex")).isEqualTo("globex");
+		assertThat(resolution.partnerKey("initech")).isEqualTo("initech");
+		MatchStats stats = resolution.stats();
+		assertThat(stats.exact()).isEqualTo(1);
+		assertThat(stats.canonical()).isEqualTo(1);
+		assertThat(stats.unmatched()).isEqualTo(1);
+	}
+
+	@Test
+	void fuzzyMatcherAcceptsCloseMisspellingsOnly() {
+		NameResolution resolution = new FuzzyNameMatcher(0.8).resolve(
+				List.of("northwind solutions", "contoso consulting"),
+				new LinkedHashSet<>(List.of("northwind solutons", "fabrikam")));
+
+		assertThat(resolution.partnerKey("northwind solutons")).isEqualTo("northwind solutions");
+		assertThat(resolution.stats().fuzzy()).isEqualTo(1);
+		assertThat(resolution.stats().unmatched()).isEqualTo(1);
+	}
+
+	@Test
+	void parallelLookupsMatchSequentialOnes() {
+		List<String> names = IntStream.range(0, 2000).mapToObj(i -> "partner " + i + " consulting").toList();
+		FuzzyNameMatcher.TrigramIndex index = new FuzzyNameMatcher.TrigramIndex(names);
+		List<String> queries = IntStream.range(0, 2000).mapToObj(i -> "partner " + i + " consultin").toList();
+
+		List<String> sequential = queries.stream().map(query -> index.bestMatch(query, 0.8)).toList();
+		List<String> parallel = queries.parallelStream().map(query -> index.bestMatch(query, 0.8)).toList();
+
+		assertThat(parallel).isEqualTo(sequential);
+		assertThat(sequential.get(1234)).isEqualTo("partner 1234 consulting");
+	}
+}
@@ -0,0 +1,61 @@
+package com.opentext.partners.metrics;
+
+import com.opentext.partners.join.MatchStats;
+import com.opentext.partners.model.JoinedPartnerDto.PartnerSolution;
+import com.opentext.partners.model.JoinedPartnerDto.Solution;
+import com.opentext.partners.snapshot.PartnerSnapshot;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PartnerMetricsTest {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	private final PartnerMetrics metrics = new PartnerMetrics(registry);
+
+	@Test
+	void snapshotGaugesFollowTheServedSnapshot() {
+		assertThat(registry.get("partners.snapshot.entries").gauge().value()).isZero();
+		assertThat(registry.get("partners.snapshot.age").gauge().value()).isNaN();
+
+		PartnerSnapshot snapshot = PartnerSnapshot.of(3, List.of(
+				new PartnerSolution("Acme", "P-1", "Gold", "OEM", null, null, List.of(new Solution("Capture", null))),
+				new PartnerSolution("Globex", "P-2", "Silver", "Reseller", null, null, List.of())));
+		metrics.serving(snapshot);
+		metrics.encoded(snapshot, 1234);
+		// Sizes of another snapshot are not this one's
+		metrics.encoded(PartnerSnapshot.of(2, List.of()), 99);
+
+		assertThat(registry.get("partners.snapshot.entries").gauge().value()).isEqualTo(2);
+		assertThat(registry.get("partners.snapshot.with.solutions").gauge().value()).isEqualTo(1);
+		assertThat(registry.get("partners.snapshot.version").gauge().value()).isEqualTo(3);
+		assertThat(registry.get("partners.snapshot.bytes").gauge().value()).isEqualTo(1234);
+		assertThat(registry.get("partners.snapshot.age").gauge().value()).isBetween(0.0, 60.0);
+	}
+
+	@Test
+	void joinRecordsDurationAndMatchRatio() {
+		metrics.joined(Duration.ofMillis(40), new MatchStats("canonical", 10, 6, 2, 0, 2, Duration.ofMillis(5)));
+
+		assertThat(registry.get("partners.join").tag("matcher", "canonical").timer().count()).isEqualTo(1);
+		assertThat(registry.get("partners.join.match.ratio").gauge().value()).isEqualTo(0.8);
+	}
+
+	@Test
+	void batchesAreTaggedBySourceAndOutcome() {
+		metrics.batch("partners", "ok", 5_000_000);
+		metrics.batch("partners", "ok", 7_000_000);
+		metrics.batch("solutions", "error", 1_000_000);
+		metrics.retry("solutions", new TimeoutException());
+
+		assertThat(registry.get("partners.upstream.batch").tags("source", "partners", "outcome", "ok").timer().count())
+				.isEqualTo(2);
+		assertThat(registry.get("partners.upstream.retries").tags("source", "solutions", "reason", "timeout")
+				.counter().count()).isEqualTo(1);
+	}
+}
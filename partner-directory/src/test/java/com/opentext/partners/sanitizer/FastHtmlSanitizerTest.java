@@ -0,0 +1,62 @@
+package com.opentext.partners.sanitizer;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+class FastHtmlSanitizerTest {
+
+	private final HtmlSanitizer sanitizer = new FastHtmlSanitizer();
+
+	@Test
+	void stripsTagsAndBreaksWordsOnBlockTags() {
+		assertThat(sanitizer.clean("<p>First</p><p>Second <b>bold</b>er</p>")).isEqualTo("First Second bolder");
+	}
+
+	@Test
+	void decodesEntitiesAndCollapsesWhitespace() {
+		assertThat(sanitizer.clean("  Cloud&nbsp;&amp;\n\t managed &#8211; services&#x21; &unknown; "))
+				.isEqualTo("Cloud & managed \u2013 services! &unknown;");
+	}
+
+	@Test
+	void replacesReferencesToNonCharacters() {
+		assertThat(sanitizer.clean("a&#0;b&#x0;c")).isEqualTo("a\uFFFDb\uFFFDc");
+
+		HtmlSanitizer jsoup = new JsoupHtmlSanitizer();
+		for (String html : new String[]{"a&#xD800;b", "a&#xdfff;b", "a&#55296;b", "a&#x110000;b", "a&#99999999;b"}) {
+			assertThat(sanitizer.clean(html)).as(html).isEqualTo("a\uFFFDb").isEqualTo(jsoup.clean(html));
+		}
+		assertThat(sanitizer.clean("a&#x10FFFF;b")).isEqualTo("a\uDBFF\uDFFFb");
+	}
+
+	@Test
+	void returnsCleanTextWithoutCopying() {
+		String clean = "Already clean text";
+		assertThat(sanitizer.clean(clean)).isSameAs(clean);
+		assertThat(sanitizer.clean(null)).isNull();
+	}
+
+	@Test
+	void keepsUnterminatedAngleBracket() {
+		assertThat(sanitizer.clean("5 < 6")).isEqualTo("5 < 6");
+		// Like the old <[^>]*> regex, a '<' runs to the next '>' wherever it is
+		assertThat(sanitizer.clean("1 < 2 <b>and</b> 3 < 4")).isEqualTo("1 and 3 < 4");
+		assertThat(sanitizer.clean("a <b>c</b> < d < e")).isEqualTo("a c < d < e");
+	}
+
+	@Test
+	void ampersandsAndStrayBracketsWithoutTerminatorStayLinear() {
+		String ampersands = "R&D, AT&T, A&B ".repeat(200_000);
+		String brackets = "<p>z " + "x < y ".repeat(200_000);
+
+		assertTimeoutPreemptively(Duration.ofSeconds(2), () -> {
+			assertThat(sanitizer.clean(ampersands)).isEqualTo(ampersands.trim());
+			assertThat(sanitizer.clean(brackets)).isEqualTo(brackets.substring(3).trim());
+		});
+		assertThat(sanitizer.clean("&amp" + "x".repeat(20) + ";")).isEqualTo("&amp" + "x".repeat(20) + ";");
+	}
+}
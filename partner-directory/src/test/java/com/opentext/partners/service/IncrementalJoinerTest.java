@@ -0,0 +1,203 @@
+package com.opentext.partners.service;
+
+import com.opentext.partners.join.ExactNameMatcher;
+import com.opentext.partners.model.JoinedPartnerDto.PartnerSolution;
+import com.opentext.partners.model.JoinedPartnerDto.Solution;
+import com.opentext.partners.model.PartnerModels.RawPartner;
+import com.opentext.partners.model.SolutionModels.RawSolution;
+import com.opentext.partners.sanitizer.FastHtmlSanitizer;
+import com.opentext.partners.sanitizer.HtmlSanitizer;
+import com.opentext.partners.service.IncrementalJoiner.JoinResult;
+import com.opentext.partners.snapshot.FetchedBatch;
+import com.opentext.partners.snapshot.PartnerSnapshot;
+import org.junit.jupiter.api.Test;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ToLongFunction;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IncrementalJoinerTest {
+
+	private static final int BATCH_SIZE = 50;
+
+	private final AtomicInteger sanitized = new AtomicInteger();
+	private final HtmlSanitizer sanitizer = html -> {
+		sanitized.incrementAndGet();
+		return new FastHtmlSanitizer().clean(html);
+	};
+	private final IncrementalJoiner joiner = new IncrementalJoiner(sanitizer, new ExactNameMatcher());
+
+	@Test
+	void unchangedCatalogReturnsThePreviousResult() {
+		List<RawPartner> partners = partners(120);
+		List<RawSolution> solutions = solutions(120);
+		JoinResult first = join(partners, solutions);
+		sanitized.set(0);
+
+		JoinResult second = join(partners, solutions);
+
+		assertThat(second.unchanged()).isTrue();
+		assertThat(second.partners()).isSameAs(first.partners());
+		assertThat(second.reused()).isEqualTo(120);
+		assertThat(second.rebuilt()).isZero();
+		assertThat(sanitized).hasValue(0);
+	}
+
+	@Test
+	void rejoinsOnlyPartnersWhoseRecordOrSolutionsChanged() {
+		List<RawPartner> partners = partners(120);
+		List<RawSolution> solutions = solutions(120);
+		JoinResult first = join(partners, solutions);
+		assertThat(first.rebuilt()).isEqualTo(120);
+		assertThat(first.reused()).isZero();
+
+		// Refresh 2: partner 7's own record changes, and so does a solution of partner 30
+		List<RawPartner> changedPartners = new ArrayList<>(partners);
+		changedPartners.set(7, partner(7, "<p>New</p> description"));
+		List<RawSolution> changedSolutions = new ArrayList<>(solutions);
+		changedSolutions.set(30, new RawSolution("partner 30", "Solution 30", "Rewritten"));
+		JoinResult second = join(changedPartners, changedSolutions);
+
+		assertThat(second.unchanged()).isFalse();
+		assertThat(second.rebuilt()).isEqualTo(2);
+		assertThat(second.reused()).isEqualTo(118);
+		assertThat(second.partners().get(7).shortDescription()).isEqualTo("New description");
+		assertThat(second.partners().get(30).solutions()).extracting(Solution::shortDescription).containsExactly("Rewritten");
+		for (int i = 0; i < 120; i++) {
+			if (i == 7 || i == 30) {
+				assertThat(second.partners().get(i)).isNotSameAs(first.partners().get(i));
+			} else {
+				assertThat(second.partners().get(i)).as("partner %d", i).isSameAs(first.partners().get(i));
+			}
+		}
+
+		// Refresh 3: partner 7 changes back; partner 30 keeps its new solution
+		JoinResult third = join(partners, changedSolutions);
+
+		assertThat(third.rebuilt()).isEqualTo(1);
+		assertThat(third.reused()).isEqualTo(119);
+		assertThat(third.partners().get(7)).isEqualTo(first.partners().get(7)).isNotSameAs(second.partners().get(7));
+		assertThat(third.partners().get(30)).isSameAs(second.partners().get(30));
+	}
+
+	@Test
+	void newAndRemovedPartnersShiftRowsWithoutRejoiningTheRest() {
+		List<RawPartner> partners = partners(60);
+		List<RawSolution> solutions = solutions(60);
+		JoinResult first = join(partners, solutions);
+
+		List<RawPartner> shifted = new ArrayList<>(partners.subList(1, 60));
+		shifted.add(partner(60, "Newcomer"));
+		JoinResult second = join(shifted, solutions);
+
+		assertThat(second.rebuilt()).isEqualTo(1);
+		assertThat(second.reused()).isEqualTo(59);
+		assertThat(second.partners().get(0)).isSameAs(first.partners().get(1));
+		assertThat(second.partners().get(59).partnerName()).isEqualTo("Partner 60");
+	}
+
+	@Test
+	void reusesThePartnersOfTheRetainedCompactList() {
+		List<RawPartner> partners = partners(80);
+		List<RawSolution> solutions = solutions(80);
+		JoinResult first = join(partners, solutions);
+		// A compact list materialises a new instance on every get; count which rows the joiner reads
+		List<PartnerSolution> compact = PartnerSnapshot.compact(1, first.partners(), false).all();
+		Set<Integer> read = new HashSet<>();
+		joiner.retain(new AbstractList<>() {
+			@Override
+			public PartnerSolution get(int index) {
+				read.add(index);
+				return compact.get(index);
+			}
+
+			@Override
+			public int size() {
+				return compact.size();
+			}
+		});
+		sanitized.set(0);
+
+		List<RawPartner> changed = new ArrayList<>(partners);
+		changed.set(3, partner(3, "Changed"));
+		JoinResult second = join(changed, solutions);
+
+		assertThat(second.rebuilt()).isEqualTo(1);
+		assertThat(second.reused()).isEqualTo(79);
+		assertThat(read).hasSize(79).doesNotContain(3);
+		assertThat(sanitized).as("description, overview and one solution of partner 3").hasValue(3);
+		assertThat(second.partners()).isEqualTo(expected(changed, solutions));
+	}
+
+	@Test
+	void retainRejectsAListOfAnotherResult() {
+		join(partners(10), solutions(10));
+
+		assertThatThrownBy(() -> joiner.retain(List.of())).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void parallelRebuildJoinsLikeTheSequentialOne() {
+		// 600 partners to rebuild take the parallel path, 100 the sequential one
+		List<RawPartner> partners = partners(600);
+		List<RawSolution> solutions = solutions(600);
+
+		JoinResult parallel = join(partners, solutions);
+		JoinResult sequential = new IncrementalJoiner(sanitizer, new ExactNameMatcher())
+				.join(batches(partners.subList(0, 100), RawPartner::contentHash), batches(solutions, RawSolution::contentHash));
+
+		assertThat(parallel.rebuilt()).isEqualTo(600);
+		assertThat(parallel.partners()).isEqualTo(expected(partners, solutions));
+		assertThat(sequential.partners()).isEqualTo(parallel.partners().subList(0, 100));
+	}
+
+	private JoinResult join(List<RawPartner> partners, List<RawSolution> solutions) {
+		return joiner.join(batches(partners, RawPartner::contentHash), batches(solutions, RawSolution::contentHash));
+	}
+
+	/** Joined the obvious way: every partner with the solutions naming it, in upstream order */
+	private static List<PartnerSolution> expected(List<RawPartner> partners, List<RawSolution> solutions) {
+		HtmlSanitizer clean = new FastHtmlSanitizer();
+		return partners.stream()
+				.map(partner -> new PartnerSolution(partner.name(), partner.id(), partner.partnerLevel(), partner.partnerType(),
+						clean.clean(partner.shortDescription()), clean.clean(partner.companyOverview()),
+						solutions.stream()
+								.filter(solution -> partner.name().equalsIgnoreCase(solution.partnerName()))
+								.map(solution -> new Solution(solution.displayName(), clean.clean(solution.shortDescription())))
+								.toList()))
+				.toList();
+	}
+
+	private static <T> List<FetchedBatch<T>> batches(List<T> records, ToLongFunction<T> contentHash) {
+		return IntStream.iterate(0, start -> start < records.size(), start -> start + BATCH_SIZE)
+				.mapToObj(start -> FetchedBatch.of(start, records.subList(start, Math.min(start + BATCH_SIZE, records.size())),
+						contentHash))
+				.toList();
+	}
+
+	private static List<RawPartner> partners(int size) {
+		return IntStream.range(0, size).mapToObj(i -> partner(i, "<b>Partner</b> number " + i)).toList();
+	}
+
+	private static RawPartner partner(int i, String description) {
+		return new RawPartner("P-" + i, "Partner " + i, i % 2 == 0 ? "Gold" : "Silver", "OEM", description,
+				"Overview&nbsp;" + i);
+	}
+
+	/** One solution for every third partner, named in lower case as upstream sometimes does */
+	private static List<RawSolution> solutions(int partners) {
+		return IntStream.range(0, partners)
+				.mapToObj(i -> i % 3 == 0
+						? new RawSolution("partner " + i, "Solution " + i, "<i>Solves</i> " + i)
+						: new RawSolution("Nobody " + i, "Orphan " + i, null))
+				.toList();
+	}
+}
@@ -0,0 +1,72 @@
+package com.opentext.partners.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.opentext.partners.model.JoinedPartnerDto.PartnerSolution;
+import com.opentext.partners.model.JoinedPartnerDto.Solution;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JoinedJsonWriterTest {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final JoinedJsonWriter writer = new JoinedJsonWriter(objectMapper);
+
+	@Test
+	void reactiveEncodingMatchesTheStreamedBytes() throws Exception {
+		// Empty, one chunk, and several chunks with a partial last one
+		for (int size : new int[] {0, 1, 600}) {
+			List<PartnerSolution> partners = partners(size);
+
+			ByteArrayOutputStream array = new ByteArrayOutputStream();
+			writer.writeArray(partners, array);
+			assertThat(join(writer.encodeArray(Flux.fromIterable(partners), DefaultDataBufferFactory.sharedInstance)))
+					.isEqualTo(array.toString(StandardCharsets.UTF_8));
+			assertThat(objectMapper.readTree(array.toByteArray()).size()).isEqualTo(size);
+
+			ByteArrayOutputStream ndjson = new ByteArrayOutputStream();
+			writer.writeNdjson(partners, ndjson);
+			assertThat(join(writer.encodeNdjson(Flux.fromIterable(partners), DefaultDataBufferFactory.sharedInstance)))
+					.isEqualTo(ndjson.toString(StandardCharsets.UTF_8));
+		}
+	}
+
+	@Test
+	void ndjsonLinesStartWithTheObject() throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		writer.writeNdjson(partners(3), out);
+
+		String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+		assertThat(lines).hasSize(3).allSatisfy(line -> assertThat(line).startsWith("{"));
+	}
+
+	@Test
+	void chunksAreEncodedOnlyOnDemand() {
+		Flux<DataBuffer> body = writer.encodeArray(Flux.fromIterable(partners(2000)), DefaultDataBufferFactory.sharedInstance);
+
+		// '[' and the first chunk of partners, nothing beyond
+		List<DataBuffer> firstTwo = body.take(2, true).collectList().block();
+		assertThat(firstTwo).hasSize(2);
+		assertThat(firstTwo.get(1).toString(StandardCharsets.UTF_8)).contains("\"Partner 255\"").doesNotContain("\"Partner 256\"");
+	}
+
+	private static String join(Flux<DataBuffer> buffers) {
+		return DataBufferUtils.join(buffers).map(buffer -> buffer.toString(StandardCharsets.UTF_8)).defaultIfEmpty("").block();
+	}
+
+	private static List<PartnerSolution> partners(int size) {
+		return IntStream.range(0, size)
+				.mapToObj(i -> new PartnerSolution("Partner " + i, "P-" + i, "Gold", "OEM", "Short " + i, null,
+						i % 2 == 0 ? List.of(new Solution("Capture " + i, "<p>x</p>")) : List.of()))
+				.toList();
+	}
+}
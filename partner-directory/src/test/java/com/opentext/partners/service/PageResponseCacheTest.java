@@ -0,0 +1,116 @@
+package com.opentext.partners.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.opentext.partners.service.PageResponseCache.EncodedResponse;
+import com.opentext.partners.service.PageResponseCache.PageKey;
+import com.opentext.partners.snapshot.FacetFilter;
+import com.opentext.partners.snapshot.PartnerSnapshot;
+import com.opentext.partners.snapshot.SortOrder;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.DigestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PageResponseCacheTest {
+
+	private final PageResponseCache cache = new PageResponseCache(new ObjectMapper(), 2);
+	private final AtomicInteger loads = new AtomicInteger();
+
+	private final PartnerSnapshot v1 = PartnerSnapshot.of(1, List.of());
+	private final PartnerSnapshot v2 = PartnerSnapshot.of(2, List.of());
+
+	@Test
+	void encodesEachPageOncePerSnapshot() {
+		EncodedResponse first = cache.get(v1, key(0), loader("a"));
+		EncodedResponse second = cache.get(v1, key(0), loader("a"));
+
+		assertThat(second).isSameAs(first);
+		assertThat(loads).hasValue(1);
+	}
+
+	@Test
+	void evictsTheLeastRecentlyUsedPage() {
+		cache.get(v1, key(0), loader("a"));
+		cache.get(v1, key(1), loader("b"));
+		cache.get(v1, key(0), loader("a"));
+		cache.get(v1, key(2), loader("c"));
+		assertThat(cache.size()).isEqualTo(2);
+		assertThat(loads).hasValue(3);
+
+		cache.get(v1, key(0), loader("a"));
+		assertThat(loads).as("page 0 was used last and stays").hasValue(3);
+		cache.get(v1, key(1), loader("b"));
+		assertThat(loads).as("page 1 was evicted").hasValue(4);
+	}
+
+	@Test
+	void newerSnapshotStartsAFreshGeneration() {
+		EncodedResponse old = cache.get(v1, key(0), loader("a"));
+		cache.get(v1, key(1), loader("b"));
+
+		EncodedResponse fresh = cache.get(v2, key(0), loader("a2"));
+
+		assertThat(fresh).isNotSameAs(old);
+		assertThat(new String(fresh.json(), StandardCharsets.UTF_8)).isEqualTo("{\"value\":\"a2\"}");
+		assertThat(cache.size()).isEqualTo(1);
+	}
+
+	@Test
+	void olderSnapshotNeverReplacesTheCurrentGeneration() {
+		cache.get(v2, key(0), loader("a2"));
+
+		EncodedResponse stale = cache.get(v1, key(0), loader("a"));
+		cache.get(v1, key(0), loader("a"));
+
+		assertThat(new String(stale.json(), StandardCharsets.UTF_8)).isEqualTo("{\"value\":\"a\"}");
+		assertThat(loads).as("old pages are encoded per request").hasValue(3);
+		assertThat(cache.get(v2, key(0), loader("a2")).json()).isEqualTo("{\"value\":\"a2\"}".getBytes(StandardCharsets.UTF_8));
+		assertThat(loads).hasValue(3);
+	}
+
+	@Test
+	void strongEtagsNameTheJsonAndItsGzipVariant() throws IOException {
+		EncodedResponse encoded = cache.get(v1, key(0), loader("a"));
+		String hash = DigestUtils.md5DigestAsHex(encoded.json());
+
+		assertThat(encoded.etag()).isEqualTo("\"" + hash + "\"");
+		assertThat(encoded.gzipEtag()).isEqualTo("\"" + hash + "-gzip\"");
+		try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(encoded.gzip()))) {
+			assertThat(gzip.readAllBytes()).isEqualTo(encoded.json());
+		}
+		assertThat(cache.get(v2, key(0), loader("a")).etag()).as("same bytes, same ETag").isEqualTo(encoded.etag());
+	}
+
+	@Test
+	void largePagesBypassTheCache() {
+		PageKey large = new PageKey(0, PageResponseCache.MAX_CACHEABLE_PAGE_SIZE + 1, FacetFilter.NONE, SortOrder.UPSTREAM);
+
+		cache.get(v1, large, loader("a"));
+		cache.get(v1, large, loader("a"));
+
+		assertThat(loads).hasValue(2);
+		assertThat(cache.size()).isZero();
+		cache.get(v1, new PageKey(0, PageResponseCache.MAX_CACHEABLE_PAGE_SIZE, FacetFilter.NONE, SortOrder.UPSTREAM), loader("b"));
+		assertThat(cache.size()).isEqualTo(1);
+	}
+
+	private static PageKey key(int page) {
+		return new PageKey(page, 10, FacetFilter.NONE, SortOrder.UPSTREAM);
+	}
+
+	private Supplier<Map<String, String>> loader(String value) {
+		return () -> {
+			loads.incrementAndGet();
+			return Map.of("value", value);
+		};
+	}
+}
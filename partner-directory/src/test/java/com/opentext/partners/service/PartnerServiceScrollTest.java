@@ -0,0 +1,153 @@
+package com.opentext.partners.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.opentext.partners.cluster.SnapshotDistribution;
+import com.opentext.partners.config.UpstreamProperties;
+import com.opentext.partners.exception.StaleCursorException;
+import com.opentext.partners.fetch.PaginatedFetcher;
+import com.opentext.partners.join.ExactNameMatcher;
+import com.opentext.partners.metrics.PartnerMetrics;
+import com.opentext.partners.model.CursorPage;
+import com.opentext.partners.model.JoinedPartnerDto.PartnerSolution;
+import com.opentext.partners.sanitizer.FastHtmlSanitizer;
+import com.opentext.partners.snapshot.CompactPartnerStore;
+import com.opentext.partners.snapshot.FacetFilter;
+import com.opentext.partners.snapshot.PartnerSnapshot;
+import com.opentext.partners.snapshot.SnapshotCodec;
+import com.opentext.partners.snapshot.SnapshotFile;
+import com.opentext.partners.snapshot.SnapshotStorage;
+import com.opentext.partners.snapshot.SortOrder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.LongConsumer;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/** Cursor walks across refreshes; new snapshots arrive the way another node's publications do. */
+class PartnerServiceScrollTest {
+
+	private final SharedSnapshot distribution = new SharedSnapshot();
+	private final PartnerService service = service(distribution, 2);
+
+	@Test
+	void walkStartedBeforeARefreshFinishesOnItsSnapshot() {
+		distribution.announce(1, partners("v1-", 25));
+
+		CursorPage<PartnerSolution> page = service.scrollPartners(null, FacetFilter.NONE, SortOrder.UPSTREAM, 10);
+		List<String> walked = new ArrayList<>(names(page));
+		distribution.announce(2, partners("v2-", 5));
+		while (page.nextCursor() != null) {
+			page = service.scrollPartners(page.nextCursor(), FacetFilter.NONE, SortOrder.UPSTREAM, 10);
+			walked.addAll(names(page));
+		}
+
+		assertThat(walked).containsExactlyElementsOf(names(partners("v1-", 25)));
+		assertThat(names(service.scrollPartners(null, FacetFilter.NONE, SortOrder.UPSTREAM, 10)))
+				.containsExactlyElementsOf(names(partners("v2-", 5)));
+	}
+
+	@Test
+	void cursorOfASnapshotNoLongerRetainedIsStale() {
+		distribution.announce(1, partners("v1-", 25));
+		String cursor = service.scrollPartners(null, FacetFilter.NONE, SortOrder.NAME, 10).nextCursor();
+		distribution.announce(2, partners("v2-", 25));
+		distribution.announce(3, partners("v3-", 25));
+
+		assertThatThrownBy(() -> service.scrollPartners(cursor, FacetFilter.NONE, SortOrder.NAME, 10))
+				.isInstanceOf(StaleCursorException.class);
+	}
+
+	@Test
+	void undecodableCursorIsRejected() {
+		distribution.announce(1, partners("v1-", 5));
+
+		assertThatThrownBy(() -> service.scrollPartners("garbage", FacetFilter.NONE, SortOrder.NAME, 10))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	private static List<PartnerSolution> partners(String prefix, int size) {
+		return IntStream.range(0, size)
+				.mapToObj(i -> new PartnerSolution(prefix + i, prefix + "id-" + i, "Gold", "OEM", null, null, List.of()))
+				.toList();
+	}
+
+	private static List<String> names(CursorPage<PartnerSolution> page) {
+		return names(page.content());
+	}
+
+	private static List<String> names(List<PartnerSolution> partners) {
+		return partners.stream().map(PartnerSolution::partnerName).toList();
+	}
+
+	private static PartnerService service(SnapshotDistribution distribution, int history) {
+		PartnerMetrics metrics = new PartnerMetrics(new SimpleMeterRegistry());
+		UpstreamProperties upstream = new UpstreamProperties("http://upstream", "/partners?start=%d&max=%d",
+				"/solutions?start=%d&max=%d", 2, 1, 2, DataSize.ofMegabytes(8), 2, Duration.ofSeconds(5),
+				new UpstreamProperties.Retry(1, Duration.ofMillis(1), Duration.ofMillis(1), 0),
+				new UpstreamProperties.RateLimit(0, 1),
+				new UpstreamProperties.HttpCache(false, 16, DataSize.ofMegabytes(1)),
+				new UpstreamProperties.Client(4, 16, Duration.ofSeconds(5), Duration.ofSeconds(20), Duration.ofMinutes(5),
+						Duration.ofSeconds(30), Duration.ofSeconds(5), Duration.ofSeconds(5), List.of(), false, false));
+		PaginatedFetcher fetcher = new PaginatedFetcher(WebClient.builder(), new ObjectMapper(), upstream, metrics);
+		return new PartnerService(fetcher, upstream, new FastHtmlSanitizer(), new ExactNameMatcher(),
+				SnapshotStorage.HEAP, SnapshotFile.NONE, distribution, Schedulers.immediate(), Schedulers.immediate(),
+				metrics, new SnapshotChangeFeed(metrics, 16, 200, 10, Duration.ofHours(1)),
+				history, Duration.ofSeconds(30), Duration.ofMinutes(10));
+	}
+
+	/** Holds one shared snapshot and announces it to the service, as another node's publish would */
+	private static final class SharedSnapshot implements SnapshotDistribution {
+
+		private LongConsumer listener = version -> {};
+		private SnapshotCodec.Decoded shared;
+
+		void announce(long version, List<PartnerSolution> partners) {
+			shared = new SnapshotCodec.Decoded(version, Instant.now(), CompactPartnerStore.of(partners, false));
+			listener.accept(version);
+		}
+
+		@Override
+		public boolean tryAcquireCrawl(Duration ttl) {
+			return false;
+		}
+
+		@Override
+		public void releaseCrawl() {
+		}
+
+		@Override
+		public Optional<SnapshotCodec.Header> latest() {
+			return Optional.empty();
+		}
+
+		@Override
+		public Optional<SnapshotCodec.Decoded> fetch() {
+			return Optional.ofNullable(shared);
+		}
+
+		@Override
+		public void publish(PartnerSnapshot snapshot) {
+		}
+
+		@Override
+		public void onPublished(LongConsumer listener) {
+			this.listener = listener;
+		}
+
+		@Override
+		public String name() {
+			return "test";
+		}
+	}
+}
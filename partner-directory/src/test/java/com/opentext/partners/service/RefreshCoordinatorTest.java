@@ -0,0 +1,70 @@
+package com.opentext.partners.service;
+
+import com.opentext.partners.service.RefreshCoordinator.Outcome;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RefreshCoordinatorTest {
+
+	private final List<Long> started = new ArrayList<>();
+	private final List<Disposable> subscriptions = new ArrayList<>();
+
+	private RefreshCoordinator coordinator(Duration minInterval) {
+		return new RefreshCoordinator(minInterval, generation -> {
+			started.add(generation);
+			Disposable subscription = Disposables.single();
+			subscriptions.add(subscription);
+			return subscription;
+		});
+	}
+
+	@Test
+	void collapsesTriggersIntoTheRefreshInFlight() {
+		RefreshCoordinator coordinator = coordinator(Duration.ZERO);
+
+		assertThat(coordinator.trigger()).isEqualTo(Outcome.STARTED);
+		assertThat(coordinator.trigger()).isEqualTo(Outcome.IN_FLIGHT);
+		assertThat(coordinator.trigger()).isEqualTo(Outcome.IN_FLIGHT);
+		assertThat(started).hasSize(1);
+		assertThat(coordinator.state().collapsedTriggers()).isEqualTo(2);
+
+		coordinator.finished(started.get(0));
+		assertThat(coordinator.trigger()).isEqualTo(Outcome.STARTED);
+		assertThat(started).hasSize(2);
+	}
+
+	@Test
+	void throttlesRefreshesStartedWithinTheMinimumInterval() {
+		RefreshCoordinator coordinator = coordinator(Duration.ofHours(1));
+
+		coordinator.trigger();
+		coordinator.finished(started.get(0));
+
+		assertThat(coordinator.trigger()).isEqualTo(Outcome.THROTTLED);
+		assertThat(started).hasSize(1);
+		assertThat(coordinator.state().nextAllowedAt()).isNotNull();
+	}
+
+	@Test
+	void cancelDisposesTheRefreshAndIgnoresItsLateCompletion() {
+		RefreshCoordinator coordinator = coordinator(Duration.ZERO);
+		coordinator.trigger();
+		long cancelled = started.get(0);
+
+		assertThat(coordinator.cancel()).isTrue();
+		assertThat(subscriptions.get(0).isDisposed()).isTrue();
+		assertThat(coordinator.isCurrent(cancelled)).isFalse();
+		assertThat(coordinator.cancel()).isFalse();
+
+		coordinator.trigger();
+		coordinator.finished(cancelled);
+		assertThat(coordinator.state().running()).isTrue();
+	}
+}
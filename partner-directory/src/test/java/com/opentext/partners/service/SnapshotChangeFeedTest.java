@@ -0,0 +1,162 @@
+package com.opentext.partners.service;
+
+import com.opentext.partners.metrics.PartnerMetrics;
+import com.opentext.partners.model.JoinedPartnerDto.PartnerSolution;
+import com.opentext.partners.model.SnapshotChange;
+import com.opentext.partners.snapshot.PartnerSnapshot;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import org.springframework.http.codec.ServerSentEvent;
+import reactor.core.publisher.BaseSubscriber;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SnapshotChangeFeedTest {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	private SnapshotChangeFeed feed(int buffer) {
+		return new SnapshotChangeFeed(new PartnerMetrics(registry), buffer, 200, 10, Duration.ofHours(1));
+	}
+
+	@Test
+	void diffReportsAddedRemovedAndChangedPartners() {
+		PartnerSnapshot previous = PartnerSnapshot.of(1, List.of(
+				partner("P-1", "Gold"), partner("P-2", "Gold"), partner("P-3", "Gold"), partner("P-4", "Gold")));
+		PartnerSnapshot next = PartnerSnapshot.of(2, List.of(
+				partner("P-1", "Gold"), partner("P-2", "Gold"), partner("P-4", "Silver"), partner("P-5", "Gold")));
+
+		SnapshotChange change = SnapshotChangeFeed.diff(previous, next, 200);
+
+		assertThat(change.version()).isEqualTo(2);
+		assertThat(change.previousVersion()).isEqualTo(1);
+		assertThat(change.partners()).isEqualTo(4);
+		assertThat(change.addedIds()).containsExactly("P-5");
+		assertThat(change.removedIds()).containsExactly("P-3");
+		assertThat(change.changedIds()).containsExactly("P-4");
+		assertThat(change.firstChangedIndex()).isEqualTo(2);
+		assertThat(change.truncated()).isFalse();
+	}
+
+	@Test
+	void diffOfIdenticalSnapshotsIsEmpty() {
+		List<PartnerSolution> partners = List.of(partner("P-1", "Gold"), partner("P-2", "Silver"));
+
+		SnapshotChange change = SnapshotChangeFeed.diff(PartnerSnapshot.of(1, partners), PartnerSnapshot.of(2, partners), 200);
+
+		assertThat(change.added() + change.removed() + change.changed()).isZero();
+		assertThat(change.firstChangedIndex()).isEqualTo(-1);
+	}
+
+	@Test
+	void diffCutsLongIdLists() {
+		PartnerSnapshot next = PartnerSnapshot.of(2, List.of(partner("P-1", "Gold"), partner("P-2", "Gold"), partner("P-3", "Gold")));
+
+		SnapshotChange change = SnapshotChangeFeed.diff(PartnerSnapshot.EMPTY, next, 2);
+
+		assertThat(change.added()).isEqualTo(3);
+		assertThat(change.addedIds()).containsExactly("P-1", "P-2");
+		assertThat(change.truncated()).isTrue();
+	}
+
+	@Test
+	void subscriberStartsFromTheCurrentSnapshotThenGetsChanges() {
+		SnapshotChangeFeed feed = feed(16);
+		PartnerSnapshot first = PartnerSnapshot.of(1, List.of(partner("P-1", "Gold")));
+		feed.published(PartnerSnapshot.EMPTY, first);
+
+		Collector collector = new Collector(Long.MAX_VALUE);
+		feed.subscribe().subscribe(collector);
+		feed.published(first, PartnerSnapshot.of(2, List.of(partner("P-1", "Gold"), partner("P-2", "Gold"))));
+
+		assertThat(collector.events).extracting(ServerSentEvent::event).containsExactly("snapshot", "change");
+		assertThat(collector.events.get(0).data().version()).isEqualTo(1);
+		assertThat(collector.events.get(1).data().addedIds()).containsExactly("P-2");
+		assertThat(collector.events.get(1).id()).isEqualTo("2");
+
+		collector.dispose();
+		assertThat(feed.subscribers()).isZero();
+	}
+
+	@Test
+	void snapshotPublishedBeforeTheFirstRequestIsNotMissed() {
+		SnapshotChangeFeed feed = feed(16);
+		PartnerSnapshot first = PartnerSnapshot.of(1, List.of(partner("P-1", "Gold")));
+		feed.published(PartnerSnapshot.EMPTY, first);
+
+		Collector collector = new Collector(0);
+		feed.subscribe().subscribe(collector);
+		feed.published(first, PartnerSnapshot.of(2, List.of(partner("P-1", "Gold"), partner("P-2", "Gold"))));
+		collector.request(Long.MAX_VALUE);
+
+		assertThat(collector.events).extracting(ServerSentEvent::event).containsExactly("snapshot", "change");
+		assertThat(collector.events.get(0).data().version()).isEqualTo(1);
+		assertThat(collector.events.get(1).data().version()).isEqualTo(2);
+		assertThat(collector.events.get(1).data().previousVersion()).isEqualTo(1);
+	}
+
+	@Test
+	void changeAlreadyInTheStartingSnapshotIsNotRepeated() {
+		SnapshotChangeFeed feed = feed(16);
+		Collector early = new Collector(Long.MAX_VALUE);
+		feed.subscribe().subscribe(early);
+		PartnerSnapshot first = PartnerSnapshot.of(1, List.of(partner("P-1", "Gold")));
+		feed.published(PartnerSnapshot.EMPTY, first);
+
+		Collector late = new Collector(Long.MAX_VALUE);
+		feed.subscribe().subscribe(late);
+
+		assertThat(early.events).extracting(ServerSentEvent::event).containsExactly("snapshot", "change");
+		assertThat(late.events).extracting(ServerSentEvent::event).containsExactly("snapshot");
+		assertThat(late.events.get(0).data().version()).isEqualTo(1);
+	}
+
+	@Test
+	void slowSubscriberKeepsOnlyTheNewestChanges() {
+		SnapshotChangeFeed feed = feed(2);
+		Collector collector = new Collector(1);
+		feed.subscribe().subscribe(collector);
+
+		PartnerSnapshot previous = PartnerSnapshot.EMPTY;
+		for (long version = 1; version <= 5; version++) {
+			PartnerSnapshot next = PartnerSnapshot.of(version, List.of(partner("P-" + version, "Gold")));
+			feed.published(previous, next);
+			previous = next;
+		}
+		collector.request(Long.MAX_VALUE);
+
+		List<Long> versions = collector.events.stream().skip(1).map(event -> event.data().version()).toList();
+		assertThat(versions).endsWith(4L, 5L).hasSizeLessThanOrEqualTo(3);
+		assertThat(registry.get("partners.changes.dropped").counter().count()).isEqualTo(5 - versions.size());
+	}
+
+	private static PartnerSolution partner(String id, String level) {
+		return new PartnerSolution("Partner " + id, id, level, "OEM", null, null, List.of());
+	}
+
+	/** Requests {@code initial} events up front, more only when asked */
+	private static final class Collector extends BaseSubscriber<ServerSentEvent<SnapshotChange>> {
+
+		private final List<ServerSentEvent<SnapshotChange>> events = new CopyOnWriteArrayList<>();
+		private final long initial;
+
+		private Collector(long initial) {
+			this.initial = initial;
+		}
+
+		@Override
+		protected void hookOnSubscribe(Subscription subscription) {
+			subscription.request(initial);
+		}
+
+		@Override
+		protected void hookOnNext(ServerSentEvent<SnapshotChange> event) {
+			events.add(event);
+		}
+	}
+}
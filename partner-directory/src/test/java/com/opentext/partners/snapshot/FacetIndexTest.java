@@ -0,0 +1,129 @@
+package com.opentext.partners.snapshot;
+
+import com.opentext.partners.model.JoinedPartnerDto.PartnerSolution;
+import com.opentext.partners.model.JoinedPartnerDto.Solution;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** Every result is checked against a plain scan of the partner list. */
+class FacetIndexTest {
+
+	private static final List<String> LEVELS = List.of("Gold", "Silver", "Platinum");
+	private static final List<String> TYPES = List.of("OEM", "Reseller");
+
+	@Test
+	void filtersMatchAScanAtAndAroundWordBoundaries() {
+		for (int size : new int[]{0, 1, 63, 64, 65, 127, 128, 129, 200}) {
+			List<PartnerSolution> partners = partners(size);
+			FacetIndex index = FacetIndex.build(partners);
+
+			assertFilter(index, partners, FacetFilter.NONE, partner -> true);
+			assertFilter(index, partners, filter(Set.of("gold"), Set.of(), false),
+					partner -> "Gold".equals(partner.partnerLevel()));
+			assertFilter(index, partners, filter(Set.of("GOLD", "platinum"), Set.of("oem"), false),
+					partner -> levelIn(partner, "Gold", "Platinum") && "OEM".equals(partner.partnerType()));
+			assertFilter(index, partners, filter(Set.of(), Set.of("Reseller"), true),
+					partner -> "Reseller".equals(partner.partnerType()) && !partner.solutions().isEmpty());
+			assertFilter(index, partners, filter(Set.of("Unknown"), Set.of(), false), partner -> false);
+		}
+	}
+
+	@Test
+	void unfilteredRowsStopAtTheLastPartner() {
+		for (int size : new int[]{63, 64, 65, 129}) {
+			long[] rows = FacetIndex.build(partners(size)).filter(FacetFilter.NONE);
+
+			assertThat(rows).hasSize((size + 63) / 64);
+			assertThat(FacetIndex.count(rows)).isEqualTo(size);
+			assertThat(FacetIndex.select(rows, 0, size + 10)).containsExactly(IntStream.range(0, size).toArray());
+		}
+	}
+
+	@Test
+	void selectReadsAnyWindowOfRanks() {
+		List<PartnerSolution> partners = partners(200);
+		long[] rows = FacetIndex.build(partners).filter(filter(Set.of("gold", "silver"), Set.of(), false));
+		int[] matching = matchingRows(partners, partner -> levelIn(partner, "Gold", "Silver"));
+
+		for (int offset = 0; offset <= matching.length + 5; offset += 7) {
+			for (int limit : new int[]{0, 1, 10, 64, 200}) {
+				int from = Math.min(offset, matching.length);
+				int to = Math.min(offset + limit, matching.length);
+				assertThat(FacetIndex.select(rows, offset, limit))
+						.as("offset %d, limit %d", offset, limit)
+						.containsExactly(Arrays.copyOfRange(matching, from, to));
+			}
+		}
+	}
+
+	@Test
+	void selectPastTheEndIsEmpty() {
+		long[] rows = FacetIndex.build(partners(130)).filter(FacetFilter.NONE);
+
+		assertThat(FacetIndex.select(rows, 130, 10)).isEmpty();
+		assertThat(FacetIndex.select(rows, 500, 10)).isEmpty();
+		assertThat(FacetIndex.select(rows, 125, 10)).containsExactly(125, 126, 127, 128, 129);
+		assertThat(FacetIndex.select(new long[0], 0, 10)).isEmpty();
+	}
+
+	@Test
+	void countsOfAFacetIgnoreItsOwnSelection() {
+		List<PartnerSolution> partners = partners(150);
+		FacetIndex index = FacetIndex.build(partners);
+
+		FacetIndex.FacetCounts counts = index.counts(filter(Set.of("gold"), Set.of("oem"), false));
+
+		Predicate<PartnerSolution> oem = partner -> "OEM".equals(partner.partnerType());
+		Predicate<PartnerSolution> gold = partner -> "Gold".equals(partner.partnerLevel());
+		for (String level : LEVELS) {
+			assertThat(counts.partnerLevel().get(level))
+					.isEqualTo(matchingRows(partners, oem.and(partner -> level.equals(partner.partnerLevel()))).length);
+		}
+		for (String type : TYPES) {
+			assertThat(counts.partnerType().get(type))
+					.isEqualTo(matchingRows(partners, gold.and(partner -> type.equals(partner.partnerType()))).length);
+		}
+		assertThat(counts.total()).isEqualTo(matchingRows(partners, gold.and(oem)).length);
+		assertThat(counts.withSolutions())
+				.isEqualTo(matchingRows(partners, gold.and(oem).and(partner -> !partner.solutions().isEmpty())).length);
+	}
+
+	private static void assertFilter(FacetIndex index, List<PartnerSolution> partners, FacetFilter filter,
+									 Predicate<PartnerSolution> expected) {
+		long[] rows = index.filter(filter);
+		int[] matching = matchingRows(partners, expected);
+
+		assertThat(FacetIndex.count(rows)).as("%d partners, %s", partners.size(), filter).isEqualTo(matching.length);
+		assertThat(FacetIndex.select(rows, 0, partners.size())).as("%d partners, %s", partners.size(), filter)
+				.containsExactly(matching);
+		assertThat(index.counts(filter).total()).isEqualTo(matching.length);
+	}
+
+	private static int[] matchingRows(List<PartnerSolution> partners, Predicate<PartnerSolution> predicate) {
+		return IntStream.range(0, partners.size()).filter(row -> predicate.test(partners.get(row))).toArray();
+	}
+
+	private static boolean levelIn(PartnerSolution partner, String... levels) {
+		return Arrays.asList(levels).contains(partner.partnerLevel());
+	}
+
+	private static FacetFilter filter(Set<String> levels, Set<String> types, boolean hasSolutions) {
+		return new FacetFilter(levels, types, hasSolutions);
+	}
+
+	/** Levels, types and solutions cycle with different periods, so every word mixes them */
+	static List<PartnerSolution> partners(int size) {
+		return IntStream.range(0, size)
+				.mapToObj(i -> new PartnerSolution("Partner " + i, "P-" + i,
+						i % 7 == 6 ? null : LEVELS.get(i % 3), TYPES.get(i % 2 == 0 || i % 5 == 0 ? 0 : 1),
+						null, null, i % 4 == 0 ? List.of(new Solution("Solution " + i, null)) : List.of()))
+				.toList();
+	}
+}
@@ -0,0 +1,56 @@
+package com.opentext.partners.snapshot;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PageCursorTest {
+
+	@Test
+	void decodesWhatItEncodes() {
+		FacetFilter filter = new FacetFilter(Set.of("gold", "a,b", "x|y", "Société 株式会社"), Set.of("oem", "100%"), true);
+		PageCursor cursor = new PageCursor(42, SortOrder.LEVEL, filter, 1234);
+
+		assertThat(PageCursor.decode(cursor.encode())).isEqualTo(cursor);
+		assertThat(PageCursor.decode(PageCursor.first(1, SortOrder.UPSTREAM, FacetFilter.NONE).encode()))
+				.isEqualTo(new PageCursor(1, SortOrder.UPSTREAM, FacetFilter.NONE, 0));
+	}
+
+	@Test
+	void encodedCursorIsUrlSafe() {
+		FacetFilter filter = new FacetFilter(Set.of("a/b+c?"), Set.of("&="), false);
+
+		assertThat(new PageCursor(Long.MAX_VALUE, SortOrder.SOLUTIONS, filter, 7).encode()).matches("[A-Za-z0-9_-]+");
+	}
+
+	@Test
+	void tamperedCursorIsRejected() {
+		List<String> tampered = List.of(
+				"",
+				"not base64!",
+				raw("c1|3|NAME|false|||0|extra"),
+				raw("c1|3|NAME|false||"),
+				raw("c2|3|NAME|false|||0"),
+				raw("c1|three|NAME|false|||0"),
+				raw("c1|3|SHOE_SIZE|false|||0"),
+				raw("c1|3|NAME|false|||-1"),
+				raw("c1|3|NAME|false|||ten"),
+				raw("c1|3|NAME|false|%zz||0"));
+		for (String token : tampered) {
+			assertThatThrownBy(() -> PageCursor.decode(token))
+					.as("token '%s'", token)
+					.isInstanceOf(IllegalArgumentException.class)
+					.hasMessageStartingWith("Invalid cursor");
+		}
+	}
+
+	private static String raw(String cursor) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,118 @@
+package com.opentext.partners.snapshot;
+
+import com.opentext.partners.model.CursorPage;
+import com.opentext.partners.model.JoinedPartnerDto.PartnerSolution;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/** Sorted pages and cursor walks, checked against sorting and filtering the list directly. */
+class PartnerSnapshotTest {
+
+	private static final Comparator<PartnerSolution> BY_NAME =
+			Comparator.comparing(partner -> partner.partnerName().toLowerCase(Locale.ROOT));
+
+	private final List<PartnerSolution> partners = FacetIndexTest.partners(150);
+	private final PartnerSnapshot snapshot = PartnerSnapshot.of(3, partners);
+
+	@Test
+	void sortedFilteredPagesMatchSortingTheMatches() {
+		FacetFilter gold = new FacetFilter(Set.of("gold"), Set.of(), false);
+		List<PartnerSolution> expected = expected(partner -> "Gold".equals(partner.partnerLevel()));
+
+		for (int page = 0; page * 10 <= expected.size() + 10; page++) {
+			Page<PartnerSolution> result = snapshot.page(PageRequest.of(page, 10), gold, SortOrder.NAME);
+
+			assertThat(result.getTotalElements()).isEqualTo(expected.size());
+			assertThat(result.getContent()).as("page %d", page).containsExactlyElementsOf(window(expected, page * 10, 10));
+		}
+	}
+
+	@Test
+	void unfilteredSortedPagesAreWindowsOfTheSortedList() {
+		List<PartnerSolution> expected = expected(partner -> true);
+
+		Page<PartnerSolution> page = snapshot.page(PageRequest.of(7, 20), FacetFilter.NONE, SortOrder.NAME);
+
+		assertThat(page.getContent()).containsExactlyElementsOf(window(expected, 140, 20));
+		assertThat(snapshot.page(PageRequest.of(8, 20), FacetFilter.NONE, SortOrder.NAME).getContent()).isEmpty();
+	}
+
+	@Test
+	void cursorWalkVisitsEveryMatchOnce() {
+		FacetFilter filter = new FacetFilter(Set.of(), Set.of("oem"), true);
+		List<PartnerSolution> expected = expected(partner -> "OEM".equals(partner.partnerType()) && !partner.solutions().isEmpty());
+
+		List<PartnerSolution> walked = walk(PageCursor.first(3, SortOrder.NAME, filter), 7);
+
+		assertThat(walked).containsExactlyElementsOf(expected);
+	}
+
+	@Test
+	void lastPageHandsOutNoCursorWhenOnlyNonMatchesFollow() {
+		// The last match in name order is followed by rows that do not match
+		List<PartnerSolution> byName = expected(partner -> true);
+		String last = byName.get(byName.size() - 1).partnerName();
+		PartnerSolution lastMatch = byName.stream()
+				.filter(partner -> "Silver".equals(partner.partnerLevel()))
+				.reduce((first, second) -> second)
+				.orElseThrow();
+		assertThat(lastMatch.partnerName()).isNotEqualTo(last);
+		FacetFilter silver = new FacetFilter(Set.of("silver"), Set.of(), false);
+		int matches = expected(partner -> "Silver".equals(partner.partnerLevel())).size();
+
+		// A page size dividing the matches exactly: the last page is full, and no empty page may follow
+		CursorPage<PartnerSolution> page = snapshot.scroll(PageCursor.first(3, SortOrder.NAME, silver), matches);
+
+		assertThat(page.content()).hasSize(matches).last().isEqualTo(lastMatch);
+		assertThat(page.nextCursor()).isNull();
+	}
+
+	@Test
+	void cursorSkipsAheadToTheNextMatch() {
+		FacetFilter gold = new FacetFilter(Set.of("gold"), Set.of(), false);
+		List<PartnerSolution> byName = expected(partner -> true);
+		List<PartnerSolution> goldByName = expected(partner -> "Gold".equals(partner.partnerLevel()));
+
+		CursorPage<PartnerSolution> first = snapshot.scroll(PageCursor.first(3, SortOrder.NAME, gold), 1);
+
+		PageCursor next = PageCursor.decode(first.nextCursor());
+		assertThat(byName.get(next.position())).isEqualTo(goldByName.get(1));
+	}
+
+	@Test
+	void cursorOfAnotherSnapshotIsRejected() {
+		assertThatThrownBy(() -> snapshot.scroll(PageCursor.first(2, SortOrder.NAME, FacetFilter.NONE), 10))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	private List<PartnerSolution> walk(PageCursor start, int pageSize) {
+		List<PartnerSolution> walked = new ArrayList<>();
+		PageCursor cursor = start;
+		while (cursor != null) {
+			CursorPage<PartnerSolution> page = snapshot.scroll(cursor, pageSize);
+			assertThat(page.content()).isNotEmpty().hasSizeLessThanOrEqualTo(pageSize);
+			walked.addAll(page.content());
+			cursor = page.nextCursor() != null ? PageCursor.decode(page.nextCursor()) : null;
+		}
+		return walked;
+	}
+
+	private List<PartnerSolution> expected(Predicate<PartnerSolution> filter) {
+		return partners.stream().filter(filter).sorted(BY_NAME).toList();
+	}
+
+	private static List<PartnerSolution> window(List<PartnerSolution> list, int from, int size) {
+		return list.subList(Math.min(from, list.size()), Math.min(from + size, list.size()));
+	}
+}
@@ -0,0 +1,111 @@
+package com.opentext.partners.snapshot;
+
+import com.opentext.partners.model.JoinedPartnerDto.PartnerSolution;
+import com.opentext.partners.model.JoinedPartnerDto.Solution;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SearchIndexTest {
+
+	@Test
+	void tokenizesLowerCasedAccentFoldedRunsOfLettersAndDigits() {
+		List<String> tokens = new ArrayList<>();
+		SearchIndex.tokenize("  Société Générale, R&D-Labs / ÅRHUS 2024 ", tokens::add);
+
+		assertThat(tokens).containsExactly("societe", "generale", "r", "d", "labs", "arhus", "2024");
+	}
+
+	@Test
+	void accentsAndCaseDoNotMatter() {
+		SearchIndex index = SearchIndex.build(List.of(partner("Café Müller", null), partner("Cafe Muller", null)));
+
+		assertThat(rows(index.search("CAFÉ müller", 0, 10))).containsExactlyInAnyOrder(0, 1);
+		assertThat(rows(index.search("cafe muller", 0, 10))).containsExactlyInAnyOrder(0, 1);
+	}
+
+	@Test
+	void everyQueryTermMustMatch() {
+		SearchIndex index = SearchIndex.build(List.of(
+				partner("Acme Cloud", "Document management"),
+				partner("Acme Print", null),
+				partner("Cloud Nine", "Acme reseller")));
+
+		assertThat(rows(index.search("acme cloud", 0, 10))).containsExactlyInAnyOrder(0, 2);
+		assertThat(index.search("acme print cloud", 0, 10).total()).isZero();
+		assertThat(index.search("acme unknown", 0, 10).total()).isZero();
+		assertThat(index.search(" ,;", 0, 10).total()).isZero();
+	}
+
+	@Test
+	void exactMatchRanksAbovePrefixInTheSameField() {
+		SearchIndex index = SearchIndex.build(List.of(
+				partner("Opentext Partner", null),
+				partner("Other", "Open to everyone"),
+				partner("Open Systems", null)));
+
+		// Exact name, then prefix of a name, which still outweighs an exact word in a description
+		assertThat(rows(index.search("open", 0, 10))).containsExactly(2, 0, 1);
+	}
+
+	@Test
+	void singleLetterTermsOnlyMatchExactly() {
+		SearchIndex index = SearchIndex.build(List.of(partner("A Team", null), partner("Alpha", null)));
+
+		assertThat(rows(index.search("a", 0, 10))).containsExactly(0);
+		assertThat(rows(index.search("al", 0, 10))).containsExactly(1);
+	}
+
+	@Test
+	void prefixExpandsToEveryTermItStarts() {
+		// 200 terms sort between "so" and "software"; every one of them still matches
+		List<PartnerSolution> partners = new ArrayList<>();
+		IntStream.range(0, 200).forEach(i -> partners.add(partner("Soa" + i + " Labs", null)));
+		partners.add(partner("Acme", "Software and solutions"));
+		SearchIndex index = SearchIndex.build(partners);
+
+		SearchIndex.Hits hits = index.search("so", 0, 300);
+
+		assertThat(hits.total()).isEqualTo(201);
+		assertThat(rows(hits)).contains(200).hasSize(201);
+		assertThat(index.search("so labs", 0, 10).total()).isEqualTo(200);
+	}
+
+	@Test
+	void pagesAreWindowsOfTheFullRanking() {
+		List<PartnerSolution> partners = IntStream.range(0, 57)
+				.mapToObj(i -> partner("Partner " + i, i % 3 == 0 ? "partner program" : null,
+						i % 4 == 0 ? List.of(new Solution("Partner portal", null)) : List.of()))
+				.toList();
+		SearchIndex index = SearchIndex.build(partners);
+		int[] ranking = index.search("partner", 0, 100).rows();
+		assertThat(ranking).hasSize(57);
+
+		for (int offset = 0; offset <= 60; offset += 5) {
+			SearchIndex.Hits page = index.search("partner", offset, 10);
+			assertThat(page.total()).isEqualTo(57);
+			assertThat(page.rows()).as("offset %d", offset)
+					.containsExactly(Arrays.copyOfRange(ranking, Math.min(offset, 57), Math.min(offset + 10, 57)));
+		}
+		// Equal scores keep upstream order
+		assertThat(Arrays.copyOfRange(ranking, 0, 5)).containsExactly(0, 12, 24, 36, 48);
+		assertThat(index.search("partner", 0, 0).rows()).isEmpty();
+	}
+
+	private static List<Integer> rows(SearchIndex.Hits hits) {
+		return Arrays.stream(hits.rows()).boxed().toList();
+	}
+
+	private static PartnerSolution partner(String name, String description) {
+		return partner(name, description, List.of());
+	}
+
+	private static PartnerSolution partner(String name, String description, List<Solution> solutions) {
+		return new PartnerSolution(name, null, null, null, description, null, solutions);
+	}
+}
@@ -0,0 +1,59 @@
+package com.opentext.partners.snapshot;
+
+import com.opentext.partners.model.JoinedPartnerDto.PartnerSolution;
+import com.opentext.partners.model.JoinedPartnerDto.Solution;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SnapshotFileTest {
+
+	@TempDir
+	Path dir;
+
+	private final List<PartnerSolution> partners = List.of(
+			new PartnerSolution("Acmé", "P-1", "Gold", "OEM", "Short", "Overview",
+					List.of(new Solution("Capture", null), new Solution("Archive", "Long-term storage"))),
+			new PartnerSolution("Globex", null, null, "Reseller", "", null, List.of()));
+
+	@Test
+	void roundTripsTheSnapshot() throws IOException {
+		SnapshotFile file = SnapshotFile.at(dir.resolve("nested/partners.snapshot"));
+		file.save(PartnerSnapshot.of(7, partners));
+
+		SnapshotCodec.Decoded loaded = file.load().orElseThrow();
+		assertThat(loaded.version()).isEqualTo(7);
+		assertThat(loaded.store().all()).isEqualTo(partners);
+		assertThat(loaded.store().withSolutions()).containsExactly(partners.get(0));
+		assertThat(loaded.store().isOffHeap()).isTrue();
+	}
+
+	@Test
+	void missingFileLoadsNothing() throws IOException {
+		assertThat(SnapshotFile.at(dir.resolve("absent")).load()).isEmpty();
+		assertThat(SnapshotFile.NONE.load()).isEmpty();
+	}
+
+	@Test
+	void rejectsCorruptAndTruncatedFiles() throws IOException {
+		Path path = dir.resolve("partners.snapshot");
+		SnapshotFile file = SnapshotFile.at(path);
+		file.save(PartnerSnapshot.of(1, partners));
+		byte[] bytes = Files.readAllBytes(path);
+
+		bytes[bytes.length - 2] ^= 1;
+		Files.write(path, bytes);
+		assertThatThrownBy(file::load).isInstanceOf(IOException.class).hasMessageContaining("checksum");
+
+		Files.write(path, Arrays.copyOf(bytes, bytes.length / 2));
+		assertThatThrownBy(file::load).isInstanceOf(IOException.class).hasMessageContaining("truncated");
+	}
+}
@@ -1,4 +1,4 @@
-import React, { useState, useEffect } from 'react';
+import React, { useState, useEffect, useRef } from 'react';
 import Header from './components/Header';
 import PartnerGrid from './components/PartnerGrid';
 import Pagination from './components/Pagination';
@@ -9,6 +9,25 @@ import StatusMessage from './components/StatusMessage';
 const PAGE_SIZE = 12;
 // In development, React runs on 3000 and calls Spring Boot on 8080
 const API_URL = 'http://localhost:8080/api/partners'; 
+// Server-Sent Events announcing each new snapshot of the directory and what it changed
+const CHANGES_URL = `${API_URL}/changes`;
+
+// Partners are identified by partnerId, or partnerName when the upstream sent none (as in SnapshotChange)
+const partnerKey = (partner) => partner.partnerId ?? partner.partnerName;
+
+/**
+ * Whether a snapshot change alters the page on screen. In the default order, additions, removals
+ * and moves shift every later row, so only changes before the end of the page matter. A filtered
+ * view maps rows differently, so any change counts there.
+ */
+const affectsPage = (change, displayed, page, filtered) => {
+    const onPage = new Set(displayed.map(partnerKey));
+    if ([...change.changedIds, ...change.removedIds].some((id) => onPage.has(id))) return true;
+    if (change.firstChangedIndex < 0) return false;
+    if (filtered) return true;
+    // A different total changes the page count shown under the grid
+    return change.firstChangedIndex < (page + 1) * PAGE_SIZE || change.added !== change.removed;
+};
 
 function App() {
     const [partners, setPartners] = useState([]);
@@ -17,11 +36,50 @@ function App() {
     const [currentPage, setCurrentPage] = useState(0);
     const [totalPages, setTotalPages] = useState(0);
     const [hasSolutions, setHasSolutions] = useState(false);
+    // Bumped when a snapshot change affects the page on screen, to refetch it
+    const [refreshToken, setRefreshToken] = useState(0);
+
+    // Latest values for the change listener, which is registered once
+    const view = useRef({ partners: [], currentPage: 0, hasSolutions: false });
+    view.current = { partners, currentPage, hasSolutions };
+    const snapshotVersion = useRef(null);
+    const quietRefresh = useRef(false);
+
+    // Effect to follow snapshot changes for as long as the app is open
+    useEffect(() => {
+        const source = new EventSource(CHANGES_URL);
+        const refetch = () => {
+            quietRefresh.current = true;
+            setRefreshToken((token) => token + 1);
+        };
+
+        // Sent on every (re)connect: anything published while disconnected means refetching
+        source.addEventListener('snapshot', (event) => {
+            const { version } = JSON.parse(event.data);
+            if (snapshotVersion.current !== null && snapshotVersion.current !== version) refetch();
+            snapshotVersion.current = version;
+        });
+
+        source.addEventListener('change', (event) => {
+            const change = JSON.parse(event.data);
+            // A version gap (events dropped for a slow client) or cut id lists leave us unsure
+            const missedSome = change.previousVersion !== snapshotVersion.current || change.truncated;
+            snapshotVersion.current = change.version;
+            const { partners: displayed, currentPage: page, hasSolutions: filtered } = view.current;
+            if (missedSome || affectsPage(change, displayed, page, filtered)) refetch();
+        });
+
+        // EventSource reconnects by itself; the 'snapshot' event then tells whether we missed changes
+        return () => source.close();
+    }, []);
 
     // Effect to fetch data when page, size, or filter changes
     useEffect(() => {
         const fetchPartners = async () => {
-            setIsLoading(true);
+            // Live updates replace the page in place instead of flashing the spinner
+            const quiet = quietRefresh.current;
+            quietRefresh.current = false;
+            if (!quiet) setIsLoading(true);
             setError(null);
             
             try {
@@ -56,7 +114,7 @@ function App() {
         };
 
         fetchPartners();
-    }, [currentPage, hasSolutions]); // Dependencies
+    }, [currentPage, hasSolutions, refreshToken]); // Dependencies
 
     // Handler for filter checkbox change
     const handleFilterChange = (e) => {